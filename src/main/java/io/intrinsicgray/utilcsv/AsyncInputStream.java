@@ -0,0 +1,130 @@
+package io.intrinsicgray.utilcsv;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * {@link InputStream} reading another stream on a background thread, through a bounded queue of blocks.
+ * Used to decompress a file while its content is tokenized: the background thread stops when
+ * the queue is full, so at most {@link #QUEUE_SIZE} blocks are kept in memory.
+ *
+ * <p>Exceptions of the background thread are thrown by the reading thread once it reaches them.
+ * Closing this stream stops the background thread, which closes the other stream.</p>
+ *
+ * @author Intrinsic gray (mdegiovanni97@gmail.com)
+ * @version 0.2.0
+ * @since 0.2.0
+ */
+class AsyncInputStream extends InputStream {
+
+    private static final int    BLOCK_SIZE = 64 * 1024;
+    private static final int    QUEUE_SIZE = 4;
+    private static final byte[] END        = new byte[0];
+
+    private final BlockingQueue<byte[]> blocks = new ArrayBlockingQueue<>(QUEUE_SIZE);
+    private final Thread                producer;
+
+    /** Written by the producer before {@link #END} is queued */
+    private Throwable failure;
+
+    private byte[]  block = END;
+    private int     position;
+    private boolean ended;
+
+
+    /**
+     * @param in The stream to read on the background thread
+     * @param name The name of the background thread
+     */
+    protected AsyncInputStream(InputStream in, String name) {
+        this.producer = new Thread(() -> produce(in), name);
+        this.producer.setDaemon(true);
+        this.producer.start();
+    }
+
+
+    // Private methods
+    private void produce(InputStream in) {
+        try(in) {
+            int read;
+            do {
+                final byte[] block = new byte[BLOCK_SIZE];
+                read = in.readNBytes(block, 0, BLOCK_SIZE);
+                if(read > 0) blocks.put(read == BLOCK_SIZE ? block : Arrays.copyOf(block, read));
+            } while(read == BLOCK_SIZE);
+        } catch (InterruptedException e) {
+            // Closed by the reading thread
+            return;
+        } catch (Throwable e) {
+            failure = e;
+        }
+
+        try {
+            blocks.put(END);
+        } catch (InterruptedException ignored) {
+            // Closed by the reading thread
+        }
+    }
+
+    /**
+     * @return False if the end of the stream has been reached
+     */
+    private boolean nextBlock() throws IOException {
+        if(ended) return false;
+
+        try {
+            block    = blocks.take();
+            position = 0;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for "+producer.getName());
+        }
+
+        if(block == END) {
+            ended = true;
+
+            if(failure instanceof IOException)      throw (IOException) failure;
+            if(failure instanceof RuntimeException) throw (RuntimeException) failure;
+            if(failure instanceof Error)            throw (Error) failure;
+            if(failure != null)                     throw new IOException(failure);
+            return false;
+        }
+        return true;
+    }
+
+
+    @Override
+    public int read() throws IOException {
+        if(position == block.length && !nextBlock()) return -1;
+        return block[position++] & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] bytes, int offset, int length) throws IOException {
+        if(length == 0) return 0;
+        if(position == block.length && !nextBlock()) return -1;
+
+        final int read = Math.min(length, block.length - position);
+        System.arraycopy(block, position, bytes, offset, read);
+        position += read;
+        return read;
+    }
+
+    @Override
+    public int available() {
+        return block.length - position;
+    }
+
+    @Override
+    public void close() {
+        ended = true;
+        block = END;
+
+        producer.interrupt();
+        blocks.clear();
+    }
+}
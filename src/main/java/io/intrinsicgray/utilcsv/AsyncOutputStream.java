@@ -0,0 +1,161 @@
+package io.intrinsicgray.utilcsv;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * {@link OutputStream} writing into another stream on a background thread, through a bounded queue of blocks.
+ * Used to compress a file while the rows are formatted: the writing thread stops when the queue is full,
+ * so at most {@link #QUEUE_SIZE} blocks are kept in memory.
+ *
+ * <p>{@link #flush()} hands the bytes written so far to the background thread without waiting for them.
+ * {@link #close()} waits for all the bytes to be written and for the other stream to be closed.
+ * Exceptions of the background thread are thrown by the next write, or by {@link #close()}.</p>
+ *
+ * @author Intrinsic gray (mdegiovanni97@gmail.com)
+ * @version 0.2.0
+ * @since 0.2.0
+ */
+class AsyncOutputStream extends OutputStream {
+
+    private static final int    BLOCK_SIZE = 64 * 1024;
+    private static final int    QUEUE_SIZE = 4;
+    private static final byte[] END        = new byte[0];
+
+    private final BlockingQueue<byte[]> blocks = new ArrayBlockingQueue<>(QUEUE_SIZE);
+    private final Thread                consumer;
+
+    private volatile Throwable failure;
+
+    private byte[]  block = new byte[BLOCK_SIZE];
+    private int     length;
+    private boolean closed;
+
+
+    /**
+     * @param out The stream written on the background thread
+     * @param name The name of the background thread
+     */
+    protected AsyncOutputStream(OutputStream out, String name) {
+        this.consumer = new Thread(() -> consume(out), name);
+        this.consumer.setDaemon(true);
+        this.consumer.start();
+    }
+
+
+    // Private methods
+    private void consume(OutputStream out) {
+        try {
+            byte[] block;
+            while((block = blocks.take()) != END) {
+                // After a failure the blocks are only drained, so that the writing thread is never stuck
+                if(failure == null) {
+                    try {
+                        out.write(block);
+                    } catch (Throwable e) {
+                        failure = e;
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            if(failure == null) failure = new InterruptedIOException(consumer.getName()+" interrupted");
+        }
+
+        try {
+            out.close();
+        } catch (Throwable e) {
+            if(failure == null) failure = e;
+        }
+    }
+
+    private void checkFailure() throws IOException {
+        final Throwable failure = this.failure;
+
+        if(failure == null)                     return;
+        if(failure instanceof IOException)      throw new IOException(failure.getMessage(), failure);
+        if(failure instanceof RuntimeException) throw (RuntimeException) failure;
+        if(failure instanceof Error)            throw (Error) failure;
+        throw new IOException(failure);
+    }
+
+    private void send(byte[] block) throws IOException {
+        checkFailure();
+
+        try {
+            blocks.put(block);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for "+consumer.getName());
+        }
+    }
+
+    private void sendBlock() throws IOException {
+        if(length == 0) return;
+
+        if(length == BLOCK_SIZE) {
+            send(block);
+            block = new byte[BLOCK_SIZE];
+        } else {
+            send(Arrays.copyOf(block, length));
+        }
+        length = 0;
+    }
+
+    private void ensureOpen() throws IOException {
+        if(closed) throw new IOException("Stream closed");
+    }
+
+
+    @Override
+    public void write(int b) throws IOException {
+        ensureOpen();
+
+        if(length == BLOCK_SIZE) sendBlock();
+        block[length++] = (byte) b;
+    }
+
+    @Override
+    public void write(byte[] bytes, int offset, int length) throws IOException {
+        ensureOpen();
+
+        while(length > 0) {
+            if(this.length == BLOCK_SIZE) sendBlock();
+
+            final int copied = Math.min(length, BLOCK_SIZE - this.length);
+            System.arraycopy(bytes, offset, block, this.length, copied);
+            this.length += copied;
+            offset      += copied;
+            length      -= copied;
+        }
+    }
+
+    @Override
+    public void flush() throws IOException {
+        ensureOpen();
+        sendBlock();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if(closed) return;
+        closed = true;
+
+        try {
+            sendBlock();
+        } finally {
+            try {
+                blocks.put(END);
+                consumer.join();
+            } catch (InterruptedException e) {
+                consumer.interrupt();
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while waiting for "+consumer.getName());
+            }
+        }
+        checkFailure();
+    }
+}
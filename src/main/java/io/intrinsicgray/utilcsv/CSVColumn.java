@@ -18,18 +18,33 @@ import java.lang.annotation.Target;
  *
  *     {@literal @}CSVColumn(name = "Age", order = 2)
  *     private int age;
+ *
+ *     {@literal @}CSVColumn(name = "Birthdate", order = 3, format = "dd/MM/yyyy")
+ *     private LocalDate birthDate;
+ *
+ *     {@literal @}CSVColumn(name = "Country", order = 4, dictionary = true)
+ *     private String country;
  * }
  * </pre>
  *
+ * <p>The optional {@link #format()} is a {@link java.time.format.DateTimeFormatter} pattern
+ * used to parse and format the {@code java.time} fields.</p>
+ *
+ * <p>If {@link #dictionary()} is true, a {@link String} column with few distinct values is parsed
+ * through a bounded dictionary, so equal cells share the same instance instead of being copied on
+ * every row. See {@link CSVParser#setDictionarySize(int)}.</p>
+ *
  * @author Intrinsic gray (mdegiovanni97@gmail.com)
- * @version 0.1.0
+ * @version 0.2.0
  * @since 0.1.0
  */
 @Target(ElementType.FIELD)
 @Retention(RetentionPolicy.RUNTIME)
 public @interface CSVColumn {
 
-    int    order() default 0;
-    String name()  default "";
+    int     order()      default 0;
+    String  name()       default "";
+    String  format()     default "";
+    boolean dictionary() default false;
 
 }
@@ -0,0 +1,111 @@
+package io.intrinsicgray.utilcsv;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Bounded collection of the {@link CSVParseError}s of the parsings done with a lenient {@link ErrorPolicy}.
+ * Only the first errors are kept (see {@link #getMaxErrors()}), the others are just counted, so a file full
+ * of bad rows does not fill the memory.
+ *
+ * <p>The errors of every parsing done with the parser are added to the same report, until it is cleared.
+ * Reports are thread-safe.</p>
+ *
+ * <p>Usage example:</p>
+ * <pre>
+ * CSVErrorReport errors = new CSVErrorReport(100);
+ * List&lt;Person&gt; people = parser.errorPolicy(ErrorPolicy.SKIP).errors(errors).parse(file, Person.class);
+ * errors.getErrors().forEach(error -&gt; log.warn("Row {} skipped: {}", error.getRow(), error));
+ * </pre>
+ *
+ * @author Intrinsic gray (mdegiovanni97@gmail.com)
+ * @version 0.2.0
+ * @since 0.2.0
+ */
+public final class CSVErrorReport {
+
+    public static final int DEFAULT_MAX_ERRORS = 1000;
+
+    private final int                 maxErrors;
+    private final List<CSVParseError> errors = new ArrayList<>();
+    private long                      errorCount;
+
+
+    public CSVErrorReport() {
+        this(DEFAULT_MAX_ERRORS);
+    }
+
+    /**
+     * @param maxErrors The maximum number of errors kept
+     * @throws IllegalArgumentException If maxErrors is negative
+     */
+    public CSVErrorReport(int maxErrors) throws IllegalArgumentException {
+        if(maxErrors < 0) throw new IllegalArgumentException("maxErrors cannot be negative");
+        this.maxErrors = maxErrors;
+    }
+
+
+    /**
+     * @return An empty report with the same bound, for a chunk or a range of a parsing
+     */
+    protected CSVErrorReport part() {
+        return new CSVErrorReport(maxErrors);
+    }
+
+    protected synchronized void add(CSVParseError error) {
+        errorCount++;
+        if(errors.size() < maxErrors) errors.add(error);
+    }
+
+    /**
+     * Add the errors of a chunk or a range
+     *
+     * @param part A report created by {@link #part()}, no longer updated
+     * @param rows The number of rows before the chunk or the range
+     */
+    protected synchronized void merge(CSVErrorReport part, long rows) {
+        for(CSVParseError error : part.errors) {
+            if(errors.size() == maxErrors) break;
+            errors.add(error.shift(rows));
+        }
+        errorCount += part.errorCount;
+    }
+
+
+    public int getMaxErrors() { return maxErrors; }
+
+    /**
+     * @return The first errors, in the order of the rows (at most {@link #getMaxErrors()})
+     */
+    public synchronized List<CSVParseError> getErrors() { return Collections.unmodifiableList(new ArrayList<>(errors)); }
+
+    /**
+     * @return The number of errors, including the ones not kept
+     */
+    public synchronized long getErrorCount() { return errorCount; }
+
+    public synchronized boolean isEmpty() { return errorCount == 0; }
+
+    /**
+     * @return True if some errors have not been kept because of the bound
+     */
+    public synchronized boolean isTruncated() { return errorCount > errors.size(); }
+
+    /**
+     * Remove all the errors
+     */
+    public synchronized void clear() {
+        errors.clear();
+        errorCount = 0;
+    }
+
+
+    @Override
+    public synchronized String toString() {
+        return "CSVErrorReport{" +
+                "errorCount=" + errorCount +
+                ", errors=" + errors +
+                '}';
+    }
+}
@@ -1,14 +1,20 @@
 package io.intrinsicgray.utilcsv;
 
+import io.intrinsicgray.utilcsv.codec.CompressionCodec;
+import io.intrinsicgray.utilcsv.codec.CompressionCodecs;
+import io.intrinsicgray.utilcsv.converter.CellConverter;
 import io.intrinsicgray.utilcsv.exception.ListCannotBeFormattedException;
+import io.intrinsicgray.utilcsv.metrics.CSVMetricsListener;
 
 import java.io.*;
-
-import java.lang.reflect.Field;
-import java.lang.reflect.InvocationTargetException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
 
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Stream;
 
 /**
  * Utility class for converting a list of objects into a CSV file.
@@ -38,6 +44,13 @@ import java.util.stream.Collectors;
  *
  * writer.close();
  * bw.close();
+ *
+ * //Write one row at a time, without collecting the objects
+ * try(RowSink&lt;Person&gt; sink = csvFormatter.sink(Person.class, file)) {
+ *     for(Person person : people) {
+ *         sink.write(person);
+ *     }
+ * }
  * </pre>
  *
  * @author Intrinsic gray (mdegiovanni97@gmail.com)
@@ -76,28 +89,217 @@ public class CSVFormatter extends CSVUtil {
         return this;
     }
 
+    @Override
+    public CSVFormatter fieldAccess(boolean fieldAccess) {
+        setFieldAccess(fieldAccess);
+        return this;
+    }
 
-    // Private methods
-    private String formatCell(String cell) {
-        return alwaysUseQuotes || cell.contains(this.delimiter)
-                ? this.quote + escape(cell.replace(this.quote, this.quote + this.quote)) + this.quote
-                : escape(cell);
+    @Override
+    public <T> CSVFormatter converter(Class<T> type, CellConverter<T> converter) {
+        setConverter(type, converter);
+        return this;
+    }
+
+    @Override
+    public CSVFormatter codec(CompressionCodec codec) throws NullPointerException {
+        addCodec(codec);
+        return this;
+    }
+
+    @Override
+    public CSVFormatter pool(ForkJoinPool pool) throws NullPointerException {
+        setPool(pool);
+        return this;
+    }
+
+    @Override
+    public CSVFormatter metrics(CSVMetricsListener metricsListener) throws NullPointerException {
+        setMetricsListener(metricsListener);
+        return this;
     }
 
-    private void writeRowOnBuffer(List<String> orderedCells, Writer writer) throws IOException {
-        final String strRow = orderedCells
-                .stream()
-                .map(this::formatCell)
-                .collect(Collectors.joining(this.delimiter)) + this.lineSeparator.value;
 
-        writer.write(strRow);
+    // Private methods
+
+    /**
+     * Files with the extension of a codec are compressed on a background thread
+     */
+    private BufferedWriter writer(Path path, Charset charset) throws IOException {
+        if(path == null)    throw new NullPointerException("path cannot be null");
+        if(charset == null) throw new NullPointerException("charset cannot be null");
+
+        final CompressionCodec codec = CompressionCodecs.byExtension(codecs, path);
+        if(codec == null) return Files.newBufferedWriter(path, charset);
+
+        final OutputStream file = Files.newOutputStream(path);
+        try {
+            final OutputStream compressed = new AsyncOutputStream(codec.compress(new BufferedOutputStream(file)), "utilcsv-compress-"+path.getFileName());
+            return new BufferedWriter(new OutputStreamWriter(compressed, charset));
+        } catch (IOException | RuntimeException e) {
+            file.close();
+            throw e;
+        }
     }
 
 
     // Public methods
 
     /**
-     * Format a {@link List} of object into a CSV file using a user-defined {@link BufferedWriter}
+     * Create a {@link RowSink} writing the objects of a class on a user-defined {@link Writer}, one row at a time.
+     * The header (if used) is written immediately. Closing the sink flushes the writer, without closing it
+     *
+     * @param rowClass The class of the objects to format
+     * @param writer The Writer where the formatter will write the CSV file
+     * @param <T> The class of the objects
+     *
+     * @return A sink formatting the objects as they are written
+     *
+     * @throws NullPointerException If rowClass or writer is null
+     * @throws IOException If the header cannot be written
+     * @throws ListCannotBeFormattedException If a column of the class cannot be read (check cause)
+     */
+    public <T> RowSink<T> sink(Class<T> rowClass, Writer writer) throws NullPointerException, IOException, ListCannotBeFormattedException {
+        return new CSVRowSink<>(this, rowClass, writer, false);
+    }
+
+    /**
+     * Create a {@link RowSink} writing the objects of a class into a {@link File}, one row at a time.
+     * The file is closed when the sink is closed, so the sink should be used in a try-with-resources statement
+     *
+     * @param rowClass The class of the objects to format
+     * @param file The file where the formatter will write the CSV file
+     * @param <T> The class of the objects
+     *
+     * @return A sink formatting the objects as they are written
+     *
+     * @throws NullPointerException If rowClass or file is null
+     * @throws IOException If the file cannot be opened or the header cannot be written
+     * @throws ListCannotBeFormattedException If a column of the class cannot be read (check cause)
+     */
+    public <T> RowSink<T> sink(Class<T> rowClass, File file) throws NullPointerException, IOException, ListCannotBeFormattedException {
+        if(file == null) throw new NullPointerException("file cannot be null");
+
+        final BufferedWriter bufferedWriter = new BufferedWriter(new FileWriter(file, false));
+        try {
+            return new CSVRowSink<>(this, rowClass, bufferedWriter, true);
+        } catch (IOException | RuntimeException e) {
+            bufferedWriter.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Create a {@link RowSink} writing the objects of a class into a file, one row at a time.
+     * If the name of the file ends with the extension of a codec (see {@link #getCodecs()}, e.g. ".csv.gz"),
+     * the file is compressed on a background thread while the rows are formatted.
+     * The file is closed when the sink is closed, so the sink should be used in a try-with-resources statement
+     *
+     * @param rowClass The class of the objects to format
+     * @param path The file where the formatter will write the CSV file
+     * @param charset The charset of the (uncompressed) file
+     * @param <T> The class of the objects
+     *
+     * @return A sink formatting the objects as they are written
+     *
+     * @throws NullPointerException If rowClass, path or charset is null
+     * @throws IOException If the file cannot be opened or the header cannot be written
+     * @throws ListCannotBeFormattedException If a column of the class cannot be read (check cause)
+     */
+    public <T> RowSink<T> sink(Class<T> rowClass, Path path, Charset charset) throws NullPointerException, IOException, ListCannotBeFormattedException {
+        final BufferedWriter bufferedWriter = writer(path, charset);
+        try {
+            return new CSVRowSink<>(this, rowClass, bufferedWriter, true);
+        } catch (IOException | RuntimeException e) {
+            bufferedWriter.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Create a {@link CSVSubscriber} writing the objects published by a reactive {@link Flow.Publisher}
+     * on a user-defined {@link Writer}. See {@link #subscriber(Class, Path, Charset)}
+     *
+     * @param rowClass The class of the objects to format
+     * @param writer The Writer where the formatter will write the CSV file. It will be flushed, not closed
+     * @param <T> The class of the objects
+     *
+     * @return A subscriber formatting the objects on a background thread
+     *
+     * @throws NullPointerException If rowClass or writer is null
+     * @throws IOException If the header cannot be written
+     * @throws ListCannotBeFormattedException If a column of the class cannot be read (check cause)
+     */
+    public <T> CSVSubscriber<T> subscriber(Class<T> rowClass, Writer writer) throws NullPointerException, IOException, ListCannotBeFormattedException {
+        return new CSVSubscriber<>(sink(rowClass, writer), rowClass.getSimpleName());
+    }
+
+    /**
+     * Create a {@link CSVSubscriber} writing the objects published by a reactive {@link Flow.Publisher} into a file.
+     * The file is opened and the header (if used) is written immediately. The objects are received in batches
+     * and formatted on a background thread, and new objects are requested only once the previous ones are written,
+     * so the publisher never outpaces the file. The file is closed when the publisher completes or fails
+     *
+     * @param rowClass The class of the objects to format
+     * @param path The file where the formatter will write the CSV file, compressed as with {@link #sink(Class, Path, Charset)}
+     * @param charset The charset of the (uncompressed) file
+     * @param <T> The class of the objects
+     *
+     * @return A subscriber formatting the objects on a background thread
+     *
+     * @throws NullPointerException If rowClass, path or charset is null
+     * @throws IOException If the file cannot be opened or the header cannot be written
+     * @throws ListCannotBeFormattedException If a column of the class cannot be read (check cause)
+     */
+    public <T> CSVSubscriber<T> subscriber(Class<T> rowClass, Path path, Charset charset) throws NullPointerException, IOException, ListCannotBeFormattedException {
+        return new CSVSubscriber<>(sink(rowClass, path, charset), String.valueOf(path.getFileName()));
+    }
+
+    /**
+     * Format the objects of an {@link Iterator} into a CSV file using a user-defined {@link BufferedWriter}.
+     * The objects are pulled from the iterator and written one at a time, so they never need to be all in memory
+     *
+     * @param rows The iterator over the objects to format
+     * @param rowClass The class of the objects, used to resolve the columns
+     * @param writer The BufferedWriter where the formatter will write the CSV file. It will not be closed by the formatter
+     * @param <T> The class of the objects
+     *
+     * @throws NullPointerException If rows, rowClass or writer is null, or if an object is null
+     * @throws IOException If the CSV file cannot be written
+     * @throws ListCannotBeFormattedException If there's a problem during the CSV formatting (check cause)
+     */
+    public <T> void format(Iterator<? extends T> rows, Class<T> rowClass, BufferedWriter writer) throws NullPointerException, IOException, ListCannotBeFormattedException {
+        if(rows == null) throw new NullPointerException("rows cannot be null");
+
+        try(final RowSink<T> sink = sink(rowClass, writer)) {
+            while(rows.hasNext()) {
+                sink.write(rows.next());
+            }
+        }
+    }
+
+    /**
+     * Format the objects of a {@link Stream} into a CSV file using a user-defined {@link BufferedWriter}.
+     * See {@link #format(Iterator, Class, BufferedWriter)}. The stream is consumed in encounter order, but not closed
+     *
+     * @param rows The stream of the objects to format
+     * @param rowClass The class of the objects, used to resolve the columns
+     * @param writer The BufferedWriter where the formatter will write the CSV file. It will not be closed by the formatter
+     * @param <T> The class of the objects
+     *
+     * @throws NullPointerException If rows, rowClass or writer is null, or if an object is null
+     * @throws IOException If the CSV file cannot be written
+     * @throws ListCannotBeFormattedException If there's a problem during the CSV formatting (check cause)
+     */
+    public <T> void format(Stream<? extends T> rows, Class<T> rowClass, BufferedWriter writer) throws NullPointerException, IOException, ListCannotBeFormattedException {
+        if(rows == null) throw new NullPointerException("rows cannot be null");
+
+        format(rows.sequential().iterator(), rowClass, writer);
+    }
+
+    /**
+     * Format a {@link List} of object into a CSV file using a user-defined {@link BufferedWriter}.
+     * The columns are resolved from the class of the first object
      *
      * @param rows The list of object to format into a CSV
      * @param writer The BufferedWriter where the formatter will write the CSV file
@@ -106,55 +308,69 @@ public class CSVFormatter extends CSVUtil {
      * @throws NullPointerException If rows or writer is null
      * @throws ListCannotBeFormattedException If there's a problem during the CSV formatting (check cause)
      */
+    @SuppressWarnings("unchecked")
     public <T> void format(List<T> rows, BufferedWriter writer) throws NullPointerException, ListCannotBeFormattedException {
         if(rows == null)   throw new NullPointerException("rows cannot be null");
         if(writer == null) throw new NullPointerException("writer cannot be null");
 
         if(rows.isEmpty()) return;
 
-
-        final Class<?> clazz = rows.get(0).getClass();
-        final List<Column> columns = new ArrayList<>();
-
-        for(Field field : clazz.getDeclaredFields()) {
-            final CSVColumn csvColumn = field.getAnnotation(CSVColumn.class);
-
-            if(csvColumn != null) {
-                final String columnName = csvColumn.name().isBlank() ? field.getName() : csvColumn.name();
-
-                final String methodName = (field.getType().equals(boolean.class) ? "is":"get")
-                        + field.getName().substring(0,1).toUpperCase()
-                        + field.getName().substring(1);
-
-                columns.add(new Column(columnName, csvColumn.order(), field.getType(), methodName));
-            }
+        try {
+            format(rows.iterator(), (Class<T>) rows.get(0).getClass(), writer);
+        } catch (IOException e) {
+            throw new ListCannotBeFormattedException("Error during CSV formatting, "+e.getMessage(), e);
         }
-        columns.sort(Comparator.comparing(Column::getOrder));
+    }
 
-        try {
-            if(this.useHeader) {
-                writeRowOnBuffer(
-                        columns
-                                .stream()
-                                .map(Column::getName)
-                                .collect(Collectors.toList()),
-                        writer
-                );
-            }
+    /**
+     * Format the objects of an {@link Iterator} into a CSV file, using the threads of {@link #getPool()}.
+     * The objects are pulled from the iterator in chunks by the calling thread, each chunk is formatted
+     * into its own buffer by the pool, and the buffers are written to the writer in order by the calling thread,
+     * so the result is the same of {@link #format(Iterator, Class, BufferedWriter)}.
+     *
+     * <p>Only a few chunks for each thread of the pool are kept in memory: the iterator is not consumed
+     * faster than the writer can write. The objects must not be modified while they are being formatted.</p>
+     *
+     * @param rows The iterator over the objects to format
+     * @param rowClass The class of the objects, used to resolve the columns
+     * @param writer The Writer where the formatter will write the CSV file. It will not be closed by the formatter
+     * @param <T> The class of the objects
+     *
+     * @throws NullPointerException If rows, rowClass or writer is null, or if an object is null
+     * @throws IOException If the CSV file cannot be written
+     * @throws ListCannotBeFormattedException If there's a problem during the CSV formatting (check cause)
+     */
+    public <T> void formatParallel(Iterator<? extends T> rows, Class<T> rowClass, Writer writer) throws NullPointerException, IOException, ListCannotBeFormattedException {
+        if(rows == null)     throw new NullPointerException("rows cannot be null");
+        if(rowClass == null) throw new NullPointerException("rowClass cannot be null");
+        if(writer == null)   throw new NullPointerException("writer cannot be null");
 
-            for(Object row : rows) {
-                final List<String> orderedCells = new ArrayList<>();
+        ParallelFormatter.format(this, rows, rowClass, writer, pool);
+    }
 
-                for(Column column : columns) {
-                    final Object value = clazz.getMethod(column.getMethodName()).invoke(row);
-                    orderedCells.add(value == null ? "" : value.toString());
-                }
+    /**
+     * Format a {@link List} of object into a file in parallel, compressed or not.
+     * See {@link #formatParallel(Iterator, Class, Writer)} and {@link #sink(Class, Path, Charset)}
+     *
+     * @param rows The list of object to format into a CSV
+     * @param path The file where the formatter will write the CSV file
+     * @param charset The charset of the (uncompressed) file
+     * @param <T> The class of the objects
+     *
+     * @return The saved file
+     *
+     * @throws NullPointerException If rows, path or charset is null
+     * @throws IOException If the file cannot be written
+     * @throws ListCannotBeFormattedException If a value cannot be read from an object (check cause)
+     */
+    @SuppressWarnings("unchecked")
+    public <T> Path formatParallel(List<T> rows, Path path, Charset charset) throws NullPointerException, IOException, ListCannotBeFormattedException {
+        if(rows == null) throw new NullPointerException("rows cannot be null");
 
-                writeRowOnBuffer(orderedCells, writer);
-            }
-        } catch (IOException | InvocationTargetException | IllegalArgumentException | NoSuchMethodException | IllegalAccessException e) {
-            throw new ListCannotBeFormattedException("Error during CSV formatting, "+e.getMessage(), e);
+        try(final BufferedWriter writer = writer(path, charset)) {
+            if(!rows.isEmpty()) formatParallel(rows.iterator(), (Class<T>) rows.get(0).getClass(), writer);
         }
+        return path;
     }
 
     /**
@@ -200,4 +416,35 @@ public class CSVFormatter extends CSVUtil {
         return file;
     }
 
+    /**
+     * Format a {@link List} of object into a file, compressed or not. See {@link #sink(Class, Path, Charset)}
+     *
+     * @param rows The list of object to format into a CSV
+     * @param path The file where the formatter will write the CSV file
+     * @param charset The charset of the (uncompressed) file
+     * @param <T> The class of the objects
+     *
+     * @return The saved file
+     *
+     * @throws NullPointerException If rows, path or charset is null
+     * @throws IOException If the file cannot be written
+     * @throws ListCannotBeFormattedException If a value cannot be read from an object (check cause)
+     */
+    @SuppressWarnings("unchecked")
+    public <T> Path format(List<T> rows, Path path, Charset charset) throws NullPointerException, IOException, ListCannotBeFormattedException {
+        if(rows == null) throw new NullPointerException("rows cannot be null");
+
+        if(rows.isEmpty()) {
+            writer(path, charset).close();
+            return path;
+        }
+
+        try(final RowSink<T> sink = sink((Class<T>) rows.get(0).getClass(), path, charset)) {
+            for(T row : rows) {
+                sink.write(row);
+            }
+        }
+        return path;
+    }
+
 }
@@ -0,0 +1,229 @@
+package io.intrinsicgray.utilcsv;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Index of the rows of a UTF-8 encoded CSV file, used by {@link CSVParser#parseRange(File, CSVIndex, long, long, Class)}
+ * to jump to a row without reading the file from the beginning.
+ *
+ * <p>The index stores the header and the byte offset of every N-th row (N being the interval of the index),
+ * found with the same quote-aware logic of the parser, so quoted cells spanning several lines are handled.
+ * Reaching a row costs at most N-1 rows to be tokenized, whatever the size of the file.</p>
+ *
+ * <p>An index is built for a given parser configuration (delimiter, quote, header, line separator)
+ * and a given version of the file: {@link #isValidFor(File)} checks if the file has been modified since.
+ * It can be saved next to the file (see {@link #sidecar(File)}) and read again by other processes.</p>
+ *
+ * <p>Usage example:</p>
+ * <pre>
+ * CSVIndex index = parser.index(file);    //Read from "file.csv.idx", or built and saved there
+ * List&lt;Person&gt; people = parser.parseRange(file, index, 1_000_000, 1_000_100, Person.class);
+ * </pre>
+ *
+ * @author Intrinsic gray (mdegiovanni97@gmail.com)
+ * @version 0.2.0
+ * @since 0.2.0
+ */
+public final class CSVIndex {
+
+    private static final int    MAGIC     = 0x43535649;
+    private static final int    VERSION   = 1;
+    private static final String EXTENSION = ".idx";
+
+    private final long          fileLength;
+    private final long          lastModified;
+    private final char          delimiter;
+    private final char          quote;
+    private final boolean       useHeader;
+    private final LineSeparator lineSeparator;
+    private final int           interval;
+    private final long          rowCount;
+    private final List<String>  header;
+    private final long[]        offsets;
+
+
+    private CSVIndex(long fileLength, long lastModified, char delimiter, char quote, boolean useHeader, LineSeparator lineSeparator, int interval, long rowCount, List<String> header, long[] offsets) {
+        this.fileLength    = fileLength;
+        this.lastModified  = lastModified;
+        this.delimiter     = delimiter;
+        this.quote         = quote;
+        this.useHeader     = useHeader;
+        this.lineSeparator = lineSeparator;
+        this.interval      = interval;
+        this.rowCount      = rowCount;
+        this.header        = header;
+        this.offsets       = offsets;
+    }
+
+
+    /**
+     * Build the index of a UTF-8 encoded file, reading it once
+     *
+     * @param parser The parser configuration
+     * @param file The CSV file
+     * @param interval The number of rows between two indexed offsets
+     */
+    protected static CSVIndex build(CSVParser parser, File file, int interval) throws IOException {
+        if(file == null) throw new NullPointerException("file cannot be null");
+        if(interval < 1) throw new IllegalArgumentException("interval must be positive");
+
+        final long fileLength   = file.length();
+        final long lastModified = file.lastModified();
+
+        try(final MappedRowSource source = new MappedRowSource(file, parser.sourceLineSeparator())) {
+            final CSVTokenizer tokenizer = new CSVTokenizer(parser.delimiter.charAt(0), parser.quote.charAt(0));
+
+            List<String> header = null;
+            if(parser.useHeader && source.nextRow(tokenizer)) {
+                header = Collections.unmodifiableList(tokenizer.cells());
+            }
+
+            // The rows are only delimited, their cells are never copied
+            tokenizer.project(new boolean[0]);
+
+            long[] offsets = new long[64];
+            int    indexed = 0;
+            long   rows    = 0;
+            while(true) {
+                final long position = source.position();
+                if(!source.nextRow(tokenizer)) break;
+
+                if(rows % interval == 0) {
+                    if(indexed == offsets.length) offsets = Arrays.copyOf(offsets, offsets.length * 2);
+                    offsets[indexed++] = position;
+                }
+                rows++;
+            }
+
+            return new CSVIndex(fileLength, lastModified, parser.delimiter.charAt(0), parser.quote.charAt(0), parser.useHeader,
+                    source.getLineSeparator(), interval, rows, header, Arrays.copyOf(offsets, indexed));
+        }
+    }
+
+    /**
+     * @return True if the index has been built with the same delimiter, quote and header of the parser
+     */
+    protected boolean matches(CSVParser parser) {
+        return delimiter == parser.delimiter.charAt(0) && quote == parser.quote.charAt(0) && useHeader == parser.useHeader
+                && (parser.isDetectLineSeparator() || lineSeparator == parser.lineSeparator);
+    }
+
+    /**
+     * @param row The index of a row
+     * @return The byte offset of the nearest indexed row before the given one
+     */
+    protected long offset(long row) { return offsets[(int) (row / interval)]; }
+
+    protected LineSeparator getLineSeparator() { return lineSeparator; }
+
+
+    /**
+     * @return The number of rows of the file, header and blank lines excluded
+     */
+    public long getRowCount() { return rowCount; }
+
+    /**
+     * @return The number of rows between two indexed offsets
+     */
+    public int getInterval() { return interval; }
+
+    /**
+     * @return The header of the file, or null if the index has been built without header
+     */
+    public List<String> getHeader() { return header; }
+
+    /**
+     * @param file The CSV file
+     * @return True if the file has not been modified since the index has been built
+     */
+    public boolean isValidFor(File file) {
+        return file.length() == fileLength && file.lastModified() == lastModified;
+    }
+
+    /**
+     * @param file The CSV file
+     * @return The default location of the index of the file (the name of the file followed by ".idx")
+     */
+    public static File sidecar(File file) {
+        return new File(file.getPath() + EXTENSION);
+    }
+
+    /**
+     * Save the index into a file
+     *
+     * @param file The destination file
+     * @throws IOException If the file cannot be written
+     */
+    public void write(File file) throws IOException {
+        try(final DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file.toPath())))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(fileLength);
+            out.writeLong(lastModified);
+            out.writeChar(delimiter);
+            out.writeChar(quote);
+            out.writeBoolean(useHeader);
+            out.writeByte(lineSeparator.ordinal());
+            out.writeInt(interval);
+            out.writeLong(rowCount);
+
+            out.writeInt(header != null ? header.size() : -1);
+            if(header != null) {
+                for(String name : header) {
+                    out.writeUTF(name);
+                }
+            }
+
+            out.writeInt(offsets.length);
+            for(long offset : offsets) {
+                out.writeLong(offset);
+            }
+        }
+    }
+
+    /**
+     * Read an index saved with {@link #write(File)}
+     *
+     * @param file The index file
+     * @return The index
+     * @throws IOException If the file cannot be read or is not a valid index
+     */
+    public static CSVIndex read(File file) throws IOException {
+        try(final DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file.toPath())))) {
+            if(in.readInt() != MAGIC || in.readInt() != VERSION) throw new IOException(file+" is not a valid CSV index");
+
+            final long          fileLength    = in.readLong();
+            final long          lastModified  = in.readLong();
+            final char          delimiter     = in.readChar();
+            final char          quote         = in.readChar();
+            final boolean       useHeader     = in.readBoolean();
+            final LineSeparator lineSeparator = LineSeparator.values()[in.readByte()];
+            final int           interval      = in.readInt();
+            final long          rowCount      = in.readLong();
+
+            List<String> header = null;
+            final int headerSize = in.readInt();
+            if(headerSize >= 0) {
+                header = new ArrayList<>(headerSize);
+                for(int i=0; i<headerSize; i++) {
+                    header.add(in.readUTF());
+                }
+                header = Collections.unmodifiableList(header);
+            }
+
+            final long[] offsets = new long[in.readInt()];
+            for(int i=0; i<offsets.length; i++) {
+                offsets[i] = in.readLong();
+            }
+
+            return new CSVIndex(fileLength, lastModified, delimiter, quote, useHeader, lineSeparator, interval, rowCount, header, offsets);
+        } catch (EOFException | ArrayIndexOutOfBoundsException | NegativeArraySizeException e) {
+            throw new IOException(file+" is not a valid CSV index", e);
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package io.intrinsicgray.utilcsv;
+
+/**
+ * A cell that could not be parsed, collected into a {@link CSVErrorReport} when the {@link ErrorPolicy}
+ * of the parser is not {@link ErrorPolicy#FAIL_FAST}.
+ *
+ * @author Intrinsic gray (mdegiovanni97@gmail.com)
+ * @version 0.2.0
+ * @since 0.2.0
+ */
+public final class CSVParseError {
+
+    private final long             row;
+    private final String           column;
+    private final String           value;
+    private final RuntimeException cause;
+
+
+    protected CSVParseError(long row, String column, String value, RuntimeException cause) {
+        this.row    = row;
+        this.column = column;
+        this.value  = value;
+        this.cause  = cause;
+    }
+
+
+    /**
+     * @param rows The number of rows before the first row of the parsed range or chunk
+     * @return The same error, with the row counted from the beginning of the file
+     */
+    protected CSVParseError shift(long rows) {
+        return rows == 0 ? this : new CSVParseError(row + rows, column, value, cause);
+    }
+
+
+    /**
+     * @return The index of the row, counted from 0, the header and the blank lines excluded (as in {@link CSVParser#parseRange(java.io.File, long, long, Class)})
+     */
+    public long getRow() { return row; }
+
+    /**
+     * @return The name of the column (the name of the field if the column has no name)
+     */
+    public String getColumn() { return column; }
+
+    /**
+     * @return The raw content of the cell, or null if the cell is missing from the row
+     */
+    public String getValue() { return value; }
+
+    /**
+     * @return The exception thrown by the converter
+     */
+    public RuntimeException getCause() { return cause; }
+
+
+    @Override
+    public String toString() {
+        return "CSVParseError{" +
+                "row=" + row +
+                ", column='" + column + '\'' +
+                ", value=" + (value != null ? "'" + value + "'" : null) +
+                ", cause=" + cause.getMessage() +
+                '}';
+    }
+}
@@ -1,22 +1,28 @@
 package io.intrinsicgray.utilcsv;
 
+import io.intrinsicgray.utilcsv.codec.CompressionCodec;
+import io.intrinsicgray.utilcsv.codec.CompressionCodecs;
+import io.intrinsicgray.utilcsv.converter.CellConverter;
 import io.intrinsicgray.utilcsv.exception.CSVCannotBeParsedException;
 import io.intrinsicgray.utilcsv.exception.CellCannotBeParsedException;
 import io.intrinsicgray.utilcsv.exception.ColumnNameNotPresentException;
 import io.intrinsicgray.utilcsv.exception.InvalidColumnOrderException;
+import io.intrinsicgray.utilcsv.metrics.CSVMetrics;
+import io.intrinsicgray.utilcsv.metrics.CSVMetricsListener;
 
 import java.io.*;
-import java.lang.reflect.Constructor;
-import java.lang.reflect.Field;
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
-import java.time.LocalDate;
-import java.time.LocalDateTime;
-import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.List;
-import java.util.Optional;
-import java.util.stream.Collectors;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Utility class for parsing a CSV file into a list of objects.
@@ -46,6 +52,11 @@ import java.util.stream.Collectors;
  *
  * reader.close();
  * br.close();
+ *
+ * //Read one row at a time, without loading the whole file
+ * try(Stream&lt;Person&gt; stream = csvParser.stream(file, Person.class)) {
+ *     stream.forEach(System.out::println);
+ * }
  * </pre>
  *
  * @author Intrinsic gray (mdegiovanni97@gmail.com)
@@ -54,6 +65,198 @@ import java.util.stream.Collectors;
  */
 public class CSVParser extends CSVUtil {
 
+    /** Default interval of the indexes built by {@link #index(File)} */
+    public static final int DEFAULT_INDEX_INTERVAL = 1000;
+
+    private int     dictionarySize      = 1024;
+    private boolean detectLineSeparator = false;
+    private long    skip                = 0;
+    private long    limit               = Long.MAX_VALUE;
+    private int     sampleInterval      = 1;
+
+    private ErrorPolicy    errorPolicy = ErrorPolicy.FAIL_FAST;
+    private CSVErrorReport errorReport;
+
+    protected final Map<String, Predicate<String>> filters = new LinkedHashMap<>();
+
+
+    /**
+     * @return The maximum number of distinct values kept for each {@link CSVColumn#dictionary()} column. 1024 is set as default
+     */
+    public int getDictionarySize() { return dictionarySize; }
+
+    /**
+     * Set the maximum number of distinct values kept for each {@link CSVColumn#dictionary()} column during a parsing.
+     * Once the dictionary is full, the new values are copied as usual
+     *
+     * @param dictionarySize The maximum number of distinct values
+     * @throws IllegalArgumentException if dictionarySize is negative
+     */
+    public void setDictionarySize(int dictionarySize) throws IllegalArgumentException {
+        if(dictionarySize < 0) throw new IllegalArgumentException("dictionarySize cannot be negative");
+        this.dictionarySize = dictionarySize;
+    }
+
+    public CSVParser dictionarySize(int dictionarySize) throws IllegalArgumentException {
+        setDictionarySize(dictionarySize);
+        return this;
+    }
+
+    /**
+     * @return True if the line separator is detected from the first line break of each input, ignoring {@link #getLineSeparator()}. False is set as default
+     */
+    public boolean isDetectLineSeparator() { return detectLineSeparator; }
+
+    /**
+     * If true, the line separator of each input is detected from its first line break ("\r\n", "\r" or "\n"),
+     * so files with different line endings can be parsed with the same parser
+     *
+     * @param detectLineSeparator True to detect the line separator
+     */
+    public void setDetectLineSeparator(boolean detectLineSeparator) { this.detectLineSeparator = detectLineSeparator; }
+
+    public CSVParser detectLineSeparator(boolean detectLineSeparator) {
+        setDetectLineSeparator(detectLineSeparator);
+        return this;
+    }
+
+    /**
+     * @return The number of rows skipped at the beginning of each parsing, after the header. 0 is set as default
+     */
+    public long getSkip() { return skip; }
+
+    /**
+     * Set the number of rows to skip at the beginning of each parsing. Only the rows matching the filters are counted,
+     * and the skipped rows are not bound to objects
+     *
+     * @param skip The number of rows to skip
+     * @throws IllegalArgumentException if skip is negative
+     */
+    public void setSkip(long skip) throws IllegalArgumentException {
+        if(skip < 0) throw new IllegalArgumentException("skip cannot be negative");
+        this.skip = skip;
+    }
+
+    public CSVParser skip(long skip) throws IllegalArgumentException {
+        setSkip(skip);
+        return this;
+    }
+
+    /**
+     * @return The maximum number of objects returned by each parsing. {@link Long#MAX_VALUE} (no limit) is set as default
+     */
+    public long getLimit() { return limit; }
+
+    /**
+     * Set the maximum number of objects returned by each parsing. Once the limit is reached,
+     * the input is not read anymore, so a preview of a huge file costs as much as its first rows
+     *
+     * @param limit The maximum number of objects
+     * @throws IllegalArgumentException if limit is negative
+     */
+    public void setLimit(long limit) throws IllegalArgumentException {
+        if(limit < 0) throw new IllegalArgumentException("limit cannot be negative");
+        this.limit = limit;
+    }
+
+    public CSVParser limit(long limit) throws IllegalArgumentException {
+        setLimit(limit);
+        return this;
+    }
+
+    /**
+     * @return The interval between the parsed rows. 1 (every row) is set as default
+     */
+    public int getSampleInterval() { return sampleInterval; }
+
+    /**
+     * Parse only one row every sampleInterval rows (the first, the (sampleInterval+1)-th, ...), after the skipped rows.
+     * The other rows are tokenized but not bound to objects. See also {@link #sample(BufferedReader, Class, int, Random)}
+     *
+     * @param sampleInterval The interval between the parsed rows
+     * @throws IllegalArgumentException if sampleInterval is lower than 1
+     */
+    public void setSampleInterval(int sampleInterval) throws IllegalArgumentException {
+        if(sampleInterval < 1) throw new IllegalArgumentException("sampleInterval must be positive");
+        this.sampleInterval = sampleInterval;
+    }
+
+    public CSVParser sampleInterval(int sampleInterval) throws IllegalArgumentException {
+        setSampleInterval(sampleInterval);
+        return this;
+    }
+
+    /**
+     * @return What the parser does when a cell cannot be converted. {@link ErrorPolicy#FAIL_FAST} is set as default
+     */
+    public ErrorPolicy getErrorPolicy() { return errorPolicy; }
+
+    /**
+     * Set what the parser does when a cell cannot be converted to the type of its field, or a mapped cell is missing.
+     * With {@link ErrorPolicy#SKIP} and {@link ErrorPolicy#DEFAULT} the errors are collected into the error report (if any)
+     * and the parsing goes on
+     *
+     * @param errorPolicy The policy
+     * @throws NullPointerException if errorPolicy is null
+     */
+    public void setErrorPolicy(ErrorPolicy errorPolicy) throws NullPointerException {
+        if(errorPolicy == null) throw new NullPointerException("errorPolicy cannot be null");
+        this.errorPolicy = errorPolicy;
+    }
+
+    public CSVParser errorPolicy(ErrorPolicy errorPolicy) throws NullPointerException {
+        setErrorPolicy(errorPolicy);
+        return this;
+    }
+
+    /**
+     * @return The report collecting the errors of the lenient parsings, or null if the errors are not collected. Null is set as default
+     */
+    public CSVErrorReport getErrorReport() { return errorReport; }
+
+    /**
+     * Set the report collecting the errors (row, column and raw value) of the parsings done with a lenient {@link ErrorPolicy}
+     *
+     * @param errorReport The report, or null to not collect the errors
+     */
+    public void setErrorReport(CSVErrorReport errorReport) { this.errorReport = errorReport; }
+
+    public CSVParser errors(CSVErrorReport errorReport) {
+        setErrorReport(errorReport);
+        return this;
+    }
+
+    /**
+     * @param column The name of the column
+     * @return The filter set on the column, or null if there is none
+     */
+    public Predicate<String> getFilter(String column) { return filters.get(column); }
+
+    /**
+     * Set a filter on the raw value of a column: the rows whose cell does not match are skipped
+     * before any object is created. The column is the name found on the header if "useHeader" is true,
+     * otherwise the {@link CSVColumn#name()} of a field of the destination class.
+     * A row is parsed only if it matches the filters of all the columns
+     *
+     * @param column The name of the column
+     * @param filter The predicate the cell must match, or null to remove the filter of the column
+     * @throws NullPointerException if column is null
+     */
+    public void setFilter(String column, Predicate<String> filter) throws NullPointerException {
+        if(column == null) throw new NullPointerException("column cannot be null");
+
+        if(filter == null) filters.remove(column);
+        else filters.put(column, filter);
+    }
+
+    /**
+     * Fluent version of {@link #setFilter(String, Predicate)}, e.g. {@code parser.where("Status", "ACTIVE"::equals)}
+     */
+    public CSVParser where(String column, Predicate<String> filter) throws NullPointerException {
+        setFilter(column, filter);
+        return this;
+    }
+
     @Override
     public CSVParser lineSeparator(LineSeparator lineSeparator) {
         setLineSeparator(lineSeparator);
@@ -84,123 +287,183 @@ public class CSVParser extends CSVUtil {
         return this;
     }
 
+    @Override
+    public CSVParser fieldAccess(boolean fieldAccess) {
+        setFieldAccess(fieldAccess);
+        return this;
+    }
 
-    // Private methods
-    private Object convertValue(Class<?> type, String value) throws CellCannotBeParsedException {
-        if (type == String.class) return unescape(value);
-        if (type == int.class || type == Integer.class) return Integer.parseInt(value.trim());
-        if (type == double.class || type == Double.class) return Double.parseDouble(value.trim());
-        if (type == boolean.class || type == Boolean.class) return Boolean.parseBoolean(value);
-        if (type == LocalDate.class) return LocalDate.parse(value);
-        if (type == LocalDateTime.class) return LocalDateTime.parse(value);
-        if (type.isEnum()) return Enum.valueOf(type.asSubclass(Enum.class), value);
+    @Override
+    public <T> CSVParser converter(Class<T> type, CellConverter<T> converter) {
+        setConverter(type, converter);
+        return this;
+    }
 
-        throw new CellCannotBeParsedException("Class "+type.getName()+" cannot be parsed (value: "+value+")");
+    @Override
+    public CSVParser codec(CompressionCodec codec) throws NullPointerException {
+        addCodec(codec);
+        return this;
     }
 
+    @Override
+    public CSVParser pool(ForkJoinPool pool) throws NullPointerException {
+        setPool(pool);
+        return this;
+    }
 
-    private <T> List<T> parse(List<String> rows, Class<T> destinationClass) throws CSVCannotBeParsedException, CellCannotBeParsedException, ColumnNameNotPresentException, InvalidColumnOrderException {
-        final List<T> result = new ArrayList<>();
+    @Override
+    public CSVParser metrics(CSVMetricsListener metricsListener) throws NullPointerException {
+        setMetricsListener(metricsListener);
+        return this;
+    }
 
-        List<List<String>> splittedRows = rows
-                .stream()
-                .filter(row -> !row.isBlank())
-                .map(row -> {
-                    boolean insideMarks = false;
-                    for(int i=0; i<row.length(); i++) {
-                        if(row.charAt(i) == this.delimiter.charAt(0) && insideMarks) {
-                            row = row.substring(0,i) + "|||DEL|||" + row.substring(i+1);
-                        } else if(row.charAt(i) == this.quote.charAt(0)) {
-                            insideMarks = !insideMarks;
-                        }
-                    }
-
-                    row = row.replace(this.quote+this.quote, "|||QTE|||");
-                    row = row.replace(this.quote, "");
-                    row = row.replace("|||QTE|||", this.quote);
-
-                    return Arrays.stream(row.split(this.delimiter))
-                            .map(cell -> cell.replace("|||DEL|||", this.delimiter))
-                            .collect(Collectors.toList());
-                })
-                .collect(Collectors.toList());
-
-        if(splittedRows.isEmpty() || (this.useHeader && splittedRows.size() == 1)) {
-            return result;
+
+    // Private methods
+    private RowSource rowSource(File file, Charset charset) throws IOException {
+        if(file == null)    throw new NullPointerException("file cannot be null");
+        if(charset == null) throw new NullPointerException("charset cannot be null");
+
+        if(isMapped(charset)) {
+            return new MappedRowSource(file, sourceLineSeparator());
         }
+        final CountingInputStream counter = new CountingInputStream(new FileInputStream(file));
+        return new ReaderRowSource(new BufferedReader(new InputStreamReader(counter, charset)), sourceLineSeparator(), true, counter);
+    }
 
-        final List<Column> columns = new ArrayList<>();
+    /**
+     * Uncompressed files are read as any {@link File}, compressed files are decompressed on a background thread
+     */
+    private RowSource rowSource(Path path, Charset charset) throws IOException {
+        if(path == null)    throw new NullPointerException("path cannot be null");
+        if(charset == null) throw new NullPointerException("charset cannot be null");
+
+        final CompressionCodec codec = codec(path);
+        if(codec == null) return rowSource(path.toFile(), charset);
+
+        // The bytes of the compressed file are counted
+        final CountingInputStream file = new CountingInputStream(Files.newInputStream(path));
         try {
-            if(this.useHeader) {
-                int columnCnt = 0;
-                for(String columnName : splittedRows.get(0)) {
-                    columns.add(new Column(columnName, columnCnt, null, null));
-                    columnCnt++;
-                }
+            final InputStream decompressed = new AsyncInputStream(codec.decompress(new BufferedInputStream(file)), "utilcsv-decompress-"+path.getFileName());
+            return new ReaderRowSource(new BufferedReader(new InputStreamReader(decompressed, charset)), sourceLineSeparator(), true, file);
+        } catch (IOException | RuntimeException e) {
+            file.close();
+            throw e;
+        }
+    }
+
+    /**
+     * @return The codec recognizing the first bytes of the file, or the codec of its extension, or null if the file is not compressed
+     */
+    private CompressionCodec codec(Path path) throws IOException {
+        final byte[] header = new byte[16];
+
+        final int length;
+        try(final InputStream in = Files.newInputStream(path)) {
+            length = in.readNBytes(header, 0, header.length);
+        }
+
+        final CompressionCodec codec = CompressionCodecs.byContent(codecs, header, length);
+        return codec != null ? codec : CompressionCodecs.byExtension(codecs, path);
+    }
 
-                for(Field field : destinationClass.getDeclaredFields()) {
-                    final CSVColumn csvColumn = field.getAnnotation(CSVColumn.class);
-
-                    if(csvColumn != null) {
-                        if(csvColumn.name().isBlank()) {
-                            throw new ColumnNameNotPresentException("The @CSVColumn annotation on "+destinationClass.getName()+"."+field.getName()+" does not have a valid name. Enter the column name if you set \"useHeader\" to true");
-                        }
-
-                        final String methodName = "set" + field.getName().substring(0,1).toUpperCase() + field.getName().substring(1);
-                        columns
-                                .stream()
-                                .filter(column -> column.getName().equals(csvColumn.name()))
-                                .findAny()
-                                .ifPresent(column -> {
-                                    column.setType(field.getType());
-                                    column.setMethodName(methodName);
-                                });
-                    }
+    private <T> Stream<T> stream(RowSource source, Class<T> destinationClass) throws IOException {
+        try {
+            final CSVRowIterator<T> iterator = new CSVRowIterator<>(this, source, destinationClass);
+            return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED | Spliterator.NONNULL), false).onClose(() -> {
+                iterator.finish();
+                try {
+                    source.close();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
                 }
+            });
+        } catch (IOException | RuntimeException e) {
+            source.close();
+            throw e;
+        }
+    }
 
-                splittedRows = splittedRows.subList(1, splittedRows.size());
+    private static boolean isMapped(Charset charset) {
+        return charset.equals(StandardCharsets.UTF_8) || charset.equals(StandardCharsets.US_ASCII);
+    }
 
-            } else {
-                for(Field field : destinationClass.getDeclaredFields()) {
-                    final CSVColumn csvColumn = field.getAnnotation(CSVColumn.class);
+    /**
+     * @return The line separator given to the row sources, null if it must be detected
+     */
+    protected LineSeparator sourceLineSeparator() {
+        return detectLineSeparator ? null : this.lineSeparator;
+    }
 
-                    if(csvColumn != null) {
-                        final Optional<Column> conflictColumn = columns
-                                .stream()
-                                .filter(column -> column.getOrder() == csvColumn.order())
-                                .findAny();
+    private boolean isSliced() {
+        return skip > 0 || limit != Long.MAX_VALUE || sampleInterval != 1;
+    }
 
-                        if(conflictColumn.isPresent()) {
-                            throw new InvalidColumnOrderException(destinationClass.getName()+"."+field.getName()+" and "+destinationClass.getName()+"."+field.getName()+" have the same order value: " + conflictColumn.get().getOrder());
-                        }
+    /**
+     * Reservoir sampling: every row has the same probability to be in the sample, and only the rows
+     * entering the sample are bound to objects
+     */
+    private static <T> List<T> reservoir(CSVRowIterator<T> iterator, int size, Random random) throws IOException {
+        final List<T> sample = new ArrayList<>(Math.min(size, 1024));
 
-                        final String methodName = "set" + field.getName().substring(0,1).toUpperCase() + field.getName().substring(1);
-                        columns.add(new Column(field.getName(), csvColumn.order(), field.getType(), methodName));
-                    }
+        try {
+            for(long seen=0; iterator.hasNext(); seen++) {
+                if(seen < size) {
+                    sample.add(iterator.next());
+                    continue;
                 }
 
-                for(int i = 0; i<columns.size(); i++) {
-                    columns.get(i).setOrder(i);
-                }
+                final long index = (long) (random.nextDouble() * (seen + 1));
+                if(index < size) sample.set((int) index, iterator.next());
+                else iterator.skip();
             }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
 
+        return sample;
+    }
 
-            final Constructor<T> constructor = destinationClass.getDeclaredConstructor();
-            for(List<String> row : splittedRows) {
-                final T obj = constructor.newInstance();
+    /**
+     * @return A source reading at most the given number of rows from another one
+     */
+    private static RowSource limit(RowSource source, long rows) {
+        return new RowSource() {
+            private long remaining = rows;
 
-                String cell;
-                for(Column column : columns) {
-                    cell = row.get(column.getOrder());
+            @Override
+            public boolean nextRow(CSVTokenizer tokenizer) throws IOException {
+                if(remaining == 0 || !source.nextRow(tokenizer)) return false;
 
-                    final Method method = destinationClass.getDeclaredMethod(column.getMethodName(), column.getType());
-                    method.invoke(obj, convertValue(column.getType(), cell));
-                }
+                remaining--;
+                return true;
+            }
+
+            @Override
+            public long bytesRead() { return source.bytesRead(); }
+
+            @Override
+            public long charsRead() { return source.charsRead(); }
 
-                result.add(obj);
+            @Override
+            public void project(boolean[] projection) { source.project(projection); }
+
+            @Override
+            public long ioNanos() { return source.ioNanos(); }
+
+            @Override
+            public void close() throws IOException {
+                source.close();
             }
-        } catch (NoSuchMethodException | InstantiationException | IllegalAccessException | InvocationTargetException e) {
-            throw new CSVCannotBeParsedException("Error during CSV parsing. "+e.getMessage(), e);
+        };
+    }
+
+    private static <T> List<T> toList(Iterator<T> iterator) throws IOException {
+        final List<T> result = new ArrayList<>();
+
+        try {
+            iterator.forEachRemaining(result::add);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
         }
 
         return result;
@@ -208,39 +471,289 @@ public class CSVParser extends CSVUtil {
 
 
     //Public methods
-    public <T> List<T> parse(BufferedReader reader, Class<T> destinationClass) throws IOException, CSVCannotBeParsedException, CellCannotBeParsedException, ColumnNameNotPresentException, InvalidColumnOrderException {
-        final List<String> rows = new ArrayList<>();
-        final StringBuilder row = new StringBuilder();
-
-        int character;
-        while((character = reader.read()) != -1) {
-            if(
-                    (character == '\n' && this.lineSeparator.equals(LineSeparator.LF)) ||
-                    (character == '\r' && this.lineSeparator.equals(LineSeparator.CR)) ||
-                    (character == '\n' && row.toString().endsWith("\r") && this.lineSeparator.equals(LineSeparator.CRLF))
-            ) {
-                rows.add(row.toString());
-                row.setLength(0);
-            } else {
-                row.append((char) character);
-            }
-        }
-        if(row.length() > 0) {
-            rows.add(row.toString());
+
+    /**
+     * Lazily parse a CSV file from a user-defined {@link BufferedReader}. Rows are read from the reader
+     * only when the returned iterator is advanced, one block of chars at a time, so the whole file is never kept in memory.
+     * The header (if used) is read as soon as this method is invoked.
+     *
+     * @param reader The BufferedReader containing the CSV file. It will not be closed by the parser
+     * @param destinationClass The class of the objects to create
+     * @param <T> The class of the objects
+     *
+     * @return An {@link Iterator} over the objects of the CSV file. {@link IOException}s thrown while iterating
+     * are wrapped into {@link UncheckedIOException}s
+     *
+     * @throws NullPointerException If reader or destinationClass is null
+     * @throws IOException If the header cannot be read
+     * @throws CSVCannotBeParsedException If the destination class cannot be instantiated (check cause)
+     * @throws ColumnNameNotPresentException If "useHeader" is true and a {@link CSVColumn} does not have a name
+     * @throws InvalidColumnOrderException If "useHeader" is false and two {@link CSVColumn} have the same order
+     */
+    public <T> Iterator<T> iterator(BufferedReader reader, Class<T> destinationClass) throws NullPointerException, IOException, CSVCannotBeParsedException, ColumnNameNotPresentException, InvalidColumnOrderException {
+        return new CSVRowIterator<>(this, new ReaderRowSource(reader, sourceLineSeparator(), false), destinationClass);
+    }
+
+    /**
+     * Lazily parse a CSV file from a user-defined {@link BufferedReader} into a sequential {@link Stream}.
+     * See {@link #iterator(BufferedReader, Class)}
+     *
+     * @param reader The BufferedReader containing the CSV file. It will not be closed by the parser
+     * @param destinationClass The class of the objects to create
+     * @param <T> The class of the objects
+     *
+     * @return A {@link Stream} of the objects of the CSV file
+     *
+     * @throws NullPointerException If reader or destinationClass is null
+     * @throws IOException If the header cannot be read
+     * @throws CSVCannotBeParsedException If the destination class cannot be instantiated (check cause)
+     * @throws ColumnNameNotPresentException If "useHeader" is true and a {@link CSVColumn} does not have a name
+     * @throws InvalidColumnOrderException If "useHeader" is false and two {@link CSVColumn} have the same order
+     */
+    public <T> Stream<T> stream(BufferedReader reader, Class<T> destinationClass) throws NullPointerException, IOException, CSVCannotBeParsedException, ColumnNameNotPresentException, InvalidColumnOrderException {
+        final Iterator<T> iterator = iterator(reader, destinationClass);
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED | Spliterator.NONNULL), false);
+    }
+
+    /**
+     * Lazily parse a CSV {@link File}, encoded with the platform default charset, into a sequential {@link Stream}.
+     * See {@link #stream(File, Class, Charset)}
+     *
+     * @param file The CSV file
+     * @param destinationClass The class of the objects to create
+     * @param <T> The class of the objects
+     *
+     * @return A {@link Stream} of the objects of the CSV file
+     *
+     * @throws NullPointerException If file or destinationClass is null
+     * @throws IOException If the file cannot be opened or the header cannot be read
+     * @throws CSVCannotBeParsedException If the destination class cannot be instantiated (check cause)
+     * @throws ColumnNameNotPresentException If "useHeader" is true and a {@link CSVColumn} does not have a name
+     * @throws InvalidColumnOrderException If "useHeader" is false and two {@link CSVColumn} have the same order
+     */
+    public <T> Stream<T> stream(File file, Class<T> destinationClass) throws NullPointerException, IOException, CSVCannotBeParsedException, ColumnNameNotPresentException, InvalidColumnOrderException {
+        return stream(file, destinationClass, Charset.defaultCharset());
+    }
+
+    /**
+     * Lazily parse a CSV {@link File} into a sequential {@link Stream}. The file is closed when the stream is closed,
+     * so the stream should be used in a try-with-resources statement.
+     * UTF-8 and US-ASCII files are memory-mapped and decoded while they are tokenized.
+     *
+     * @param file The CSV file
+     * @param destinationClass The class of the objects to create
+     * @param charset The charset of the file
+     * @param <T> The class of the objects
+     *
+     * @return A {@link Stream} of the objects of the CSV file
+     *
+     * @throws NullPointerException If file, destinationClass or charset is null
+     * @throws IOException If the file cannot be opened or the header cannot be read
+     * @throws CSVCannotBeParsedException If the destination class cannot be instantiated (check cause)
+     * @throws ColumnNameNotPresentException If "useHeader" is true and a {@link CSVColumn} does not have a name
+     * @throws InvalidColumnOrderException If "useHeader" is false and two {@link CSVColumn} have the same order
+     */
+    public <T> Stream<T> stream(File file, Class<T> destinationClass, Charset charset) throws NullPointerException, IOException, CSVCannotBeParsedException, ColumnNameNotPresentException, InvalidColumnOrderException {
+        return stream(rowSource(file, charset), destinationClass);
+    }
+
+    /**
+     * Lazily parse a CSV file, compressed or not, into a sequential {@link Stream}. The file is closed when the stream is closed,
+     * so the stream should be used in a try-with-resources statement.
+     *
+     * <p>Compressed files are recognized by their first bytes or their extension (see {@link #getCodecs()})
+     * and decompressed on a background thread, one block ahead of the tokenizer.
+     * Uncompressed files are read as with {@link #stream(File, Class, Charset)}.</p>
+     *
+     * @param path The CSV file
+     * @param destinationClass The class of the objects to create
+     * @param charset The charset of the (decompressed) file
+     * @param <T> The class of the objects
+     *
+     * @return A {@link Stream} of the objects of the CSV file
+     *
+     * @throws NullPointerException If path, destinationClass or charset is null
+     * @throws IOException If the file cannot be opened or the header cannot be read
+     * @throws CSVCannotBeParsedException If the destination class cannot be instantiated (check cause)
+     * @throws ColumnNameNotPresentException If "useHeader" is true and a {@link CSVColumn} does not have a name
+     * @throws InvalidColumnOrderException If "useHeader" is false and two {@link CSVColumn} have the same order
+     */
+    public <T> Stream<T> stream(Path path, Class<T> destinationClass, Charset charset) throws NullPointerException, IOException, CSVCannotBeParsedException, ColumnNameNotPresentException, InvalidColumnOrderException {
+        return stream(rowSource(path, charset), destinationClass);
+    }
+
+    /**
+     * Asynchronously parse a CSV {@link File} for a reactive {@link Flow.Subscriber}.
+     * See {@link #publisher(Path, Class, Charset)}
+     *
+     * @param file The CSV file
+     * @param destinationClass The class of the objects to create
+     * @param charset The charset of the file
+     * @param <T> The class of the objects
+     *
+     * @return A publisher parsing the file again for each subscriber
+     *
+     * @throws NullPointerException If file, destinationClass or charset is null
+     */
+    public <T> Flow.Publisher<T> publisher(File file, Class<T> destinationClass, Charset charset) throws NullPointerException {
+        if(file == null)    throw new NullPointerException("file cannot be null");
+        if(charset == null) throw new NullPointerException("charset cannot be null");
+
+        return new CSVPublisher<>(this, () -> rowSource(file, charset), destinationClass, file.getName());
+    }
+
+    /**
+     * Asynchronously parse a CSV file, compressed or not, for a reactive {@link Flow.Subscriber}.
+     * The file is opened when a subscriber subscribes, and the parsing runs on two background threads:
+     * one reads and tokenizes the rows, the other binds them to objects and delivers them to the subscriber.
+     * The threads are connected by a bounded queue of batches of rows, and the objects are only bound
+     * when the subscriber requests them, so a slow subscriber stops the parsing instead of filling the memory.
+     * The thread calling {@link Flow.Subscription#request(long)} is never blocked.
+     *
+     * <p>IO errors, errors of the header and errors of the objects are signaled through {@link Flow.Subscriber#onError(Throwable)}.
+     * The file is closed when the rows are over, when the parsing fails or when the subscription is cancelled.</p>
+     *
+     * <p>Usage example:</p>
+     * <pre>
+     * csvParser.publisher(path, Person.class, StandardCharsets.UTF_8).subscribe(subscriber);
+     * </pre>
+     *
+     * @param path The CSV file
+     * @param destinationClass The class of the objects to create
+     * @param charset The charset of the (decompressed) file
+     * @param <T> The class of the objects
+     *
+     * @return A publisher parsing the file again for each subscriber
+     *
+     * @throws NullPointerException If path, destinationClass or charset is null
+     */
+    public <T> Flow.Publisher<T> publisher(Path path, Class<T> destinationClass, Charset charset) throws NullPointerException {
+        if(path == null)    throw new NullPointerException("path cannot be null");
+        if(charset == null) throw new NullPointerException("charset cannot be null");
+
+        return new CSVPublisher<>(this, () -> rowSource(path, charset), destinationClass, String.valueOf(path.getFileName()));
+    }
+
+    /**
+     * Lazily read the rows of a CSV file from a user-defined {@link BufferedReader} as raw {@link CSVRecord}s,
+     * without binding them to objects. The same record is returned for every row, and its cells are views over
+     * the read buffer, so no string is created unless requested. The header (if used) is read as soon as this method is invoked.
+     *
+     * <p>The filters, skip, limit and sample interval of the parser are applied. Filters need the header.</p>
+     *
+     * @param reader The BufferedReader containing the CSV file. It will not be closed by the parser
+     *
+     * @return An {@link Iterator} over the rows of the CSV file, valid until the next row is read. {@link IOException}s thrown while iterating
+     * are wrapped into {@link UncheckedIOException}s
+     *
+     * @throws NullPointerException If reader is null
+     * @throws IOException If the header cannot be read
+     * @throws ColumnNameNotPresentException If a filtered column is not present in the header
+     */
+    public Iterator<CSVRecord> records(BufferedReader reader) throws NullPointerException, IOException, ColumnNameNotPresentException {
+        return new CSVRecordIterator(this, new ReaderRowSource(reader, sourceLineSeparator(), false));
+    }
+
+    /**
+     * Lazily read the rows of a CSV file, compressed or not, as raw {@link CSVRecord}s into a sequential {@link Stream}.
+     * See {@link #records(BufferedReader)}. The file is read as with {@link #stream(Path, Class, Charset)}, and closed
+     * when the stream is closed, so the stream should be used in a try-with-resources statement.
+     * Since the same record is returned for every row, records must not be collected: their cells should be copied instead
+     *
+     * @param path The CSV file
+     * @param charset The charset of the (decompressed) file
+     *
+     * @return A {@link Stream} of the rows of the CSV file
+     *
+     * @throws NullPointerException If path or charset is null
+     * @throws IOException If the file cannot be opened or the header cannot be read
+     * @throws ColumnNameNotPresentException If a filtered column is not present in the header
+     */
+    public Stream<CSVRecord> records(Path path, Charset charset) throws NullPointerException, IOException, ColumnNameNotPresentException {
+        final RowSource source = rowSource(path, charset);
+        try {
+            final CSVRecordIterator iterator = new CSVRecordIterator(this, source);
+            return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED | Spliterator.NONNULL), false).onClose(() -> {
+                iterator.finish();
+                try {
+                    source.close();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (IOException | RuntimeException e) {
+            source.close();
+            throw e;
         }
+    }
 
-        return parse(rows, destinationClass);
+    /**
+     * Parse a CSV file from a user-defined {@link BufferedReader} into a {@link List}
+     *
+     * @param reader The BufferedReader containing the CSV file. It will not be closed by the parser
+     * @param destinationClass The class of the objects to create
+     * @param <T> The class of the objects
+     *
+     * @return The list of the objects of the CSV file
+     *
+     * @throws IOException If the reader cannot be read
+     * @throws CSVCannotBeParsedException If the objects cannot be created or populated (check cause)
+     * @throws CellCannotBeParsedException If a cell cannot be converted to the type of its field
+     * @throws ColumnNameNotPresentException If "useHeader" is true and a {@link CSVColumn} does not have a name
+     * @throws InvalidColumnOrderException If "useHeader" is false and two {@link CSVColumn} have the same order
+     */
+    public <T> List<T> parse(BufferedReader reader, Class<T> destinationClass) throws IOException, CSVCannotBeParsedException, CellCannotBeParsedException, ColumnNameNotPresentException, InvalidColumnOrderException {
+        return toList(iterator(reader, destinationClass));
     }
 
     public <T> List<T> parse(File file, Class<T> destinationClass) throws IOException, CSVCannotBeParsedException, CellCannotBeParsedException, ColumnNameNotPresentException, InvalidColumnOrderException {
-        try(final FileReader fileReader = new FileReader(file)) {
-            final BufferedReader bufferedReader = new BufferedReader(fileReader);
+        return parse(file, destinationClass, Charset.defaultCharset());
+    }
 
-            final List<T> result = parse(bufferedReader, destinationClass);
+    /**
+     * Parse a CSV {@link File} into a {@link List}.
+     * UTF-8 and US-ASCII files are memory-mapped and decoded while they are tokenized
+     *
+     * @param file The CSV file
+     * @param destinationClass The class of the objects to create
+     * @param charset The charset of the file
+     * @param <T> The class of the objects
+     *
+     * @return The list of the objects of the CSV file
+     *
+     * @throws NullPointerException If file, destinationClass or charset is null
+     * @throws IOException If the file cannot be read
+     * @throws CSVCannotBeParsedException If the objects cannot be created or populated (check cause)
+     * @throws CellCannotBeParsedException If a cell cannot be converted to the type of its field
+     * @throws ColumnNameNotPresentException If "useHeader" is true and a {@link CSVColumn} does not have a name
+     * @throws InvalidColumnOrderException If "useHeader" is false and two {@link CSVColumn} have the same order
+     */
+    public <T> List<T> parse(File file, Class<T> destinationClass, Charset charset) throws NullPointerException, IOException, CSVCannotBeParsedException, CellCannotBeParsedException, ColumnNameNotPresentException, InvalidColumnOrderException {
+        try(final RowSource source = rowSource(file, charset)) {
+            return toList(new CSVRowIterator<>(this, source, destinationClass));
+        }
+    }
 
-            fileReader.close();
-            bufferedReader.close();
-            return result;
+    /**
+     * Parse a CSV file, compressed or not, into a {@link List}. See {@link #stream(Path, Class, Charset)}
+     *
+     * @param path The CSV file
+     * @param destinationClass The class of the objects to create
+     * @param charset The charset of the (decompressed) file
+     * @param <T> The class of the objects
+     *
+     * @return The list of the objects of the CSV file
+     *
+     * @throws NullPointerException If path, destinationClass or charset is null
+     * @throws IOException If the file cannot be read or decompressed
+     * @throws CSVCannotBeParsedException If the objects cannot be created or populated (check cause)
+     * @throws CellCannotBeParsedException If a cell cannot be converted to the type of its field
+     * @throws ColumnNameNotPresentException If "useHeader" is true and a {@link CSVColumn} does not have a name
+     * @throws InvalidColumnOrderException If "useHeader" is false and two {@link CSVColumn} have the same order
+     */
+    public <T> List<T> parse(Path path, Class<T> destinationClass, Charset charset) throws NullPointerException, IOException, CSVCannotBeParsedException, CellCannotBeParsedException, ColumnNameNotPresentException, InvalidColumnOrderException {
+        try(final RowSource source = rowSource(path, charset)) {
+            return toList(new CSVRowIterator<>(this, source, destinationClass));
         }
     }
 
@@ -256,4 +769,212 @@ public class CSVParser extends CSVUtil {
         bufferedReader.close();
         return result;
     }
+
+    /**
+     * Parse a random sample of the rows of a CSV file from a user-defined {@link BufferedReader}.
+     * The whole file is read once, but only the rows entering the sample are bound to objects.
+     * Filters, skip, sample interval and limit are applied before sampling
+     *
+     * @param reader The BufferedReader containing the CSV file. It will not be closed by the parser
+     * @param destinationClass The class of the objects to create
+     * @param size The maximum number of objects in the sample
+     * @param random The source of randomness
+     * @param <T> The class of the objects
+     *
+     * @return The sampled objects, in no particular order. All the objects if the file has less than size rows
+     *
+     * @throws NullPointerException If reader, destinationClass or random is null
+     * @throws IllegalArgumentException If size is negative
+     * @throws IOException If the reader cannot be read
+     * @throws CSVCannotBeParsedException If the objects cannot be created or populated (check cause)
+     * @throws CellCannotBeParsedException If a cell cannot be converted to the type of its field
+     * @throws ColumnNameNotPresentException If "useHeader" is true and a {@link CSVColumn} does not have a name
+     * @throws InvalidColumnOrderException If "useHeader" is false and two {@link CSVColumn} have the same order
+     */
+    public <T> List<T> sample(BufferedReader reader, Class<T> destinationClass, int size, Random random) throws NullPointerException, IllegalArgumentException, IOException, CSVCannotBeParsedException, CellCannotBeParsedException, ColumnNameNotPresentException, InvalidColumnOrderException {
+        if(random == null) throw new NullPointerException("random cannot be null");
+        if(size < 0)       throw new IllegalArgumentException("size cannot be negative");
+
+        return reservoir(new CSVRowIterator<>(this, new ReaderRowSource(reader, sourceLineSeparator(), false), destinationClass), size, random);
+    }
+
+    /**
+     * Parse a random sample of the rows of a CSV {@link File}. See {@link #sample(BufferedReader, Class, int, Random)}
+     *
+     * @param file The CSV file
+     * @param destinationClass The class of the objects to create
+     * @param charset The charset of the file
+     * @param size The maximum number of objects in the sample
+     * @param random The source of randomness
+     * @param <T> The class of the objects
+     *
+     * @return The sampled objects, in no particular order. All the objects if the file has less than size rows
+     */
+    public <T> List<T> sample(File file, Class<T> destinationClass, Charset charset, int size, Random random) throws NullPointerException, IllegalArgumentException, IOException, CSVCannotBeParsedException, CellCannotBeParsedException, ColumnNameNotPresentException, InvalidColumnOrderException {
+        if(random == null) throw new NullPointerException("random cannot be null");
+        if(size < 0)       throw new IllegalArgumentException("size cannot be negative");
+
+        try(final RowSource source = rowSource(file, charset)) {
+            return reservoir(new CSVRowIterator<>(this, source, destinationClass), size, random);
+        }
+    }
+
+    /**
+     * Build the row index of a UTF-8 encoded CSV {@link File}, reading the whole file once.
+     * See {@link CSVIndex}
+     *
+     * @param file The CSV file
+     * @param interval The number of rows between two indexed offsets: a lower interval makes the index bigger,
+     *                 but reaching a row faster
+     *
+     * @return The index of the file, for the configuration of this parser
+     *
+     * @throws NullPointerException If file is null
+     * @throws IllegalArgumentException If interval is lower than 1
+     * @throws IOException If the file cannot be read
+     */
+    public CSVIndex index(File file, int interval) throws NullPointerException, IllegalArgumentException, IOException {
+        return CSVIndex.build(this, file, interval);
+    }
+
+    /**
+     * Get the row index of a UTF-8 encoded CSV {@link File} from its sidecar file (see {@link CSVIndex#sidecar(File)}).
+     * If the sidecar file does not exist, or it has been built for an older version of the file or a different
+     * configuration, the index is built again (with {@link #DEFAULT_INDEX_INTERVAL}) and saved
+     *
+     * @param file The CSV file
+     *
+     * @return The index of the file, for the configuration of this parser
+     *
+     * @throws NullPointerException If file is null
+     * @throws IOException If the file cannot be read or the sidecar file cannot be written
+     */
+    public CSVIndex index(File file) throws NullPointerException, IOException {
+        if(file == null) throw new NullPointerException("file cannot be null");
+
+        final File sidecar = CSVIndex.sidecar(file);
+        if(sidecar.isFile()) {
+            try {
+                final CSVIndex index = CSVIndex.read(sidecar);
+                if(index.isValidFor(file) && index.matches(this)) return index;
+            } catch (IOException ignored) {
+                // An invalid sidecar file is replaced
+            }
+        }
+
+        final CSVIndex index = index(file, DEFAULT_INDEX_INTERVAL);
+        index.write(sidecar);
+        return index;
+    }
+
+    /**
+     * Parse a range of rows of a UTF-8 encoded CSV {@link File}, using its sidecar index.
+     * See {@link #index(File)} and {@link #parseRange(File, CSVIndex, long, long, Class)}
+     */
+    public <T> List<T> parseRange(File file, long fromRow, long toRow, Class<T> destinationClass) throws NullPointerException, IndexOutOfBoundsException, IOException, CSVCannotBeParsedException, CellCannotBeParsedException, ColumnNameNotPresentException, InvalidColumnOrderException {
+        return parseRange(file, index(file), fromRow, toRow, destinationClass);
+    }
+
+    /**
+     * Parse a range of rows of a UTF-8 encoded CSV {@link File}. The file is read from the nearest indexed row,
+     * so the cost does not depend on the position of the range in the file.
+     * Rows are counted from 0, the header and the blank lines excluded. Filters, skip, limit and sample interval
+     * are applied to the rows of the range
+     *
+     * @param file The CSV file
+     * @param index The index of the file
+     * @param fromRow The first row to parse
+     * @param toRow The row after the last one to parse. The range ends at the last row of the file if toRow is bigger
+     * @param destinationClass The class of the objects to create
+     * @param <T> The class of the objects
+     *
+     * @return The list of the objects of the range
+     *
+     * @throws NullPointerException If file, index or destinationClass is null
+     * @throws IllegalArgumentException If the index has been built for an older version of the file or a different configuration
+     * @throws IndexOutOfBoundsException If fromRow is negative or bigger than toRow
+     * @throws IOException If the file cannot be read
+     * @throws CSVCannotBeParsedException If the objects cannot be created or populated (check cause)
+     * @throws CellCannotBeParsedException If a cell cannot be converted to the type of its field
+     * @throws ColumnNameNotPresentException If "useHeader" is true and a {@link CSVColumn} does not have a name
+     * @throws InvalidColumnOrderException If "useHeader" is false and two {@link CSVColumn} have the same order
+     */
+    public <T> List<T> parseRange(File file, CSVIndex index, long fromRow, long toRow, Class<T> destinationClass) throws NullPointerException, IllegalArgumentException, IndexOutOfBoundsException, IOException, CSVCannotBeParsedException, CellCannotBeParsedException, ColumnNameNotPresentException, InvalidColumnOrderException {
+        if(file == null)             throw new NullPointerException("file cannot be null");
+        if(index == null)            throw new NullPointerException("index cannot be null");
+        if(destinationClass == null) throw new NullPointerException("destinationClass cannot be null");
+        if(fromRow < 0 || fromRow > toRow) throw new IndexOutOfBoundsException("Invalid range "+fromRow+"-"+toRow);
+
+        if(!index.isValidFor(file)) throw new IllegalArgumentException("The index is older than "+file);
+        if(!index.matches(this))    throw new IllegalArgumentException("The index has been built with a different configuration");
+
+        final long end = Math.min(toRow, index.getRowCount());
+        if(fromRow >= end) return new ArrayList<>();
+
+        try(final FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+            final RowSource source = new MappedRowSource(channel, index.offset(fromRow), channel.size(), index.getLineSeparator())) {
+
+            // Move from the indexed row to the first row of the range
+            final CSVTokenizer tokenizer = new CSVTokenizer(this.delimiter.charAt(0), this.quote.charAt(0));
+            tokenizer.project(new boolean[0]);
+            for(long row = fromRow - fromRow % index.getInterval(); row < fromRow; row++) {
+                source.nextRow(tokenizer);
+            }
+
+            // The rows of the errors are counted from the beginning of the range, then shifted
+            final CSVErrorReport errors = errorReport != null ? errorReport.part() : null;
+            try {
+                return toList(new CSVRowIterator<>(this, limit(source, end - fromRow), destinationClass, index.getHeader(),
+                        MetricsRecorder.of(this, CSVMetrics.Operation.PARSE), errors));
+            } finally {
+                if(errors != null) errorReport.merge(errors, fromRow);
+            }
+        }
+    }
+
+    /**
+     * Parse a CSV {@link File}, encoded with the platform default charset, in parallel.
+     * See {@link #parseParallel(File, Class, Charset, boolean)}
+     */
+    public <T> List<T> parseParallel(File file, Class<T> destinationClass) throws NullPointerException, IOException, CSVCannotBeParsedException, CellCannotBeParsedException, ColumnNameNotPresentException, InvalidColumnOrderException {
+        return parseParallel(file, destinationClass, Charset.defaultCharset(), true);
+    }
+
+    /**
+     * Parse a CSV {@link File} in parallel, using the threads of {@link #getPool()}.
+     * The file is split into byte ranges which are moved to the nearest row boundary (quoted cells are taken into account)
+     * and parsed concurrently, each one by its own iterator.
+     *
+     * <p>Only UTF-8 and US-ASCII files with ASCII delimiter and quote can be split: other files, files
+     * too small to be worth splitting and parsings with a skip, a limit or a sample interval are parsed sequentially.</p>
+     *
+     * <p>Since the chunks are parsed independently, each {@link CSVColumn#dictionary()} column
+     * has its own dictionary for every chunk.</p>
+     *
+     * @param file The CSV file
+     * @param destinationClass The class of the objects to create
+     * @param charset The charset of the file
+     * @param ordered If true, the objects are returned in the order of the rows. Otherwise, the rows of each chunk
+     *                are kept together, but the chunks are returned as soon as they are parsed
+     * @param <T> The class of the objects
+     *
+     * @return The list of the objects of the CSV file
+     *
+     * @throws NullPointerException If file, destinationClass or charset is null
+     * @throws IOException If the file cannot be read
+     * @throws CSVCannotBeParsedException If the objects cannot be created or populated (check cause)
+     * @throws CellCannotBeParsedException If a cell cannot be converted to the type of its field
+     * @throws ColumnNameNotPresentException If "useHeader" is true and a {@link CSVColumn} does not have a name
+     * @throws InvalidColumnOrderException If "useHeader" is false and two {@link CSVColumn} have the same order
+     */
+    public <T> List<T> parseParallel(File file, Class<T> destinationClass, Charset charset, boolean ordered) throws NullPointerException, IOException, CSVCannotBeParsedException, CellCannotBeParsedException, ColumnNameNotPresentException, InvalidColumnOrderException {
+        if(file == null)             throw new NullPointerException("file cannot be null");
+        if(destinationClass == null) throw new NullPointerException("destinationClass cannot be null");
+        if(charset == null)          throw new NullPointerException("charset cannot be null");
+
+        if(!isMapped(charset) || !ParallelParser.isSupported(this) || isSliced()) {
+            return parse(file, destinationClass, charset);
+        }
+        return ParallelParser.parse(this, file, destinationClass, ordered, pool);
+    }
 }
@@ -0,0 +1,309 @@
+package io.intrinsicgray.utilcsv;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Flow;
+
+/**
+ * {@link Flow.Publisher} returned by {@link CSVParser#publisher(java.nio.file.Path, Class, java.nio.charset.Charset)}.
+ * Every subscriber gets its own parsing of the file, which starts when the subscription is created
+ * and runs on two background threads, so the thread subscribing or requesting rows is never blocked:
+ * <ul>
+ *     <li>The reading thread reads and tokenizes the rows, and hands them to the binding thread in {@link RowBatch}es
+ *     through a queue of at most {@link #QUEUE_SIZE} batches. It stops when the queue is full. Once the header is read,
+ *     it waits for the binding thread to map the columns, and then only keeps the mapped and filtered cells of the rows</li>
+ *     <li>The binding thread binds the rows to objects, as {@link CSVRowIterator} does, and delivers them to the subscriber.
+ *     It stops when the subscriber has not requested more rows</li>
+ * </ul>
+ *
+ * <p>So at most {@link #QUEUE_SIZE} batches are read ahead of the subscriber, whatever the size of the file.
+ * The threads synchronize once per batch, and the binding thread delivers all the requested rows at once.</p>
+ *
+ * <p>The parser configuration is read when the parsing starts. Errors (including the ones of the header
+ * and of the column mapping) are signaled through {@link Flow.Subscriber#onError(Throwable)}.</p>
+ *
+ * @param <T> The class of the objects
+ *
+ * @author Intrinsic gray (mdegiovanni97@gmail.com)
+ * @version 0.2.0
+ * @since 0.2.0
+ */
+class CSVPublisher<T> implements Flow.Publisher<T> {
+
+    protected static final int QUEUE_SIZE = 4;
+
+    private static final RowBatch END = new RowBatch();
+
+    private final CSVParser           parser;
+    private final Callable<RowSource> opener;
+    private final Class<T>            destinationClass;
+    private final String              name;
+
+
+    /**
+     * @param parser The parser configuration
+     * @param opener Opens a new source of the rows for each subscriber
+     * @param destinationClass The class of the objects to create
+     * @param name The name of the input, used for the names of the threads
+     */
+    protected CSVPublisher(CSVParser parser, Callable<RowSource> opener, Class<T> destinationClass, String name) {
+        if(destinationClass == null) throw new NullPointerException("destinationClass cannot be null");
+
+        this.parser           = parser;
+        this.opener           = opener;
+        this.destinationClass = destinationClass;
+        this.name             = name;
+    }
+
+
+    /**
+     * @throws NullPointerException If subscriber is null
+     */
+    @Override
+    public void subscribe(Flow.Subscriber<? super T> subscriber) throws NullPointerException {
+        if(subscriber == null) throw new NullPointerException("subscriber cannot be null");
+
+        final RowSubscription subscription = new RowSubscription(subscriber);
+        subscriber.onSubscribe(subscription);
+        subscription.start();
+    }
+
+
+    private final class RowSubscription implements Flow.Subscription, RowSource {
+
+        private final Flow.Subscriber<? super T> subscriber;
+        private final BlockingQueue<RowBatch>    batches = new ArrayBlockingQueue<>(QUEUE_SIZE);
+        private final Thread                     reader;
+        private final Thread                     binder;
+
+        /** The source read by the reading thread, set before the first batch is queued */
+        private volatile RowSource source;
+
+        /** Written by the reading thread before {@link #END} is queued */
+        private Throwable failure;
+
+        /** The cells needed by the binding thread, known once the columns are mapped */
+        private final CompletableFuture<boolean[]> projection = new CompletableFuture<>();
+
+        private RowBatch batch = END;
+        private int      row;
+        private boolean  ended;
+
+        private volatile boolean cancelled;
+
+        // Guarded by this
+        private long                     requested;
+        private IllegalArgumentException invalidRequest;
+
+
+        private RowSubscription(Flow.Subscriber<? super T> subscriber) {
+            this.subscriber = subscriber;
+            this.reader     = new Thread(this::read, "utilcsv-read-"+name);
+            this.binder     = new Thread(this::bind, "utilcsv-bind-"+name);
+            this.reader.setDaemon(true);
+            this.binder.setDaemon(true);
+        }
+
+
+        // Private methods
+        private void start() {
+            if(cancelled) return;
+
+            reader.start();
+            binder.start();
+        }
+
+        /**
+         * Body of the reading thread
+         */
+        private void read() {
+            try(final RowSource source = opener.call()) {
+                this.source = source;
+
+                final CSVTokenizer tokenizer = new CSVTokenizer(parser.delimiter.charAt(0), parser.quote.charAt(0));
+
+                // The header is handed over with all its cells, the columns are mapped with it
+                RowBatch batch = new RowBatch();
+                boolean more = true;
+                if(parser.useHeader && (more = source.nextRow(tokenizer))) {
+                    batch.add(tokenizer);
+                    batches.put(batch);
+                    batch = new RowBatch();
+                }
+                if(more) tokenizer.project(projection.get());
+
+                while(more && source.nextRow(tokenizer)) {
+                    batch.add(tokenizer);
+
+                    if(batch.isFull()) {
+                        batches.put(batch);
+                        batch = new RowBatch();
+                    }
+                }
+                if(batch.size() > 0) batches.put(batch);
+            } catch (InterruptedException e) {
+                // Closed by the binding thread
+                return;
+            } catch (Throwable e) {
+                failure = e;
+            }
+
+            try {
+                batches.put(END);
+            } catch (InterruptedException ignored) {
+                // Closed by the binding thread
+            }
+        }
+
+        /**
+         * Body of the binding thread
+         */
+        private void bind() {
+            try {
+                final CSVRowIterator<T> iterator = new CSVRowIterator<>(parser, this, destinationClass);
+                try {
+                    while(iterator.hasNext()) {
+                        final long demand = awaitDemand();
+                        if(demand == 0) return;
+
+                        // All the requested rows are delivered without synchronizing with the subscriber
+                        long delivered = 0;
+                        while(delivered < demand && iterator.hasNext() && !cancelled) {
+                            subscriber.onNext(iterator.next());
+                            delivered++;
+                        }
+
+                        if(cancelled) return;
+                        consume(delivered);
+                    }
+                } finally {
+                    iterator.finish();
+                }
+            } catch (Throwable e) {
+                if(!cancelled) {
+                    cancelled = true;
+                    subscriber.onError(e instanceof UncheckedIOException ? e.getCause() : e);
+                }
+                return;
+            } finally {
+                close();
+            }
+
+            subscriber.onComplete();
+        }
+
+        /**
+         * @return The number of rows requested by the subscriber, waiting for it to request them. 0 if the subscription is cancelled
+         * @throws IllegalArgumentException If the subscriber requested a non-positive number of rows
+         */
+        private synchronized long awaitDemand() throws IllegalArgumentException, InterruptedException {
+            while(requested == 0 && invalidRequest == null && !cancelled) {
+                wait();
+            }
+
+            if(invalidRequest != null) throw invalidRequest;
+            return cancelled ? 0 : requested;
+        }
+
+        private synchronized void consume(long delivered) {
+            if(requested != Long.MAX_VALUE) requested -= delivered;
+        }
+
+
+        @Override
+        public synchronized void request(long n) {
+            if(n <= 0) {
+                if(invalidRequest == null) invalidRequest = new IllegalArgumentException("The number of requested rows must be positive (requested: "+n+")");
+            } else {
+                requested = requested + n < 0 ? Long.MAX_VALUE : requested + n;
+            }
+            notifyAll();
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+            synchronized(this) {
+                notifyAll();
+            }
+
+            // The binding thread may be waiting for the reading thread, or may be the thread cancelling
+            if(binder.isAlive() && Thread.currentThread() != binder) binder.interrupt();
+        }
+
+        /**
+         * Take the rows of the batches queued by the reading thread, as if they were read from a file
+         */
+        @Override
+        public boolean nextRow(CSVTokenizer tokenizer) throws IOException {
+            if(row == batch.size()) {
+                if(ended) return false;
+
+                try {
+                    batch = batches.take();
+                    row   = 0;
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("Interrupted while waiting for "+reader.getName());
+                }
+
+                if(batch == END) {
+                    ended = true;
+
+                    if(failure instanceof IOException)      throw (IOException) failure;
+                    if(failure instanceof RuntimeException) throw (RuntimeException) failure;
+                    if(failure instanceof Error)            throw (Error) failure;
+                    if(failure != null)                     throw new IOException(failure);
+                    return false;
+                }
+            }
+
+            batch.load(row++, tokenizer);
+            return true;
+        }
+
+        @Override
+        public long bytesRead() {
+            final RowSource source = this.source;
+            return source != null ? source.bytesRead() : 0;
+        }
+
+        /**
+         * Hand the cells needed by the binding thread over to the reading thread
+         */
+        @Override
+        public void project(boolean[] projection) {
+            this.projection.complete(projection);
+        }
+
+        @Override
+        public long charsRead() {
+            final RowSource source = this.source;
+            return source != null ? source.charsRead() : 0;
+        }
+
+        @Override
+        public long ioNanos() {
+            final RowSource source = this.source;
+            return source != null ? source.ioNanos() : 0;
+        }
+
+        /**
+         * Stop the reading thread, which closes the source
+         */
+        @Override
+        public void close() {
+            ended = true;
+            batch = END;
+            row   = 0;
+
+            reader.interrupt();
+            batches.clear();
+        }
+    }
+}
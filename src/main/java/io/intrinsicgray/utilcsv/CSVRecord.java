@@ -0,0 +1,199 @@
+package io.intrinsicgray.utilcsv;
+
+import java.util.*;
+
+/**
+ * Raw row of a CSV file, returned by {@link CSVParser#records(java.io.BufferedReader)} when the rows
+ * do not need to be bound to objects (e.g. to route a row by looking at a few of its cells).
+ *
+ * <p>The same instance is returned for every row, and its cells are {@link CharSequence} views over the buffer
+ * of the tokenizer: no string is created unless {@link #getString(int)} or {@link CharSequence#toString()} is invoked.
+ * So a record and its cells are only valid until the next row is read: values to keep must be copied.</p>
+ *
+ * <p>Usage example:</p>
+ * <pre>
+ * Iterator&lt;CSVRecord&gt; records = parser.useHeader(true).records(reader);
+ * while(records.hasNext()) {
+ *     CSVRecord record = records.next();
+ *     if("ACTIVE".contentEquals(record.get("Status"))) route(record.getString("Id"));
+ * }
+ * </pre>
+ *
+ * @author Intrinsic gray (mdegiovanni97@gmail.com)
+ * @version 0.2.0
+ * @since 0.2.0
+ */
+public final class CSVRecord {
+
+    private final CSVTokenizer         tokenizer;
+    private final List<String>         header;
+    private final Map<String, Integer> indexes;
+
+    private CellView[] views = new CellView[0];
+    private long       row   = -1;
+
+
+    /**
+     * @param tokenizer The tokenizer containing the current row
+     * @param header The header of the file, or null if the file has no header
+     */
+    protected CSVRecord(CSVTokenizer tokenizer, List<String> header) {
+        this.tokenizer = tokenizer;
+        this.header    = header != null ? Collections.unmodifiableList(header) : null;
+        this.indexes   = new HashMap<>();
+
+        // The first column wins when the header has duplicated names
+        if(header != null) {
+            for(int i=header.size()-1; i>=0; i--) {
+                indexes.put(header.get(i), i);
+            }
+        }
+    }
+
+
+    // Private methods
+    private int index(String column) throws NullPointerException, IllegalStateException, IllegalArgumentException {
+        if(column == null) throw new NullPointerException("column cannot be null");
+        if(header == null) throw new IllegalStateException("The record has no header, cells can only be read by index");
+
+        final Integer index = indexes.get(column);
+        if(index == null) throw new IllegalArgumentException("The column \""+column+"\" is not present in the header");
+        return index;
+    }
+
+    private void checkIndex(int index) throws IndexOutOfBoundsException {
+        if(index < 0 || index >= tokenizer.cellCount()) throw new IndexOutOfBoundsException("Cell "+index+" not present (cells: "+tokenizer.cellCount()+")");
+    }
+
+    /**
+     * Move the record to the next row read by the tokenizer
+     */
+    protected void advance(long row) {
+        this.row = row;
+    }
+
+
+    /**
+     * @return The index of the row, counted from 0, the header and the blank lines excluded
+     */
+    public long getRow() { return row; }
+
+    /**
+     * @return The number of cells of the row
+     */
+    public int getCellCount() { return tokenizer.cellCount(); }
+
+    /**
+     * @return The header of the file, or null if the parser does not use the header
+     */
+    public List<String> getHeader() { return header; }
+
+    /**
+     * @param column The name of a column
+     * @return True if the column is present in the header
+     */
+    public boolean hasColumn(String column) { return header != null && indexes.containsKey(column); }
+
+    /**
+     * @param index The index of the cell
+     * @return A view over the content of the cell, valid until the next row is read
+     * @throws IndexOutOfBoundsException If the row has not such cell
+     */
+    public CharSequence get(int index) throws IndexOutOfBoundsException {
+        checkIndex(index);
+
+        if(index >= views.length) views = Arrays.copyOf(views, Math.max(index + 1, views.length * 2));
+        if(views[index] == null) views[index] = new CellView();
+
+        final CellView view = views[index];
+        view.buffer = tokenizer.buffer();
+        view.offset = tokenizer.cellStart(index);
+        view.length = tokenizer.cellLength(index);
+        return view;
+    }
+
+    /**
+     * @param column The name of the column, as written in the header
+     * @return A view over the content of the cell, valid until the next row is read
+     *
+     * @throws NullPointerException If column is null
+     * @throws IllegalStateException If the parser does not use the header
+     * @throws IllegalArgumentException If the column is not present in the header
+     * @throws IndexOutOfBoundsException If the row is shorter than the header
+     */
+    public CharSequence get(String column) throws NullPointerException, IllegalStateException, IllegalArgumentException, IndexOutOfBoundsException {
+        return get(index(column));
+    }
+
+    /**
+     * @param index The index of the cell
+     * @return A new string containing the cell content
+     * @throws IndexOutOfBoundsException If the row has not such cell
+     */
+    public String getString(int index) throws IndexOutOfBoundsException {
+        return tokenizer.cell(index);
+    }
+
+    /**
+     * @param column The name of the column, as written in the header
+     * @return A new string containing the cell content
+     *
+     * @throws NullPointerException If column is null
+     * @throws IllegalStateException If the parser does not use the header
+     * @throws IllegalArgumentException If the column is not present in the header
+     * @throws IndexOutOfBoundsException If the row is shorter than the header
+     */
+    public String getString(String column) throws NullPointerException, IllegalStateException, IllegalArgumentException, IndexOutOfBoundsException {
+        return tokenizer.cell(index(column));
+    }
+
+    /**
+     * @return A new list containing the cells of the row
+     */
+    public List<String> toList() { return tokenizer.cells(); }
+
+
+    @Override
+    public String toString() {
+        return "CSVRecord{" +
+                "row=" + row +
+                ", cells=" + tokenizer.cells() +
+                '}';
+    }
+
+
+    /**
+     * View over a cell of the buffer of the tokenizer
+     */
+    private static final class CellView implements CharSequence {
+        private char[] buffer;
+        private int    offset;
+        private int    length;
+
+        private CellView() { }
+
+        private CellView(char[] buffer, int offset, int length) {
+            this.buffer = buffer;
+            this.offset = offset;
+            this.length = length;
+        }
+
+        @Override
+        public int length() { return length; }
+
+        @Override
+        public char charAt(int index) {
+            if(index < 0 || index >= length) throw new IndexOutOfBoundsException("index "+index+", length "+length);
+            return buffer[offset + index];
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            if(start < 0 || end > length || start > end) throw new IndexOutOfBoundsException("start "+start+", end "+end+", length "+length);
+            return new CellView(buffer, offset + start, end - start);
+        }
+
+        @Override
+        public String toString() { return new String(buffer, offset, length); }
+    }
+}
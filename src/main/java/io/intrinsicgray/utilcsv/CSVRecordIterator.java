@@ -0,0 +1,131 @@
+package io.intrinsicgray.utilcsv;
+
+import io.intrinsicgray.utilcsv.exception.ColumnNameNotPresentException;
+import io.intrinsicgray.utilcsv.metrics.CSVMetrics;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.*;
+
+/**
+ * Lazy {@link Iterator} used by {@link CSVParser} to read the rows of a CSV file as {@link CSVRecord}s, without binding them.
+ * The same record is returned for every row: a row is read only when {@link #hasNext()} is invoked after the previous
+ * record has been returned, so the record stays valid until then.
+ *
+ * <p>The header (if used) is read as soon as the iterator is created. The filters, skip, limit and sample interval
+ * of the parser are applied by a {@link RowSelector}, as in {@link CSVRowIterator}; filters need the header, since the records have no columns.</p>
+ *
+ * <p>{@link IOException}s thrown by the source are wrapped into {@link UncheckedIOException}s.</p>
+ *
+ * <p>If a metrics listener is set on the parser, the time spent reading and tokenizing the rows is recorded
+ * (no time is spent binding), and the metrics are reported when the rows are over or cannot be read.</p>
+ *
+ * @author Intrinsic gray (mdegiovanni97@gmail.com)
+ * @version 0.2.0
+ * @since 0.2.0
+ */
+class CSVRecordIterator implements Iterator<CSVRecord> {
+
+    private final RowSource    source;
+    private final CSVTokenizer tokenizer;
+    private final CSVRecord    record;
+
+    private final RowSelector selector;
+
+    private boolean fetched;
+    private boolean hasRow;
+
+    private final MetricsRecorder recorder;
+    private long                  readNanos;
+
+
+    /**
+     * @param parser The parser configuration
+     * @param source The source of the rows
+     *
+     * @throws IOException If the header cannot be read
+     * @throws ColumnNameNotPresentException If a filtered column is not present in the header, or the parser does not use the header and has filters
+     */
+    protected CSVRecordIterator(CSVParser parser, RowSource source) throws IOException, ColumnNameNotPresentException {
+        this.recorder  = MetricsRecorder.of(parser, CSVMetrics.Operation.PARSE);
+        this.source    = source;
+        this.tokenizer = new CSVTokenizer(parser.delimiter.charAt(0), parser.quote.charAt(0));
+        this.selector  = new RowSelector(parser, parser.getErrorReport());
+
+        final List<String> header = parser.useHeader && source.nextRow(tokenizer) ? tokenizer.cells() : null;
+        selector.filter(parser, header, parser.useHeader ? " in the header" : ", the records have no header");
+
+        this.record = new CSVRecord(tokenizer, header);
+    }
+
+
+    // Private methods
+    private boolean readRow() throws IOException {
+        if(recorder == null) return selector.next(source, tokenizer);
+
+        final long start = System.nanoTime();
+        try {
+            return selector.next(source, tokenizer);
+        } catch (IOException | RuntimeException | Error e) {
+            recorder.failures++;
+            throw e;
+        } finally {
+            readNanos += System.nanoTime() - start;
+        }
+    }
+
+
+    /**
+     * @throws UncheckedIOException If the next row cannot be read
+     */
+    @Override
+    public boolean hasNext() throws UncheckedIOException {
+        if(!fetched) {
+            try {
+                hasRow = readRow();
+            } catch (IOException e) {
+                finish();
+                throw new UncheckedIOException(e);
+            } catch (RuntimeException | Error e) {
+                finish();
+                throw e;
+            }
+            fetched = true;
+
+            if(hasRow && recorder != null) {
+                recorder.cells += tokenizer.cellCount();
+                recorder.rows++;
+            }
+            if(!hasRow) finish();
+        }
+        return hasRow;
+    }
+
+    /**
+     * @return The record of the next row, the same instance for every row
+     * @throws NoSuchElementException If there are no more rows
+     * @throws UncheckedIOException If the next row cannot be read
+     */
+    @Override
+    public CSVRecord next() throws NoSuchElementException, UncheckedIOException {
+        if(!hasNext()) throw new NoSuchElementException("No more rows");
+
+        fetched = false;
+        record.advance(selector.getRowCount() - 1);
+        return record;
+    }
+
+    /**
+     * Copy the counters of the source into the recorder and report the metrics, if not already done.
+     * Invoked when the rows are over or cannot be read, and when the iteration is abandoned (e.g. when a stream is closed)
+     */
+    protected void finish() {
+        if(recorder == null) return;
+
+        recorder.bytes         = source.bytesRead();
+        recorder.chars         = source.charsRead();
+        recorder.ioNanos       = source.ioNanos();
+        recorder.tokenizeNanos = Math.max(0, readNanos - recorder.ioNanos);
+        recorder.report();
+    }
+}
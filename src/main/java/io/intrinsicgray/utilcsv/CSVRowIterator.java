@@ -0,0 +1,413 @@
+package io.intrinsicgray.utilcsv;
+
+import io.intrinsicgray.utilcsv.converter.CellConverter;
+import io.intrinsicgray.utilcsv.converter.CellConverters;
+import io.intrinsicgray.utilcsv.exception.CSVCannotBeParsedException;
+import io.intrinsicgray.utilcsv.exception.CellCannotBeParsedException;
+import io.intrinsicgray.utilcsv.exception.ColumnNameNotPresentException;
+import io.intrinsicgray.utilcsv.exception.InvalidColumnOrderException;
+import io.intrinsicgray.utilcsv.metrics.CSVMetrics;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.invoke.MethodHandle;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Lazy {@link Iterator} used by {@link CSVParser} to read a CSV file one row at a time.
+ * Each call to {@link #next()} pulls a single row from the underlying {@link RowSource},
+ * so the memory used does not depend on the size of the CSV file.
+ *
+ * <p>The header (if any) is read and the columns are mapped to the destination class as soon
+ * as the iterator is created. The parser configuration is copied at the same time, so changing
+ * the {@link CSVParser} afterwards does not affect an iteration in progress.</p>
+ *
+ * <p>The rows not matching the filters of the parser are skipped as soon as they are tokenized,
+ * before the destination object is created.</p>
+ *
+ * <p>The skip, limit and sample interval of the parser are applied to the rows matching the filters
+ * (see {@link RowSelector}). Once the limit is reached the source is not read anymore.</p>
+ *
+ * <p>Only the cells mapped to a column are copied by the tokenizer: the other cells, including the ones
+ * after the last mapped cell of wide rows, are skipped without being materialised.</p>
+ *
+ * <p>{@link IOException}s thrown by the source are wrapped into {@link UncheckedIOException}s.</p>
+ *
+ * <p>With a lenient {@link ErrorPolicy}, the cells that cannot be converted are added to the {@link CSVErrorReport}
+ * (if any) with the index of their row. With {@link ErrorPolicy#SKIP} each row is bound as soon as it is read,
+ * so that {@link #hasNext()} is false when only bad rows are left.</p>
+ *
+ * <p>If a {@link MetricsRecorder} is given, the time spent reading and binding each row is recorded,
+ * and the metrics are reported when the rows are over or a row cannot be bound.</p>
+ *
+ * @param <T> The class of the parsed objects
+ *
+ * @author Intrinsic gray (mdegiovanni97@gmail.com)
+ * @version 0.2.0
+ * @since 0.2.0
+ */
+class CSVRowIterator<T> implements Iterator<T> {
+
+    private final RowSource    source;
+    private final Class<T>     destinationClass;
+    private final CSVTokenizer tokenizer;
+    private final MethodHandle constructor;
+
+    private Column[]     columns;
+    private CellBinder[] binders;
+    private int[]        cellIndexes;
+    private int          maxCellIndex;
+
+    private final RowSelector selector;
+
+    private final ErrorPolicy    policy;
+    private final CSVErrorReport errors;
+
+    private boolean hasRow;
+    private T       pending;
+
+    private final MetricsRecorder recorder;
+    private long                  readNanos;
+
+
+    protected CSVRowIterator(CSVParser parser, RowSource source, Class<T> destinationClass) throws IOException, CSVCannotBeParsedException, ColumnNameNotPresentException, InvalidColumnOrderException {
+        this(parser, source, destinationClass, null);
+    }
+
+    /**
+     * @param parser The parser configuration
+     * @param source The source of the rows
+     * @param destinationClass The class of the objects to create
+     * @param header If "useHeader" is true, the header already read from the file (e.g. when the source
+     *               is a chunk of the file), or null to read it from the source
+     */
+    protected CSVRowIterator(CSVParser parser, RowSource source, Class<T> destinationClass, List<String> header) throws IOException, CSVCannotBeParsedException, ColumnNameNotPresentException, InvalidColumnOrderException {
+        this(parser, source, destinationClass, header, MetricsRecorder.of(parser, CSVMetrics.Operation.PARSE), parser.getErrorReport());
+    }
+
+    /**
+     * @param recorder The recorder of the metrics, or null if they are not recorded
+     * @param errors The report of the errors, or null if they are not collected
+     */
+    protected CSVRowIterator(CSVParser parser, RowSource source, Class<T> destinationClass, List<String> header, MetricsRecorder recorder, CSVErrorReport errors) throws IOException, CSVCannotBeParsedException, ColumnNameNotPresentException, InvalidColumnOrderException {
+        if(destinationClass == null) throw new NullPointerException("destinationClass cannot be null");
+
+        this.recorder         = recorder;
+        this.errors           = errors;
+        this.policy           = parser.getErrorPolicy();
+        this.source           = source;
+        this.destinationClass = destinationClass;
+        this.tokenizer        = new CSVTokenizer(parser.delimiter.charAt(0), parser.quote.charAt(0));
+        this.selector         = new RowSelector(parser, errors);
+
+        final ClassMapping mapping = ClassMapping.of(destinationClass);
+
+        if(parser.useHeader) {
+            final List<String> names = header != null ? header : source.nextRow(tokenizer) ? tokenizer.cells() : null;
+
+            if(names != null) {
+                mapHeader(mapping, names);
+                selector.filter(parser, names, " in the header");
+            } else {
+                mapNothing();
+            }
+        } else {
+            mapOrder(mapping);
+            selector.filter(parser, Arrays.stream(columns).map(Column::getName).collect(Collectors.toList()), " in "+destinationClass.getName());
+        }
+
+        this.binders = new CellBinder[columns.length];
+        for(int i=0; i<columns.length; i++) {
+            final MethodHandle setter = columns[i].getSetter(parser.fieldAccess);
+
+            if(setter == null) {
+                throw cannotBeParsed(parser.fieldAccess
+                        ? new IllegalAccessException(columns[i].describeSetter(true)+" cannot be written")
+                        : new NoSuchMethodException(columns[i].describeSetter(false)));
+            }
+
+            binders[i]   = CellBinder.of(setter, columns[i].getPrimitiveSetter(parser.fieldAccess), converter(parser, columns[i]));
+            maxCellIndex = Math.max(maxCellIndex, cellIndexes[i]);
+        }
+
+        // Only the mapped and the filtered cells are kept by the tokenizer
+        int projected = columns.length > 0 ? maxCellIndex + 1 : 0;
+        for(int cellIndex : selector.getFilterIndexes()) {
+            projected = Math.max(projected, cellIndex + 1);
+        }
+
+        final boolean[] projection = new boolean[projected];
+        for(int cellIndex : cellIndexes) {
+            projection[cellIndex] = true;
+        }
+        for(int cellIndex : selector.getFilterIndexes()) {
+            projection[cellIndex] = true;
+        }
+        tokenizer.project(projection);
+        source.project(projection);
+
+        if(mapping.getConstructor() == null) {
+            throw cannotBeParsed(new NoSuchMethodException(destinationClass.getName()+".<init>()"));
+        }
+        this.constructor = mapping.getConstructor();
+
+        read();
+    }
+
+
+    // Private methods
+    private static CSVCannotBeParsedException cannotBeParsed(Throwable e) {
+        return new CSVCannotBeParsedException("Error during CSV parsing. "+e.getMessage(), e);
+    }
+
+    private static CellConverter<?> converter(CSVParser parser, Column column) {
+        final CellConverter<?> converter = parser.resolveConverter(column);
+
+        // The dictionary holds the values of a single parsing, so it is created by the iterator
+        return column.isDictionary() && converter == CellConverters.STRING
+                ? CellConverters.dictionary(parser.getDictionarySize())
+                : converter;
+    }
+
+    private void mapNothing() {
+        this.columns     = new Column[0];
+        this.cellIndexes = new int[0];
+    }
+
+    private void mapHeader(ClassMapping mapping, List<String> names) throws ColumnNameNotPresentException {
+        final Map<String, Integer> header = new HashMap<>();
+        for(int i=names.size()-1; i>=0; i--) {
+            header.put(names.get(i), i);
+        }
+
+        final List<Column> mapped = new ArrayList<>();
+        for(Column column : mapping.getColumns()) {
+            if(!column.isNamed()) {
+                throw new ColumnNameNotPresentException("The @CSVColumn annotation on "+destinationClass.getName()+"."+column.getField().getName()+" does not have a valid name. Enter the column name if you set \"useHeader\" to true");
+            }
+
+            if(header.containsKey(column.getName())) {
+                mapped.add(column);
+            }
+        }
+
+        this.columns     = mapped.toArray(new Column[0]);
+        this.cellIndexes = new int[columns.length];
+        for(int i=0; i<columns.length; i++) {
+            cellIndexes[i] = header.get(columns[i].getName());
+        }
+    }
+
+    private void mapOrder(ClassMapping mapping) throws InvalidColumnOrderException {
+        final List<Column> columns = mapping.getColumns();
+
+        for(int i=1; i<columns.size(); i++) {
+            final Column previous = columns.get(i-1);
+            final Column current  = columns.get(i);
+
+            if(previous.getOrder() == current.getOrder()) {
+                throw new InvalidColumnOrderException(destinationClass.getName()+"."+previous.getField().getName()+" and "+destinationClass.getName()+"."+current.getField().getName()+" have the same order value: " + current.getOrder());
+            }
+        }
+
+        this.columns     = columns.toArray(new Column[0]);
+        this.cellIndexes = new int[this.columns.length];
+        for(int i=0; i<cellIndexes.length; i++) {
+            cellIndexes[i] = i;
+        }
+    }
+
+    private boolean timedReadRow() throws IOException {
+        if(recorder == null) return selector.next(source, tokenizer);
+
+        final long start = System.nanoTime();
+        try {
+            return selector.next(source, tokenizer);
+        } finally {
+            readNanos += System.nanoTime() - start;
+        }
+    }
+
+    /**
+     * Read the next selected row, counting the failure of a short row (see {@link RowSelector})
+     */
+    private boolean selectRow() throws IOException {
+        try {
+            return timedReadRow();
+        } catch (RuntimeException e) {
+            if(recorder != null) {
+                recorder.failures++;
+                finish();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Read the next row. With {@link ErrorPolicy#SKIP}, bind it too, reading again while the rows cannot be bound
+     */
+    private void read() throws IOException {
+        hasRow = selectRow();
+        while(hasRow && policy == ErrorPolicy.SKIP && (pending = bindRow()) == null) {
+            // The skipped row does not count for the limit
+            selector.unselect();
+            hasRow = selectRow();
+        }
+
+        if(!hasRow) finish();
+    }
+
+    private void advance() throws UncheckedIOException {
+        try {
+            read();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private Object create() throws CSVCannotBeParsedException {
+        try {
+            return (Object) constructor.invokeExact();
+        } catch (Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw cannotBeParsed(e);
+        }
+    }
+
+    private void bind(Object obj) {
+        if(columns.length > 0 && maxCellIndex >= tokenizer.cellCount()) {
+            throw new IndexOutOfBoundsException("Cell "+maxCellIndex+" not present (cells: "+tokenizer.cellCount()+")");
+        }
+
+        final char[] buffer = tokenizer.buffer();
+        for(int i=0; i<binders.length; i++) {
+            binders[i].bind(obj, buffer, tokenizer.cellStart(cellIndexes[i]), tokenizer.cellLength(cellIndexes[i]));
+        }
+    }
+
+    /**
+     * Bind the cells with a lenient policy, collecting the errors
+     *
+     * @return False if a cell cannot be bound
+     */
+    private boolean bindLeniently(Object obj) {
+        final char[] buffer = tokenizer.buffer();
+        final int    cells  = tokenizer.cellCount();
+
+        boolean valid = true;
+        for(int i=0; i<binders.length; i++) {
+            final int cellIndex = cellIndexes[i];
+
+            try {
+                if(cellIndex >= cells) throw new IndexOutOfBoundsException("Cell "+cellIndex+" not present (cells: "+cells+")");
+                binders[i].bind(obj, buffer, tokenizer.cellStart(cellIndex), tokenizer.cellLength(cellIndex));
+            } catch (CSVCannotBeParsedException e) {
+                throw e;
+            } catch (RuntimeException e) {
+                valid = false;
+                if(errors != null) {
+                    final Column column = columns[i];
+                    errors.add(new CSVParseError(selector.getRowCount() - 1, column.isNamed() ? column.getName() : column.getField().getName(), cellIndex < cells ? tokenizer.cell(cellIndex) : null, e));
+                }
+                if(policy == ErrorPolicy.SKIP) return false;
+            }
+        }
+        return valid;
+    }
+
+    /**
+     * Create the object of the current row and bind its cells
+     *
+     * @return The object, or null if the row is skipped because of the error policy
+     */
+    private T bindRow() throws CSVCannotBeParsedException, CellCannotBeParsedException {
+        final long start = recorder != null ? System.nanoTime() : 0;
+
+        final Object  obj;
+        final boolean valid;
+        try {
+            obj = create();
+            if(policy == ErrorPolicy.FAIL_FAST) {
+                bind(obj);
+                valid = true;
+            } else {
+                valid = bindLeniently(obj);
+            }
+        } catch (RuntimeException | Error e) {
+            if(recorder != null) {
+                recorder.failures++;
+                finish();
+            }
+            throw e;
+        }
+
+        final boolean skipped = !valid && policy == ErrorPolicy.SKIP;
+        if(recorder != null) {
+            recorder.bindNanos += System.nanoTime() - start;
+            if(!valid) recorder.failures++;
+            if(!skipped) {
+                recorder.cells += binders.length;
+                recorder.rows++;
+            }
+        }
+
+        return skipped ? null : destinationClass.cast(obj);
+    }
+
+    @Override
+    public boolean hasNext() { return hasRow; }
+
+    /**
+     * @return The object bound to the next row of the CSV file
+     *
+     * @throws NoSuchElementException If there are no more rows
+     * @throws UncheckedIOException If the underlying source cannot be read
+     * @throws CSVCannotBeParsedException If the object cannot be created or populated (check cause)
+     * @throws CellCannotBeParsedException If a cell cannot be converted to the type of its field
+     */
+    @Override
+    public T next() throws NoSuchElementException, UncheckedIOException, CSVCannotBeParsedException, CellCannotBeParsedException {
+        if(!hasRow) throw new NoSuchElementException("No more rows");
+
+        final T obj = policy == ErrorPolicy.SKIP ? pending : bindRow();
+        pending = null;
+
+        advance();
+        return obj;
+    }
+
+    /**
+     * Move to the next row without binding the current one
+     *
+     * @throws NoSuchElementException If there are no more rows
+     * @throws UncheckedIOException If the underlying source cannot be read
+     */
+    protected void skip() throws NoSuchElementException, UncheckedIOException {
+        if(!hasRow) throw new NoSuchElementException("No more rows");
+
+        pending = null;
+        advance();
+    }
+
+    /**
+     * @return The number of rows read from the source, the header excluded
+     */
+    protected long getRowCount() { return selector.getRowCount(); }
+
+    /**
+     * Copy the counters of the source into the recorder and report the metrics, if not already done.
+     * Invoked when the rows are over or a row cannot be bound, and when the iteration is abandoned
+     * (e.g. when a stream is closed)
+     */
+    protected void finish() {
+        if(recorder == null) return;
+
+        recorder.bytes         = source.bytesRead();
+        recorder.chars         = source.charsRead();
+        recorder.ioNanos       = source.ioNanos();
+        recorder.tokenizeNanos = Math.max(0, readNanos - recorder.ioNanos);
+        recorder.report();
+    }
+}
@@ -0,0 +1,150 @@
+package io.intrinsicgray.utilcsv;
+
+import io.intrinsicgray.utilcsv.exception.ListCannotBeFormattedException;
+import io.intrinsicgray.utilcsv.metrics.CSVMetrics;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.invoke.MethodHandle;
+import java.util.List;
+
+/**
+ * {@link RowSink} used by {@link CSVFormatter} to write the objects of a class one row at a time.
+ * The columns, their accessors and their converters are resolved once from the class when the sink
+ * is created, and the header (if used) is written immediately, so it is present even if no row follows.
+ *
+ * <p>Each row is built into a reusable {@link RowBuffer} by the {@link CellWriter} of each column
+ * and written with a single call, so no object is allocated per row for primitive and string values.</p>
+ *
+ * <p>The formatter configuration is copied when the sink is created, so changing the {@link CSVFormatter}
+ * afterwards does not affect the sink. Instances are not thread-safe.</p>
+ *
+ * <p>If a {@link MetricsRecorder} is given, the time spent converting and writing each row is recorded,
+ * and the metrics are reported when the sink is closed.</p>
+ *
+ * @param <T> The class of the formatted objects
+ *
+ * @author Intrinsic gray (mdegiovanni97@gmail.com)
+ * @version 0.2.0
+ * @since 0.2.0
+ */
+class CSVRowSink<T> implements RowSink<T> {
+
+    private final Writer       writer;
+    private final boolean      closeWriter;
+    private final RowBuffer    row;
+    private final CellWriter[] cellWriters;
+
+    private final MetricsRecorder recorder;
+
+
+    /**
+     * @param formatter The formatter configuration
+     * @param rowClass The class of the objects to format
+     * @param writer The writer where the rows are written
+     * @param closeWriter If true, the writer is closed together with the sink
+     *
+     * @throws IOException If the header cannot be written
+     * @throws ListCannotBeFormattedException If a column of the class cannot be read
+     */
+    protected CSVRowSink(CSVFormatter formatter, Class<T> rowClass, Writer writer, boolean closeWriter) throws IOException, ListCannotBeFormattedException {
+        this(formatter, rowClass, writer, closeWriter, formatter.useHeader, MetricsRecorder.of(formatter, CSVMetrics.Operation.FORMAT));
+    }
+
+    /**
+     * @param writeHeader If true, the header is written, whatever the formatter configuration (e.g. false for the chunks of a parallel formatting)
+     * @param recorder The recorder of the metrics, or null if they are not recorded
+     */
+    protected CSVRowSink(CSVFormatter formatter, Class<T> rowClass, Writer writer, boolean closeWriter, boolean writeHeader, MetricsRecorder recorder) throws IOException, ListCannotBeFormattedException {
+        if(rowClass == null) throw new NullPointerException("rowClass cannot be null");
+        if(writer == null)   throw new NullPointerException("writer cannot be null");
+
+        this.recorder    = recorder;
+        this.writer      = writer;
+        this.closeWriter = closeWriter;
+        this.row         = new RowBuffer(formatter.delimiter.charAt(0), formatter.quote.charAt(0), formatter.alwaysUseQuotes, formatter.lineSeparator);
+
+        final List<Column> columns = ClassMapping.of(rowClass).getColumns();
+
+        this.cellWriters = new CellWriter[columns.size()];
+        for(int i=0; i<cellWriters.length; i++) {
+            final Column       column = columns.get(i);
+            final MethodHandle getter = column.getGetter(formatter.fieldAccess);
+
+            if(getter == null) {
+                final Exception e = formatter.fieldAccess
+                        ? new IllegalAccessException(column.describeGetter(true)+" cannot be read")
+                        : new NoSuchMethodException(column.describeGetter(false));
+                throw new ListCannotBeFormattedException("Error during CSV formatting, "+e.getMessage(), e);
+            }
+
+            cellWriters[i] = CellWriter.of(getter, column.getPrimitiveGetter(formatter.fieldAccess), formatter.resolveConverter(column));
+        }
+
+        if(writeHeader) {
+            for(Column column : columns) {
+                row.appendCell(column.getName());
+            }
+            writeRow();
+        }
+    }
+
+
+    // Private methods
+    private void writeRow() throws IOException {
+        if(recorder == null) {
+            row.writeRow(writer);
+            return;
+        }
+
+        final long start = System.nanoTime();
+        recorder.chars   += row.writeRow(writer);
+        recorder.ioNanos += System.nanoTime() - start;
+    }
+
+
+    /**
+     * @throws NullPointerException If row is null
+     * @throws ListCannotBeFormattedException If a value cannot be read from the object (check cause)
+     */
+    @Override
+    public void write(T source) throws NullPointerException, IOException, ListCannotBeFormattedException {
+        if(source == null) throw new NullPointerException("row cannot be null");
+
+        final long start = recorder != null ? System.nanoTime() : 0;
+        try {
+            for(CellWriter cellWriter : cellWriters) {
+                cellWriter.write(source, row);
+            }
+        } catch (Error e) {
+            row.clear();
+            if(recorder != null) recorder.failures++;
+            throw e;
+        } catch (Throwable e) {
+            row.clear();
+            if(recorder != null) recorder.failures++;
+            throw new ListCannotBeFormattedException("Error during CSV formatting, "+e.getMessage(), e);
+        }
+
+        if(recorder != null) {
+            recorder.bindNanos += System.nanoTime() - start;
+            recorder.cells     += cellWriters.length;
+            recorder.rows++;
+        }
+
+        writeRow();
+    }
+
+    @Override
+    public void close() throws IOException {
+        final long start = recorder != null ? System.nanoTime() : 0;
+
+        if(closeWriter) writer.close();
+        else writer.flush();
+
+        if(recorder != null) {
+            recorder.ioNanos += System.nanoTime() - start;
+            recorder.report();
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package io.intrinsicgray.utilcsv;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Flow;
+
+/**
+ * {@link Flow.Subscriber} writing the received objects through a {@link RowSink}, returned by
+ * {@link CSVFormatter#subscriber(Class, java.nio.file.Path, java.nio.charset.Charset)}.
+ *
+ * <p>The objects are collected into batches of {@link #BATCH_ROWS} on the thread of the publisher,
+ * and formatted and written by a background thread. The subscriber requests at most {@link #QUEUE_SIZE} batches
+ * ahead, and requests a batch again only once it has been written, so the publisher is slowed down to the speed
+ * of the output, and the thread of the publisher is never blocked.</p>
+ *
+ * <p>The sink is closed once the publisher completes or fails (the rows received before the error are written),
+ * or once a row cannot be written (the subscription is then cancelled). The outcome is available through {@link #getCompletion()}.</p>
+ *
+ * <p>Usage example:</p>
+ * <pre>
+ * CSVSubscriber&lt;Person&gt; subscriber = csvFormatter.subscriber(Person.class, path, StandardCharsets.UTF_8);
+ * publisher.subscribe(subscriber);
+ * long rows = subscriber.getCompletion().join();
+ * </pre>
+ *
+ * @param <T> The class of the objects
+ *
+ * @author Intrinsic gray (mdegiovanni97@gmail.com)
+ * @version 0.2.0
+ * @since 0.2.0
+ */
+public final class CSVSubscriber<T> implements Flow.Subscriber<T> {
+
+    public static final int BATCH_ROWS = 256;
+    public static final int QUEUE_SIZE = 4;
+
+    private final RowSink<T>              sink;
+    private final String                  name;
+    private final List<T>                 end        = new ArrayList<>(0);
+    private final BlockingQueue<List<T>>  batches    = new ArrayBlockingQueue<>(QUEUE_SIZE + 1);
+    private final CompletableFuture<Long> completion = new CompletableFuture<>();
+
+    private Flow.Subscription subscription;
+    private List<T>           batch = new ArrayList<>(BATCH_ROWS);
+
+    /** Written by the thread of the publisher before the end is queued */
+    private Throwable failure;
+
+
+    /**
+     * @param sink The sink where the objects are written, closed by the subscriber
+     * @param name The name of the output, used for the name of the thread
+     */
+    protected CSVSubscriber(RowSink<T> sink, String name) {
+        this.sink = sink;
+        this.name = name;
+    }
+
+
+    // Private methods
+
+    /**
+     * Body of the writing thread
+     */
+    private void write() {
+        long rows = 0;
+        try {
+            for(List<T> batch = batches.take(); batch != end; batch = batches.take()) {
+                for(T row : batch) {
+                    sink.write(row);
+                }
+                rows += batch.size();
+
+                // The written rows leave room for other rows
+                subscription.request(batch.size());
+            }
+
+            // The publisher delivered more rows than requested
+            if(completion.isDone()) subscription.cancel();
+            sink.close();
+        } catch (Throwable e) {
+            subscription.cancel();
+            try {
+                sink.close();
+            } catch (IOException | RuntimeException closeException) {
+                e.addSuppressed(closeException);
+            }
+            completion.completeExceptionally(e);
+            return;
+        }
+
+        if(failure != null) completion.completeExceptionally(failure);
+        else completion.complete(rows);
+    }
+
+    /**
+     * Hand a batch to the writing thread. The requested rows never exceed the size of the queue,
+     * so the queue is full only if the publisher delivers more rows than requested: the subscription
+     * is then cancelled by the writing thread and the completion fails, instead of losing the rows
+     */
+    private void queue(List<T> batch) {
+        if(batches.offer(batch)) return;
+
+        if(completion.completeExceptionally(new IllegalStateException("The publisher delivered more rows than requested"))) {
+            // The writing thread stops at the end, without writing the queued rows
+            batches.clear();
+            batches.offer(end);
+        }
+    }
+
+
+    /**
+     * @return A future completed with the number of written rows once the sink is closed,
+     * or completed exceptionally with the error of the publisher or of the sink, or with an {@link IllegalStateException}
+     * if the publisher delivered more rows than requested. Each call returns a new copy of the internal future,
+     * so completing or cancelling it does not affect the subscriber
+     */
+    public CompletableFuture<Long> getCompletion() { return completion.copy(); }
+
+
+    /**
+     * @throws NullPointerException If subscription is null
+     */
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) throws NullPointerException {
+        if(subscription == null) throw new NullPointerException("subscription cannot be null");
+
+        // A subscriber can only be subscribed once
+        if(this.subscription != null) {
+            subscription.cancel();
+            return;
+        }
+        this.subscription = subscription;
+
+        // The first request is made before the writing thread starts, so the calls to the subscription are never concurrent
+        subscription.request((long) BATCH_ROWS * QUEUE_SIZE);
+
+        final Thread writer = new Thread(this::write, "utilcsv-write-"+name);
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * @throws NullPointerException If row is null
+     */
+    @Override
+    public void onNext(T row) throws NullPointerException {
+        if(row == null) throw new NullPointerException("row cannot be null");
+        if(completion.isDone()) return;
+
+        batch.add(row);
+        if(batch.size() == BATCH_ROWS) {
+            queue(batch);
+            batch = new ArrayList<>(BATCH_ROWS);
+        }
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        failure = throwable != null ? throwable : new NullPointerException("throwable cannot be null");
+        onComplete();
+    }
+
+    @Override
+    public void onComplete() {
+        if(!batch.isEmpty()) queue(batch);
+        batch = new ArrayList<>(0);
+        queue(end);
+    }
+}
@@ -0,0 +1,367 @@
+package io.intrinsicgray.utilcsv;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Single-pass, character-level tokenizer used to split a CSV row into cells.
+ * Every character of the row is visited exactly once by a small state machine
+ * (cell start, unquoted, quoted, quote inside quoted cell and escape states).
+ *
+ * <p>The content of the cells, already stripped of the enclosing quotes and with doubled
+ * quotes and escape sequences resolved, is written into a single reusable buffer.
+ * The tokenizer only keeps track of the cell boundaries, so no intermediate string is
+ * created until a cell is explicitly requested with {@link #cell(int)}.</p>
+ *
+ * <p>Rows can be provided either as chars or as UTF-8 bytes, decoded on the fly.
+ * A row ending inside a quoted cell can be resumed with the next line, so that quoted cells
+ * can contain line separators.</p>
+ *
+ * <p>A projection can restrict the cells which are kept: the other cells are still delimited
+ * (so the cell indexes do not change) but their content is not copied and they look empty.</p>
+ *
+ * <p>Instances are not thread-safe and are meant to be reused row after row.</p>
+ *
+ * @author Intrinsic gray (mdegiovanni97@gmail.com)
+ * @version 0.2.0
+ * @since 0.2.0
+ */
+class CSVTokenizer {
+
+    private static final int CELL_START      = 0;
+    private static final int UNQUOTED        = 1;
+    private static final int QUOTED          = 2;
+    private static final int QUOTE_IN_QUOTED = 3;
+    private static final int ESCAPE_UNQUOTED = 4;
+    private static final int ESCAPE_QUOTED   = 5;
+
+    private static final char ESCAPE      = '\\';
+    private static final char REPLACEMENT = '\uFFFD';
+
+    private final char delimiter;
+    private final char quote;
+
+    private char[] buffer   = new char[256];
+    private int[]  cellEnds = new int[16];
+    private int    length;
+    private int    cellCount;
+    private int    state;
+
+    /** The cells to keep, null to keep all of them */
+    private boolean[] projection;
+    private boolean   keep = true;
+
+
+    protected CSVTokenizer(char delimiter, char quote) {
+        this.delimiter = delimiter;
+        this.quote     = quote;
+    }
+
+
+    // Private methods
+    private boolean isKept(int index) {
+        return projection == null || (index < projection.length && projection[index]);
+    }
+
+    private void begin() {
+        length    = 0;
+        cellCount = 0;
+        keep      = isKept(0);
+    }
+
+    private void append(char c) {
+        if(!keep) return;
+
+        if(length == buffer.length) {
+            buffer = Arrays.copyOf(buffer, buffer.length * 2);
+        }
+        buffer[length++] = c;
+    }
+
+    private void endCell() {
+        if(cellCount == cellEnds.length) {
+            cellEnds = Arrays.copyOf(cellEnds, cellEnds.length * 2);
+        }
+        cellEnds[cellCount++] = length;
+        keep = isKept(cellCount);
+    }
+
+    private static char unescape(char c) {
+        switch (c) {
+            case 't':  return '\t';
+            case 'b':  return '\b';
+            case 'n':  return '\n';
+            case 'r':  return '\r';
+            case 'f':  return '\f';
+            case '\\': return '\\';
+            default:   return 0;
+        }
+    }
+
+    private void appendEscaped(char c) {
+        final char unescaped = unescape(c);
+        if(unescaped == 0) {
+            append(ESCAPE);
+            append(c);
+        } else {
+            append(unescaped);
+        }
+    }
+
+
+    private int step(int state, char c) {
+        switch (state) {
+            case CELL_START:
+                if(c == delimiter)   { endCell(); return CELL_START; }
+                if(c == quote)       return QUOTED;
+                if(c == ESCAPE)      return ESCAPE_UNQUOTED;
+                append(c);
+                return UNQUOTED;
+
+            case UNQUOTED:
+                if(c == delimiter)   { endCell(); return CELL_START; }
+                if(c == ESCAPE)      return ESCAPE_UNQUOTED;
+                append(c);
+                return UNQUOTED;
+
+            case QUOTED:
+                if(c == quote)       return QUOTE_IN_QUOTED;
+                if(c == ESCAPE)      return ESCAPE_QUOTED;
+                append(c);
+                return QUOTED;
+
+            case QUOTE_IN_QUOTED:
+                if(c == quote)       { append(c); return QUOTED; }
+                if(c == delimiter)   { endCell(); return CELL_START; }
+                append(c);
+                return UNQUOTED;
+
+            case ESCAPE_UNQUOTED:
+                appendEscaped(c);
+                return UNQUOTED;
+
+            default:
+                appendEscaped(c);
+                return QUOTED;
+        }
+    }
+
+    private int finish(int state) {
+        this.state = state;
+
+        if(state == ESCAPE_UNQUOTED || state == ESCAPE_QUOTED) {
+            append(ESCAPE);
+        }
+        endCell();
+
+        return cellCount;
+    }
+
+    /**
+     * Undo {@link #finish(int)}, so that the last cell can be continued
+     */
+    private int reopen(CharSequence lineSeparator) {
+        cellCount--;
+        keep = isKept(cellCount);
+        if(state == ESCAPE_QUOTED && keep) length--;
+
+        int state = this.state;
+        for(int i=0; i<lineSeparator.length(); i++) {
+            state = step(state, lineSeparator.charAt(i));
+        }
+        return state;
+    }
+
+    private static boolean isContinuation(int b) {
+        return (b & 0xC0) == 0x80;
+    }
+
+    private int feed(int state, char[] chars, int from, int to) {
+        for(int i=from; i<to; i++) {
+            state = step(state, chars[i]);
+        }
+        return state;
+    }
+
+    private int feed(int state, ByteBuffer bytes, int from, int to) {
+        int i = from;
+        while(i < to) {
+            final int b = bytes.get(i);
+
+            if(b >= 0) {
+                state = step(state, (char) b);
+                i++;
+            } else if((b & 0xE0) == 0xC0 && i+1 < to && isContinuation(bytes.get(i+1))) {
+                final int cp = ((b & 0x1F) << 6) | (bytes.get(i+1) & 0x3F);
+                state = step(state, cp < 0x80 ? REPLACEMENT : (char) cp);
+                i += 2;
+            } else if((b & 0xF0) == 0xE0 && i+2 < to && isContinuation(bytes.get(i+1)) && isContinuation(bytes.get(i+2))) {
+                final int cp = ((b & 0x0F) << 12) | ((bytes.get(i+1) & 0x3F) << 6) | (bytes.get(i+2) & 0x3F);
+                state = step(state, cp < 0x800 || Character.isSurrogate((char) cp) ? REPLACEMENT : (char) cp);
+                i += 3;
+            } else if((b & 0xF8) == 0xF0 && i+3 < to && isContinuation(bytes.get(i+1)) && isContinuation(bytes.get(i+2)) && isContinuation(bytes.get(i+3))) {
+                final int cp = ((b & 0x07) << 18) | ((bytes.get(i+1) & 0x3F) << 12) | ((bytes.get(i+2) & 0x3F) << 6) | (bytes.get(i+3) & 0x3F);
+                if(cp < 0x10000 || cp > Character.MAX_CODE_POINT) {
+                    state = step(state, REPLACEMENT);
+                } else {
+                    state = step(state, Character.highSurrogate(cp));
+                    state = step(state, Character.lowSurrogate(cp));
+                }
+                i += 4;
+            } else {
+                state = step(state, REPLACEMENT);
+                i++;
+            }
+        }
+
+        return state;
+    }
+
+
+    /**
+     * Split a single row into cells, replacing the result of the previous invocation
+     *
+     * @param row The row to tokenize, without the line separator
+     * @return The number of cells found on the row
+     */
+    protected int tokenize(CharSequence row) {
+        begin();
+
+        int state = CELL_START;
+        for(int i=0; i<row.length(); i++) {
+            state = step(state, row.charAt(i));
+        }
+
+        return finish(state);
+    }
+
+    /**
+     * Split a single row into cells, replacing the result of the previous invocation
+     *
+     * @param chars The buffer containing the row
+     * @param from The index of the first char of the row
+     * @param to The index after the last char of the row, without the line separator
+     * @return The number of cells found on the row
+     */
+    protected int tokenize(char[] chars, int from, int to) {
+        begin();
+
+        return finish(feed(CELL_START, chars, from, to));
+    }
+
+    /**
+     * Continue the last tokenized row, which ended inside a quoted cell (see {@link #isQuoteOpen()}),
+     * with the line separator and the next line
+     *
+     * @param lineSeparator The line separator found at the end of the last line
+     * @param chars The buffer containing the next line
+     * @param from The index of the first char of the line
+     * @param to The index after the last char of the line, without the line separator
+     * @return The number of cells found on the row
+     */
+    protected int resume(CharSequence lineSeparator, char[] chars, int from, int to) {
+        return finish(feed(reopen(lineSeparator), chars, from, to));
+    }
+
+    /**
+     * Split a single UTF-8 encoded row into cells, replacing the result of the previous invocation.
+     * The bytes are decoded while they are tokenized, without an intermediate char sequence:
+     * ASCII bytes are passed straight to the state machine, multi-byte sequences are decoded inline
+     * and malformed sequences are replaced with {@code U+FFFD}.
+     *
+     * @param bytes The buffer containing the row
+     * @param from The index of the first byte of the row
+     * @param to The index after the last byte of the row, without the line separator
+     * @return The number of cells found on the row
+     */
+    protected int tokenize(ByteBuffer bytes, int from, int to) {
+        begin();
+
+        return finish(feed(CELL_START, bytes, from, to));
+    }
+
+    /**
+     * Continue the last tokenized row, which ended inside a quoted cell (see {@link #isQuoteOpen()}),
+     * with the line separator and the next UTF-8 encoded line
+     *
+     * @param lineSeparator The line separator found at the end of the last line
+     * @param bytes The buffer containing the next line
+     * @param from The index of the first byte of the line
+     * @param to The index after the last byte of the line, without the line separator
+     * @return The number of cells found on the row
+     */
+    protected int resume(CharSequence lineSeparator, ByteBuffer bytes, int from, int to) {
+        return finish(feed(reopen(lineSeparator), bytes, from, to));
+    }
+
+    /**
+     * Replace the last tokenized row with a row tokenized by another tokenizer (see {@link RowBatch}).
+     * The projection is not applied, all the cells are copied
+     *
+     * @param chars The buffer containing the cells of the row
+     * @param from The index of the first char of the row
+     * @param ends The buffer containing the end of each cell, as index on chars
+     * @param firstCell The index of the end of the first cell on ends
+     * @param cells The number of cells of the row
+     */
+    protected void load(char[] chars, int from, int[] ends, int firstCell, int cells) {
+        length    = cells == 0 ? 0 : ends[firstCell + cells - 1] - from;
+        cellCount = cells;
+
+        if(length > buffer.length) buffer = Arrays.copyOf(buffer, Math.max(length, buffer.length * 2));
+        if(cells > cellEnds.length) cellEnds = Arrays.copyOf(cellEnds, Math.max(cells, cellEnds.length * 2));
+
+        System.arraycopy(chars, from, buffer, 0, length);
+        for(int i=0; i<cells; i++) {
+            cellEnds[i] = ends[firstCell + i] - from;
+        }
+    }
+
+    /**
+     * @return True if the last tokenized row ended inside a quoted cell, i.e. the line separator
+     * which followed it is part of the cell
+     */
+    protected boolean isQuoteOpen() {
+        return state == QUOTED || state == ESCAPE_QUOTED;
+    }
+
+    /**
+     * Keep only some of the cells of the next rows
+     *
+     * @param projection For each cell index, true if the cell must be kept. Cells after the end of the array are not kept.
+     *                   Null to keep all the cells
+     */
+    protected void project(boolean[] projection) {
+        this.projection = projection;
+    }
+
+    protected int cellCount() { return cellCount; }
+
+    protected char[] buffer() { return buffer; }
+
+    protected int cellStart(int index) { return index == 0 ? 0 : cellEnds[index - 1]; }
+
+    protected int cellLength(int index) { return cellEnds[index] - cellStart(index); }
+
+    /**
+     * @param index The index of the cell on the last tokenized row
+     * @return A new string containing the cell content
+     */
+    protected String cell(int index) {
+        if(index < 0 || index >= cellCount) throw new IndexOutOfBoundsException("Cell "+index+" not present (cells: "+cellCount+")");
+        return new String(buffer, cellStart(index), cellLength(index));
+    }
+
+    /**
+     * @return A new list containing the cells of the last tokenized row
+     */
+    protected List<String> cells() {
+        final List<String> cells = new ArrayList<>(cellCount);
+        for(int i=0; i<cellCount; i++) {
+            cells.add(cell(i));
+        }
+        return cells;
+    }
+}
@@ -1,5 +1,18 @@
 package io.intrinsicgray.utilcsv;
 
+import io.intrinsicgray.utilcsv.codec.CompressionCodec;
+import io.intrinsicgray.utilcsv.codec.CompressionCodecs;
+import io.intrinsicgray.utilcsv.converter.CellConverter;
+import io.intrinsicgray.utilcsv.metrics.CSVMetricsListener;
+
+import java.lang.invoke.MethodType;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
 abstract class CSVUtil {
 
     protected LineSeparator lineSeparator = LineSeparator.getFromValue(System.lineSeparator());
@@ -8,28 +21,38 @@ abstract class CSVUtil {
 
     protected boolean useHeader;
     protected boolean alwaysUseQuotes;
+    protected boolean fieldAccess;
 
+    protected ForkJoinPool       pool            = ForkJoinPool.commonPool();
+    protected CSVMetricsListener metricsListener = CSVMetricsListener.NONE;
 
-    protected String escape(String str) {
-        return str
-                .replace("\t", "\\t")
-                .replace("\b", "\\b")
-                .replace("\t", "\\t")
-                .replace("\n", "\\n")
-                .replace("\r", "\\r")
-                .replace("\f", "\\f")
-                .replace("\\", "\\\\");
-    }
+    protected final Map<Class<?>, CellConverter<?>> converters = new HashMap<>();
+    protected final List<CompressionCodec>          codecs     = new ArrayList<>(CompressionCodecs.installed());
+
+
+    /**
+     * Resolve the converter of a column, with the following precedence:
+     * <ol>
+     *   <li>The {@link CSVColumn#format()} of the column</li>
+     *   <li>The converter registered for the type of the column (or for its primitive/wrapper counterpart)</li>
+     *   <li>The built-in converter of the type</li>
+     * </ol>
+     * The converter should be resolved once per column, before processing the rows.
+     *
+     * @param column The column
+     * @return The converter to use for the column
+     */
+    protected CellConverter<?> resolveConverter(Column column) {
+        if(column.hasFormat() || converters.isEmpty()) return column.getConverter();
 
-    protected String unescape(String str) {
-        return str
-                .replace("\\t", "\t")
-                .replace("\\b", "\b")
-                .replace("\\t", "\t")
-                .replace("\\n", "\n")
-                .replace("\\r", "\r")
-                .replace("\\f", "\f")
-                .replace("\\\\", "\\");
+        final Class<?> type = column.getType();
+        CellConverter<?> converter = converters.get(type);
+        if(converter == null) {
+            final MethodType counterpart = MethodType.methodType(type);
+            converter = converters.get(type.isPrimitive() ? counterpart.wrap().returnType() : counterpart.unwrap().returnType());
+        }
+
+        return converter != null ? converter : column.getConverter();
     }
 
 
@@ -109,11 +132,111 @@ abstract class CSVUtil {
      */
     public void setAlwaysUseQuotes(boolean alwaysUseQuotes) { this.alwaysUseQuotes = alwaysUseQuotes; }
 
+    /**
+     * If true:
+     * <ul>
+     *   <li><b>On parsing:</b> The fields annotated with {@link CSVColumn} are written directly, without invoking their setters</li>
+     *   <li><b>On formatting:</b> The fields annotated with {@link CSVColumn} are read directly, without invoking their getters</li>
+     * </ul>
+     *
+     * @return True if the fields are accessed directly instead of through setters and getters
+     */
+    public boolean isFieldAccess() { return fieldAccess; }
+
+    /**
+     * Set if the fields annotated with {@link CSVColumn} are accessed directly instead of through setters and getters.
+     * Useful for classes without setters. Final fields cannot be written
+     *
+     * @param fieldAccess
+     */
+    public void setFieldAccess(boolean fieldAccess) { this.fieldAccess = fieldAccess; }
+
+    /**
+     * @param type The class of the fields
+     * @return The converter registered for the class, or null if the built-in one is used
+     */
+    @SuppressWarnings("unchecked")
+    public <T> CellConverter<T> getConverter(Class<T> type) { return (CellConverter<T>) converters.get(type); }
+
+    /**
+     * Register a converter for every field of the given class, replacing the built-in one.
+     * A converter registered for a wrapper class is also used for the primitive fields (and vice versa).
+     * Fields with a {@link CSVColumn#format()} keep using their format
+     *
+     * @param type The class of the fields
+     * @param converter The converter to use, or null to restore the built-in one
+     * @throws NullPointerException if type is null
+     */
+    public <T> void setConverter(Class<T> type, CellConverter<T> converter) throws NullPointerException {
+        if(type == null) throw new NullPointerException("type cannot be null");
+
+        if(converter == null) converters.remove(type);
+        else converters.put(type, converter);
+    }
+
+    /**
+     * @return The pool running the chunks of the parallel parsing/formatting. The common pool is set as default
+     */
+    public ForkJoinPool getPool() { return pool; }
+
+    /**
+     * Set the pool running the chunks of {@link CSVParser#parseParallel(java.io.File, Class, java.nio.charset.Charset, boolean)}
+     * and {@link CSVFormatter#formatParallel(java.util.Iterator, Class, java.io.Writer)}. The work is split into
+     * a few chunks for each thread of the pool
+     *
+     * @param pool The pool running the chunks
+     * @throws NullPointerException if pool is null
+     */
+    public void setPool(ForkJoinPool pool) throws NullPointerException {
+        if(pool == null) throw new NullPointerException("pool cannot be null");
+        this.pool = pool;
+    }
+
+    /**
+     * @return The codecs of the compressed files, by precedence. GZIP and the codecs installed as service providers are set as default
+     */
+    public List<CompressionCodec> getCodecs() { return Collections.unmodifiableList(codecs); }
+
+    /**
+     * Register a codec for the compressed files read or written through a {@link java.nio.file.Path},
+     * taking precedence over the codecs already registered
+     *
+     * @param codec The codec
+     * @throws NullPointerException if codec is null
+     */
+    public void addCodec(CompressionCodec codec) throws NullPointerException {
+        if(codec == null) throw new NullPointerException("codec cannot be null");
+        codecs.add(0, codec);
+    }
+
+    /**
+     * @return The listener of the metrics of each parsing/formatting call. {@link CSVMetricsListener#NONE} is set as default
+     */
+    public CSVMetricsListener getMetricsListener() { return metricsListener; }
+
+    /**
+     * Set the listener notified with the metrics of each parsing/formatting call (rows, bytes, cells, failures
+     * and the time spent in I/O, tokenizing and binding). The metrics are collected only if the listener is not
+     * {@link CSVMetricsListener#NONE}
+     *
+     * @param metricsListener The listener, e.g. a {@link io.intrinsicgray.utilcsv.metrics.JfrMetricsListener}
+     * @throws NullPointerException if metricsListener is null
+     */
+    public void setMetricsListener(CSVMetricsListener metricsListener) throws NullPointerException {
+        if(metricsListener == null) throw new NullPointerException("metricsListener cannot be null");
+        this.metricsListener = metricsListener;
+    }
+
 
     public abstract CSVUtil lineSeparator(LineSeparator lineSeparator);
     public abstract CSVUtil delimiter(char delimiter);
     public abstract CSVUtil quote(char quote);
     public abstract CSVUtil useHeader(boolean useHeader);
     public abstract CSVUtil alwaysUseQuotes(boolean alwaysUseQuotes);
+    public abstract CSVUtil fieldAccess(boolean fieldAccess);
+    public abstract <T> CSVUtil converter(Class<T> type, CellConverter<T> converter);
+    public abstract CSVUtil codec(CompressionCodec codec);
+    public abstract CSVUtil pool(ForkJoinPool pool);
+    public abstract CSVUtil metrics(CSVMetricsListener metricsListener);
 
 }
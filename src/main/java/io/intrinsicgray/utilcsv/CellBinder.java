@@ -0,0 +1,159 @@
+package io.intrinsicgray.utilcsv;
+
+import io.intrinsicgray.utilcsv.converter.*;
+import io.intrinsicgray.utilcsv.exception.CSVCannotBeParsedException;
+import io.intrinsicgray.utilcsv.exception.CellCannotBeParsedException;
+
+import java.lang.invoke.MethodHandle;
+
+/**
+ * Writes a single cell on a field, converting it with a {@link CellConverter}.
+ * When both the converter and the setter handle are specialized for a primitive type,
+ * the value is passed from the converter to the setter without boxing.
+ *
+ * @author Intrinsic gray (mdegiovanni97@gmail.com)
+ * @version 0.2.0
+ * @since 0.2.0
+ */
+abstract class CellBinder {
+
+    protected final MethodHandle setter;
+
+
+    private CellBinder(MethodHandle setter) {
+        this.setter = setter;
+    }
+
+
+    /**
+     * @param setter A handle with signature {@link Column#SETTER_TYPE}
+     * @param primitiveSetter A handle with signature {@code (Object, primitive) -> void}, or null if the field is not primitive
+     * @param converter The converter of the cell
+     * @return The binder of the cell
+     */
+    protected static CellBinder of(MethodHandle setter, MethodHandle primitiveSetter, CellConverter<?> converter) {
+        final Class<?> type = primitiveSetter == null ? null : primitiveSetter.type().parameterType(1);
+
+        if(type == int.class     && converter instanceof IntCellConverter)     return new IntBinder(primitiveSetter, (IntCellConverter) converter);
+        if(type == long.class    && converter instanceof LongCellConverter)    return new LongBinder(primitiveSetter, (LongCellConverter) converter);
+        if(type == double.class  && converter instanceof DoubleCellConverter)  return new DoubleBinder(primitiveSetter, (DoubleCellConverter) converter);
+        if(type == boolean.class && converter instanceof BooleanCellConverter) return new BooleanBinder(primitiveSetter, (BooleanCellConverter) converter);
+
+        return new ObjectBinder(setter, converter);
+    }
+
+    protected static CSVCannotBeParsedException invocationFailed(Throwable e) {
+        if(e instanceof Error) throw (Error) e;
+        return new CSVCannotBeParsedException("Error during CSV parsing. "+e.getMessage(), e);
+    }
+
+
+    /**
+     * Convert the cell and write it on the target object
+     *
+     * @param target The object to populate
+     * @param buffer The buffer containing the cell
+     * @param offset The index of the first char of the cell
+     * @param length The number of chars of the cell
+     *
+     * @throws CellCannotBeParsedException If the cell cannot be converted
+     * @throws CSVCannotBeParsedException If the setter fails (check cause)
+     */
+    protected abstract void bind(Object target, char[] buffer, int offset, int length) throws CellCannotBeParsedException, CSVCannotBeParsedException;
+
+
+    private static final class ObjectBinder extends CellBinder {
+        private final CellConverter<?> converter;
+
+        private ObjectBinder(MethodHandle setter, CellConverter<?> converter) {
+            super(setter);
+            this.converter = converter;
+        }
+
+        @Override
+        protected void bind(Object target, char[] buffer, int offset, int length) {
+            final Object value = converter.parse(buffer, offset, length);
+            try {
+                setter.invokeExact(target, value);
+            } catch (Throwable e) {
+                throw invocationFailed(e);
+            }
+        }
+    }
+
+    private static final class IntBinder extends CellBinder {
+        private final IntCellConverter converter;
+
+        private IntBinder(MethodHandle setter, IntCellConverter converter) {
+            super(setter);
+            this.converter = converter;
+        }
+
+        @Override
+        protected void bind(Object target, char[] buffer, int offset, int length) {
+            final int value = converter.parseInt(buffer, offset, length);
+            try {
+                setter.invokeExact(target, value);
+            } catch (Throwable e) {
+                throw invocationFailed(e);
+            }
+        }
+    }
+
+    private static final class LongBinder extends CellBinder {
+        private final LongCellConverter converter;
+
+        private LongBinder(MethodHandle setter, LongCellConverter converter) {
+            super(setter);
+            this.converter = converter;
+        }
+
+        @Override
+        protected void bind(Object target, char[] buffer, int offset, int length) {
+            final long value = converter.parseLong(buffer, offset, length);
+            try {
+                setter.invokeExact(target, value);
+            } catch (Throwable e) {
+                throw invocationFailed(e);
+            }
+        }
+    }
+
+    private static final class DoubleBinder extends CellBinder {
+        private final DoubleCellConverter converter;
+
+        private DoubleBinder(MethodHandle setter, DoubleCellConverter converter) {
+            super(setter);
+            this.converter = converter;
+        }
+
+        @Override
+        protected void bind(Object target, char[] buffer, int offset, int length) {
+            final double value = converter.parseDouble(buffer, offset, length);
+            try {
+                setter.invokeExact(target, value);
+            } catch (Throwable e) {
+                throw invocationFailed(e);
+            }
+        }
+    }
+
+    private static final class BooleanBinder extends CellBinder {
+        private final BooleanCellConverter converter;
+
+        private BooleanBinder(MethodHandle setter, BooleanCellConverter converter) {
+            super(setter);
+            this.converter = converter;
+        }
+
+        @Override
+        protected void bind(Object target, char[] buffer, int offset, int length) {
+            final boolean value = converter.parseBoolean(buffer, offset, length);
+            try {
+                setter.invokeExact(target, value);
+            } catch (Throwable e) {
+                throw invocationFailed(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package io.intrinsicgray.utilcsv;
+
+import io.intrinsicgray.utilcsv.converter.CellConverter;
+import io.intrinsicgray.utilcsv.converter.CellConverters;
+
+import java.lang.invoke.MethodHandle;
+
+/**
+ * Reads a single value from an object and appends it to a {@link RowBuffer}, formatting it with a {@link CellConverter}.
+ * It is the formatting counterpart of {@link CellBinder}: when the field is primitive and its converter is the built-in one,
+ * the value is read without boxing and written without creating a string.
+ *
+ * @author Intrinsic gray (mdegiovanni97@gmail.com)
+ * @version 0.2.0
+ * @since 0.2.0
+ */
+abstract class CellWriter {
+
+    protected final MethodHandle getter;
+
+
+    private CellWriter(MethodHandle getter) {
+        this.getter = getter;
+    }
+
+
+    /**
+     * @param getter A handle with signature {@link Column#GETTER_TYPE}
+     * @param primitiveGetter A handle with signature {@code (Object) -> primitive}, or null if the field is not primitive
+     * @param converter The converter of the cell
+     * @return The writer of the cell
+     */
+    protected static CellWriter of(MethodHandle getter, MethodHandle primitiveGetter, CellConverter<?> converter) {
+        final Class<?> type = primitiveGetter == null ? null : primitiveGetter.type().returnType();
+
+        if(type == int.class     && converter == CellConverters.INT)     return new IntWriter(primitiveGetter);
+        if(type == long.class    && converter == CellConverters.LONG)    return new LongWriter(primitiveGetter);
+        if(type == double.class  && converter == CellConverters.DOUBLE)  return new DoubleWriter(primitiveGetter);
+        if(type == boolean.class && converter == CellConverters.BOOLEAN) return new BooleanWriter(primitiveGetter);
+
+        return new ObjectWriter(getter, converter);
+    }
+
+
+    /**
+     * Read the value from the source object and append it to the row
+     *
+     * @param source The object to format
+     * @param row The row being built
+     *
+     * @throws Throwable If the getter fails
+     */
+    protected abstract void write(Object source, RowBuffer row) throws Throwable;
+
+
+    private static final class ObjectWriter extends CellWriter {
+        private final CellConverter<Object> converter;
+
+        @SuppressWarnings("unchecked")
+        private ObjectWriter(MethodHandle getter, CellConverter<?> converter) {
+            super(getter);
+            this.converter = (CellConverter<Object>) converter;
+        }
+
+        @Override
+        protected void write(Object source, RowBuffer row) throws Throwable {
+            final Object value = (Object) getter.invokeExact(source);
+            row.appendCell(value == null ? "" : converter.format(value));
+        }
+    }
+
+    private static final class IntWriter extends CellWriter {
+        private IntWriter(MethodHandle getter) {
+            super(getter);
+        }
+
+        @Override
+        protected void write(Object source, RowBuffer row) throws Throwable {
+            row.appendInt((int) getter.invokeExact(source));
+        }
+    }
+
+    private static final class LongWriter extends CellWriter {
+        private LongWriter(MethodHandle getter) {
+            super(getter);
+        }
+
+        @Override
+        protected void write(Object source, RowBuffer row) throws Throwable {
+            row.appendLong((long) getter.invokeExact(source));
+        }
+    }
+
+    private static final class DoubleWriter extends CellWriter {
+        private DoubleWriter(MethodHandle getter) {
+            super(getter);
+        }
+
+        @Override
+        protected void write(Object source, RowBuffer row) throws Throwable {
+            row.appendDouble((double) getter.invokeExact(source));
+        }
+    }
+
+    private static final class BooleanWriter extends CellWriter {
+        private BooleanWriter(MethodHandle getter) {
+            super(getter);
+        }
+
+        @Override
+        protected void write(Object source, RowBuffer row) throws Throwable {
+            row.appendBoolean((boolean) getter.invokeExact(source));
+        }
+    }
+}
@@ -0,0 +1,197 @@
+package io.intrinsicgray.utilcsv;
+
+import io.intrinsicgray.utilcsv.converter.CellConverter;
+import io.intrinsicgray.utilcsv.converter.CellConverters;
+import io.intrinsicgray.utilcsv.exception.CellCannotBeParsedException;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Precompiled mapping between a POJO class and its CSV columns.
+ * The mapping is built once per class, scanning the fields annotated with {@link CSVColumn},
+ * and contains everything needed to bind a row without further reflective lookups:
+ * <ul>
+ *   <li>The columns, sorted by {@link CSVColumn#order()}</li>
+ *   <li>The resolved accessors, as {@link MethodHandle}s</li>
+ *   <li>The default converter of each column, using {@link CSVColumn#format()} if present</li>
+ *   <li>The no-args constructor of the class</li>
+ * </ul>
+ *
+ * <p>If a {@link RowReader} or {@link RowWriter} for the class has been generated at compile time,
+ * its accessors are used instead of reflection. The generated mapper is loaded by its name
+ * ({@code <class>_CSVMapper}, see {@link #MAPPER_SUFFIX}) from the class loader of the class, so only the mapper
+ * of the class is created, whatever the number of mappers installed.</p>
+ *
+ * <p>Mappings are cached with a {@link ClassValue}, so they are shared between every
+ * {@link CSVParser} and {@link CSVFormatter} instance and between threads, and they
+ * do not prevent the mapped classes from being unloaded.</p>
+ *
+ * @author Intrinsic gray (mdegiovanni97@gmail.com)
+ * @version 0.2.0
+ * @since 0.2.0
+ */
+class ClassMapping {
+
+    /** Signature of every constructor: {@code () -> Object} */
+    protected static final MethodType CONSTRUCTOR_TYPE = MethodType.methodType(Object.class);
+
+    private static final MethodHandle NEW_INSTANCE;
+
+    /** Suffix of the mappers generated by utilcsv-processor, in the package of the mapped class */
+    protected static final String MAPPER_SUFFIX = "_CSVMapper";
+
+    static {
+        try {
+            NEW_INSTANCE = MethodHandles.publicLookup().findVirtual(RowReader.class, "newInstance", CONSTRUCTOR_TYPE);
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private static final ClassValue<ClassMapping> CACHE = new ClassValue<>() {
+        @Override
+        protected ClassMapping computeValue(Class<?> type) {
+            return new ClassMapping(type);
+        }
+    };
+
+
+    private final Class<?>     type;
+    private final List<Column> columns;
+    private final MethodHandle constructor;
+    private final RowReader<?> reader;
+    private final RowWriter<?> writer;
+
+
+    private ClassMapping(Class<?> type) {
+        this.type = type;
+
+        final MethodHandles.Lookup lookup = lookup(type);
+        final Object               mapper = findMapper(type);
+
+        this.reader = mapper instanceof RowReader && type.equals(((RowReader<?>) mapper).type()) ? (RowReader<?>) mapper : null;
+        this.writer = mapper instanceof RowWriter && type.equals(((RowWriter<?>) mapper).type()) ? (RowWriter<?>) mapper : null;
+
+        final List<Column> columns = new ArrayList<>();
+        for(Field field : type.getDeclaredFields()) {
+            final CSVColumn csvColumn = field.getAnnotation(CSVColumn.class);
+
+            if(csvColumn != null) {
+                final boolean named = !csvColumn.name().isBlank();
+
+                columns.add(new Column(
+                        named ? csvColumn.name() : field.getName(),
+                        named,
+                        csvColumn.order(),
+                        field,
+                        lookup,
+                        reader,
+                        writer,
+                        csvColumn.format(),
+                        csvColumn.dictionary(),
+                        converter(field, csvColumn.format())
+                ));
+            }
+        }
+        columns.sort(Comparator.comparing(Column::getOrder));
+
+        this.columns     = Collections.unmodifiableList(columns);
+        this.constructor = reader != null ? NEW_INSTANCE.bindTo(reader) : findConstructor(lookup, type);
+    }
+
+
+    // Private methods
+
+    private static MethodHandles.Lookup lookup(Class<?> type) {
+        try {
+            return MethodHandles.privateLookupIn(type, MethodHandles.lookup());
+        } catch (IllegalAccessException | SecurityException e) {
+            return MethodHandles.publicLookup();
+        }
+    }
+
+    /**
+     * @return A new instance of the mapper generated for the class, or null if there is none (or it cannot be created)
+     */
+    private static Object findMapper(Class<?> type) {
+        final ClassLoader classLoader = type.getClassLoader() != null ? type.getClassLoader() : ClassLoader.getSystemClassLoader();
+        final String      packageName = type.getPackageName();
+        final String      simpleName  = type.getName().substring(packageName.isEmpty() ? 0 : packageName.length() + 1).replace('$', '_');
+
+        try {
+            final Class<?> mapper = Class.forName((packageName.isEmpty() ? "" : packageName + ".") + simpleName + MAPPER_SUFFIX, true, classLoader);
+            return mapper.getConstructor().newInstance();
+        } catch (ClassNotFoundException e) {
+            return null;
+        } catch (ReflectiveOperationException | LinkageError | SecurityException e) {
+            // A mapper that cannot be used (e.g. compiled against another version of the library) falls back to reflection
+            return null;
+        }
+    }
+
+    private static MethodHandle findConstructor(MethodHandles.Lookup lookup, Class<?> type) {
+        try {
+            return lookup.findConstructor(type, MethodType.methodType(void.class)).asType(CONSTRUCTOR_TYPE);
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            return null;
+        }
+    }
+
+    private static CellConverter<?> converter(Field field, String format) {
+        final Class<?> type = field.getType();
+
+        if(!format.isEmpty()) {
+            final CellConverter<?> converter = CellConverters.ofPattern(type, format);
+            if(converter == null) {
+                throw new IllegalArgumentException("Format \""+format+"\" of field "+field.getDeclaringClass().getName()+"."+field.getName()+" is not supported for class "+type.getName());
+            }
+            return converter;
+        }
+
+        final CellConverter<?> converter = CellConverters.forType(type);
+        if(converter != null) return converter;
+
+        return (buffer, offset, length) -> {
+            throw new CellCannotBeParsedException("Class "+type.getName()+" cannot be parsed (value: "+new String(buffer, offset, length)+")");
+        };
+    }
+
+
+    /**
+     * @param type The POJO class
+     * @return The cached mapping of the class, built on first use
+     */
+    protected static ClassMapping of(Class<?> type) {
+        return CACHE.get(type);
+    }
+
+    protected Class<?> getType() { return type; }
+
+    /**
+     * @return The annotated columns of the class, sorted by order
+     */
+    protected List<Column> getColumns() { return columns; }
+
+    /**
+     * @return A handle with signature {@link #CONSTRUCTOR_TYPE} invoking the no-args constructor of the class,
+     * or null if the class does not have an accessible one
+     */
+    protected MethodHandle getConstructor() { return constructor; }
+
+    /**
+     * @return The generated reader of the class, or null if the objects are created and populated through reflection
+     */
+    protected RowReader<?> getReader() { return reader; }
+
+    /**
+     * @return The generated writer of the class, or null if the objects are read through reflection
+     */
+    protected RowWriter<?> getWriter() { return writer; }
+}
@@ -1,44 +1,311 @@
 package io.intrinsicgray.utilcsv;
 
+import io.intrinsicgray.utilcsv.converter.CellConverter;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.function.*;
+
 /**
  * Class used in order to manage the single column on a CSV file. The class contains info about:
  * <ul>
  *   <li>The column name</li>
  *   <li>The order of the column (from left to right)</li>
  *   <li>The class used to represent the information on the POJO class</li>
- *   <li>The name of the setter (during parse) or getter (during format) method invoked</li>
+ *   <li>The accessors used to write (during parse) and read (during format) the field,
+ *       either through its setter/getter or directly on the field</li>
+ *   <li>The default converter used to turn a cell into a value of the field type, and back</li>
  * </ul>
  *
+ * <p>Accessors are {@link MethodHandle}s adapted to a generic signature, so they can be invoked
+ * with {@link MethodHandle#invokeExact} from the row loops and inlined by the JIT. When a generated
+ * {@link RowReader}/{@link RowWriter} provides an accessor, it is preferred over reflection, including
+ * its primitive accessors, so the primitive fields of a generated mapper are not boxed either.</p>
+ *
+ * <p>Columns are built once per class by {@link ClassMapping} and shared between threads,
+ * so they are immutable.</p>
+ *
  * @author Intrinsic gray (mdegiovanni97@gmail.com)
- * @version 0.1.0
+ * @version 0.2.0
  * @since 0.1.0
  */
 class Column {
 
-    private String  name;
-    private Integer order;
-    private Class<?> type;
+    /** Signature of every setter: {@code (Object target, Object value) -> void} */
+    protected static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+    /** Signature of every getter: {@code (Object source) -> Object} */
+    protected static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+
+    private static final MethodHandle BI_CONSUMER_ACCEPT;
+    private static final MethodHandle FUNCTION_APPLY;
+
+    static {
+        try {
+            BI_CONSUMER_ACCEPT = MethodHandles.publicLookup().findVirtual(BiConsumer.class, "accept", SETTER_TYPE);
+            FUNCTION_APPLY     = MethodHandles.publicLookup().findVirtual(Function.class, "apply", GETTER_TYPE);
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+
+    private final String   name;
+    private final boolean  named;
+    private final int      order;
+    private final Class<?> type;
+    private final Field    field;
+
+    private final MethodHandle setter;
+    private final MethodHandle getter;
+    private final MethodHandle fieldSetter;
+    private final MethodHandle fieldGetter;
+
+    private final MethodHandle primitiveSetter;
+    private final MethodHandle primitiveFieldSetter;
+    private final MethodHandle primitiveGetter;
+    private final MethodHandle primitiveFieldGetter;
+
+    private final String           format;
+    private final boolean          dictionary;
+    private final CellConverter<?> converter;
+
+
+    protected Column(String name, boolean named, int order, Field field, MethodHandles.Lookup lookup, RowReader<?> reader, RowWriter<?> writer, String format, boolean dictionary, CellConverter<?> converter) {
+        this.name      = name;
+        this.named     = named;
+        this.order     = order;
+        this.type      = field.getType();
+        this.field     = field;
+        this.format     = format;
+        this.dictionary = dictionary;
+        this.converter  = converter;
+
+        final Class<?> owner = field.getDeclaringClass();
+
+        final MethodHandle generatedSetter      = generatedSetter(reader, false);
+        final MethodHandle generatedGetter      = generatedGetter(writer, false);
+        final MethodHandle generatedFieldSetter = generatedSetter(reader, true);
+        final MethodHandle generatedFieldGetter = generatedGetter(writer, true);
+
+        final MethodHandle reflectedSetter      = generatedSetter != null ? null : findSetter(lookup, owner);
+        final MethodHandle reflectedGetter      = generatedGetter != null ? null : findGetter(lookup, owner);
+        final MethodHandle reflectedFieldSetter = generatedFieldSetter != null || Modifier.isFinal(field.getModifiers()) ? null : unreflectSetter(lookup);
+        final MethodHandle reflectedFieldGetter = generatedFieldGetter != null ? null : unreflectGetter(lookup);
+
+        this.setter      = generatedSetter != null ? generatedSetter : adapt(reflectedSetter, SETTER_TYPE);
+        this.getter      = generatedGetter != null ? generatedGetter : adapt(reflectedGetter, GETTER_TYPE);
+        this.fieldSetter = generatedFieldSetter != null ? generatedFieldSetter : adapt(reflectedFieldSetter, SETTER_TYPE);
+        this.fieldGetter = generatedFieldGetter != null ? generatedFieldGetter : adapt(reflectedFieldGetter, GETTER_TYPE);
+
+        if(type.isPrimitive()) {
+            final MethodHandle generatedPrimitiveSetter      = generatedPrimitiveSetter(reader, false);
+            final MethodHandle generatedPrimitiveFieldSetter = generatedPrimitiveSetter(reader, true);
+            final MethodHandle generatedPrimitiveGetter      = generatedPrimitiveGetter(writer, false);
+            final MethodHandle generatedPrimitiveFieldGetter = generatedPrimitiveGetter(writer, true);
+
+            this.primitiveSetter      = generatedPrimitiveSetter != null ? generatedPrimitiveSetter : adapt(reflectedSetter, primitiveSetterType());
+            this.primitiveFieldSetter = generatedPrimitiveFieldSetter != null ? generatedPrimitiveFieldSetter : adapt(reflectedFieldSetter, primitiveSetterType());
+            this.primitiveGetter      = generatedPrimitiveGetter != null ? generatedPrimitiveGetter : adapt(reflectedGetter, primitiveGetterType());
+            this.primitiveFieldGetter = generatedPrimitiveFieldGetter != null ? generatedPrimitiveFieldGetter : adapt(reflectedFieldGetter, primitiveGetterType());
+        } else {
+            this.primitiveSetter      = null;
+            this.primitiveFieldSetter = null;
+            this.primitiveGetter      = null;
+            this.primitiveFieldGetter = null;
+        }
+    }
+
+
+    // Private methods
+    private MethodHandle generatedSetter(RowReader<?> reader, boolean fieldAccess) {
+        final BiConsumer<?, Object> setter = reader == null ? null : reader.setter(field.getName(), fieldAccess);
+        return setter == null ? null : BI_CONSUMER_ACCEPT.bindTo(setter);
+    }
+
+    private MethodHandle generatedGetter(RowWriter<?> writer, boolean fieldAccess) {
+        final Function<?, Object> getter = writer == null ? null : writer.getter(field.getName(), fieldAccess);
+        return getter == null ? null : FUNCTION_APPLY.bindTo(getter);
+    }
+
+    /**
+     * @return The primitive setter of the generated reader, with signature {@code (Object, primitive) -> void}, or null if not available
+     */
+    private MethodHandle generatedPrimitiveSetter(RowReader<?> reader, boolean fieldAccess) {
+        if(reader == null) return null;
+
+        final String name = field.getName();
+        if(type == int.class)     return bindFunction(reader.intSetter(name, fieldAccess), ObjIntConsumer.class, "accept", primitiveSetterType());
+        if(type == long.class)    return bindFunction(reader.longSetter(name, fieldAccess), ObjLongConsumer.class, "accept", primitiveSetterType());
+        if(type == double.class)  return bindFunction(reader.doubleSetter(name, fieldAccess), ObjDoubleConsumer.class, "accept", primitiveSetterType());
+        if(type == boolean.class) return bindFunction(reader.booleanSetter(name, fieldAccess), RowReader.BooleanSetter.class, "accept", primitiveSetterType());
+        return null;
+    }
+
+    /**
+     * @return The primitive getter of the generated writer, with signature {@code (Object) -> primitive}, or null if not available
+     */
+    private MethodHandle generatedPrimitiveGetter(RowWriter<?> writer, boolean fieldAccess) {
+        if(writer == null) return null;
+
+        final String name = field.getName();
+        if(type == int.class)     return bindFunction(writer.intGetter(name, fieldAccess), ToIntFunction.class, "applyAsInt", primitiveGetterType());
+        if(type == long.class)    return bindFunction(writer.longGetter(name, fieldAccess), ToLongFunction.class, "applyAsLong", primitiveGetterType());
+        if(type == double.class)  return bindFunction(writer.doubleGetter(name, fieldAccess), ToDoubleFunction.class, "applyAsDouble", primitiveGetterType());
+        if(type == boolean.class) return bindFunction(writer.booleanGetter(name, fieldAccess), Predicate.class, "test", primitiveGetterType());
+        return null;
+    }
+
+    /**
+     * @param function A functional object, or null
+     * @param functionType The functional interface implemented by the object
+     * @param method The functional method of the interface
+     * @param type The (erased) signature of the method
+     * @return A handle invoking the method on the object, or null if the object is null
+     */
+    private static MethodHandle bindFunction(Object function, Class<?> functionType, String method, MethodType type) {
+        if(function == null) return null;
 
-    private String  methodName;
+        try {
+            return MethodHandles.publicLookup().findVirtual(functionType, method, type).bindTo(function);
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            throw new IllegalStateException("Cannot access "+functionType.getName()+"."+method, e);
+        }
+    }
 
+    private MethodType primitiveSetterType() {
+        return MethodType.methodType(void.class, Object.class, type);
+    }
 
-    protected Column(String name, Integer order, Class<?> type, String methodName) {
-        this.name       = name;
-        this.order      = order;
-        this.type       = type;
-        this.methodName = methodName;
+    private MethodType primitiveGetterType() {
+        return MethodType.methodType(type, Object.class);
+    }
+
+    private static MethodHandle adapt(MethodHandle handle, MethodType type) {
+        return handle == null ? null : handle.asType(type);
+    }
+
+    private MethodHandle findSetter(MethodHandles.Lookup lookup, Class<?> owner) {
+        try {
+            return lookup.findVirtual(owner, setterName(field), MethodType.methodType(void.class, type));
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            return null;
+        }
+    }
+
+    private MethodHandle findGetter(MethodHandles.Lookup lookup, Class<?> owner) {
+        try {
+            return lookup.findVirtual(owner, getterName(field), MethodType.methodType(type));
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            return null;
+        }
+    }
+
+    private MethodHandle unreflectSetter(MethodHandles.Lookup lookup) {
+        try {
+            return lookup.unreflectSetter(field);
+        } catch (IllegalAccessException e) {
+            return null;
+        }
+    }
+
+    private MethodHandle unreflectGetter(MethodHandles.Lookup lookup) {
+        try {
+            return lookup.unreflectGetter(field);
+        } catch (IllegalAccessException e) {
+            return null;
+        }
+    }
+
+    private static String capitalize(String str) {
+        return str.substring(0,1).toUpperCase() + str.substring(1);
     }
 
 
     protected String getName() { return name; }
-    protected void setName(String name) { this.name = name; }
 
-    protected Integer getOrder() { return order; }
-    protected void setOrder(Integer order) { this.order = order; }
+    /**
+     * @return True if the name of the column comes from {@link CSVColumn#name()}, false if it is the field name
+     */
+    protected boolean isNamed() { return named; }
+
+    protected int getOrder() { return order; }
 
     protected Class<?> getType() { return type; }
-    protected void setType(Class<?> type) { this.type = type; }
 
-    protected String getMethodName() { return methodName; }
-    protected void setMethodName(String methodName) { this.methodName = methodName; }
+    protected Field getField() { return field; }
+
+    /**
+     * @param fieldAccess If true, the handle writes the field directly instead of invoking its setter
+     * @return A handle with signature {@link #SETTER_TYPE}, or null if the field cannot be written
+     */
+    protected MethodHandle getSetter(boolean fieldAccess) { return fieldAccess ? fieldSetter : setter; }
+
+    /**
+     * @param fieldAccess If true, the handle reads the field directly instead of invoking its getter
+     * @return A handle with signature {@link #GETTER_TYPE}, or null if the field cannot be read
+     */
+    protected MethodHandle getGetter(boolean fieldAccess) { return fieldAccess ? fieldGetter : getter; }
+
+    /**
+     * @param fieldAccess If true, the handle writes the field directly instead of invoking its setter
+     * @return A handle with signature {@code (Object, primitive) -> void} writing the value without boxing,
+     * or null if the field is not primitive or it is written by a generated {@link RowReader}
+     */
+    protected MethodHandle getPrimitiveSetter(boolean fieldAccess) { return fieldAccess ? primitiveFieldSetter : primitiveSetter; }
+
+    /**
+     * @param fieldAccess If true, the handle reads the field directly instead of invoking its getter
+     * @return A handle with signature {@code (Object) -> primitive} reading the value without boxing,
+     * or null if the field is not primitive or it is read by a generated {@link RowWriter}
+     */
+    protected MethodHandle getPrimitiveGetter(boolean fieldAccess) { return fieldAccess ? primitiveFieldGetter : primitiveGetter; }
+
+    /**
+     * @return The {@link CSVColumn#format()} pattern of the column, or an empty string
+     */
+    protected String getFormat() { return format; }
+
+    /**
+     * @return True if the column has its own {@link CSVColumn#format()}, which takes precedence over the converters registered on the parser/formatter
+     */
+    protected boolean hasFormat() { return !format.isEmpty(); }
+
+    /**
+     * @return True if the cells of the column are interned in a per-parse dictionary, see {@link CSVColumn#dictionary()}
+     */
+    protected boolean isDictionary() { return dictionary; }
+
+    /**
+     * @return The default converter of the column: the built-in converter of its type, or the one of its format
+     */
+    protected CellConverter<?> getConverter() { return converter; }
+
+    /**
+     * @param fieldAccess If true, describe the field instead of the setter
+     * @return A description of the setter (or field) used in error messages
+     */
+    protected String describeSetter(boolean fieldAccess) {
+        return field.getDeclaringClass().getName() + "." + (fieldAccess ? field.getName() : setterName(field)+"("+type.getName()+")");
+    }
+
+    /**
+     * @param fieldAccess If true, describe the field instead of the getter
+     * @return A description of the getter (or field) used in error messages
+     */
+    protected String describeGetter(boolean fieldAccess) {
+        return field.getDeclaringClass().getName() + "." + (fieldAccess ? field.getName() : getterName(field)+"()");
+    }
+
+
+    protected static String setterName(Field field) {
+        return "set" + capitalize(field.getName());
+    }
+
+    protected static String getterName(Field field) {
+        return (field.getType().equals(boolean.class) ? "is":"get") + capitalize(field.getName());
+    }
 }
@@ -0,0 +1,63 @@
+package io.intrinsicgray.utilcsv;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * {@link InputStream} counting the bytes read from another stream, used by {@link ReaderRowSource}
+ * to report the bytes of a file while it reads the decoded chars.
+ *
+ * <p>The stream can be read by a single thread (e.g. the background thread of an {@link AsyncInputStream}),
+ * while the count is read by another one.</p>
+ *
+ * @author Intrinsic gray (mdegiovanni97@gmail.com)
+ * @version 0.2.0
+ * @since 0.2.0
+ */
+class CountingInputStream extends FilterInputStream {
+
+    private volatile long count;
+
+
+    /**
+     * @param in The stream to count
+     */
+    protected CountingInputStream(InputStream in) {
+        super(in);
+    }
+
+
+    /**
+     * @return The number of bytes read so far
+     */
+    protected long getCount() { return count; }
+
+
+    @Override
+    public int read() throws IOException {
+        final int b = in.read();
+        if(b >= 0) count++;
+        return b;
+    }
+
+    @Override
+    public int read(byte[] bytes, int offset, int length) throws IOException {
+        final int read = in.read(bytes, offset, length);
+        if(read > 0) count += read;
+        return read;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        final long skipped = in.skip(n);
+        if(skipped > 0) count += skipped;
+        return skipped;
+    }
+
+    /**
+     * Marks are not supported, so the count never goes back
+     */
+    @Override
+    public boolean markSupported() { return false; }
+}
@@ -0,0 +1,27 @@
+package io.intrinsicgray.utilcsv;
+
+/**
+ * What {@link CSVParser} does when a cell cannot be converted to the type of its field,
+ * or a mapped or filtered cell is missing from a row. A row missing a filtered cell never matches the filter.
+ *
+ * <p>Supported values:</p>
+ * <ul>
+ *     <li>{@link #FAIL_FAST} - The parsing stops, throwing the exception of the converter</li>
+ *     <li>{@link #SKIP} - The row is skipped, and the error is added to the {@link CSVErrorReport} of the parser (if any)</li>
+ *     <li>{@link #DEFAULT} - The field keeps the value set by the no-arg constructor (null, 0 or false if not initialized),
+ *     and the error is added to the {@link CSVErrorReport} of the parser (if any)</li>
+ * </ul>
+ *
+ * <p>Errors that do not depend on the content of a cell (e.g. a setter throwing an exception) always stop the parsing.</p>
+ *
+ * @author Intrinsic gray (mdegiovanni97@gmail.com)
+ * @version 0.2.0
+ * @since 0.2.0
+ */
+public enum ErrorPolicy {
+
+    FAIL_FAST,
+    SKIP,
+    DEFAULT
+
+}
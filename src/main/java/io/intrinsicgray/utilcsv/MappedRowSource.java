@@ -0,0 +1,234 @@
+package io.intrinsicgray.utilcsv;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * {@link RowSource} reading a UTF-8 encoded file through a memory-mapped window.
+ * The line separators are searched directly on the raw bytes (they cannot appear inside
+ * a UTF-8 multi-byte sequence) and each row is decoded by the {@link CSVTokenizer} while
+ * it is split, so the file is never copied into an intermediate char buffer.
+ *
+ * <p>Files bigger than {@link #WINDOW_SIZE} are mapped one window at a time: when a row crosses
+ * the end of the current window, the next window is mapped starting from that row.
+ * A leading UTF-8 byte order mark is skipped.</p>
+ *
+ * <p>When a line ends inside a quoted cell, the tokenizer is resumed with the next line,
+ * so a quoted cell can contain line separators.</p>
+ *
+ * <p>If no line separator is given, it is detected from the first line break of the range
+ * ("\r\n", "\r" or "\n").</p>
+ *
+ * <p>A source can also read a single byte range of a shared channel, which is how the
+ * chunks of a parallel parsing are read.</p>
+ *
+ * @author Intrinsic gray (mdegiovanni97@gmail.com)
+ * @version 0.2.0
+ * @since 0.2.0
+ */
+class MappedRowSource implements RowSource {
+
+    private static final int WINDOW_SIZE = 64 * 1024 * 1024;
+
+    private final FileChannel   channel;
+    private final long          start;
+    private final long          size;
+    private final boolean       closeChannel;
+
+    private LineSeparator lineSeparator;
+
+    private MappedByteBuffer window;
+    private long             windowStart;
+    private int              position;
+
+    /** Bounds in the window of the last line read, without the line separator */
+    private int lineStart;
+    private int lineEnd;
+
+    /** Time spent mapping the windows and detecting the line separator */
+    private long ioNanos;
+
+
+    protected MappedRowSource(File file, LineSeparator lineSeparator) throws IOException {
+        this(open(file), 0, -1, lineSeparator, true);
+    }
+
+    /**
+     * @param channel The channel of the file, not closed by this source
+     * @param start The offset of the first row
+     * @param end The offset after the last row
+     * @param lineSeparator The separator between the rows, or null to detect it from the first line break
+     */
+    protected MappedRowSource(FileChannel channel, long start, long end, LineSeparator lineSeparator) throws IOException {
+        this(channel, start, end, lineSeparator, false);
+    }
+
+    private MappedRowSource(FileChannel channel, long start, long end, LineSeparator lineSeparator, boolean closeChannel) throws IOException {
+        this.channel       = channel;
+        this.start         = start;
+        this.lineSeparator = lineSeparator;
+        this.closeChannel  = closeChannel;
+
+        try {
+            this.size = end < 0 ? channel.size() : end;
+            if(start < 0 || start > size || size > channel.size()) throw new IndexOutOfBoundsException("Invalid range "+start+"-"+size);
+
+            map(start, WINDOW_SIZE);
+            if(start == 0) position = bomLength(window);
+
+            if(lineSeparator == null) {
+                final long detectStart = System.nanoTime();
+                this.lineSeparator = detect(channel, start, size);
+                ioNanos += System.nanoTime() - detectStart;
+            }
+        } catch (IOException | RuntimeException e) {
+            if(closeChannel) channel.close();
+            throw e;
+        }
+    }
+
+
+    // Private methods
+    private static FileChannel open(File file) throws IOException {
+        if(file == null) throw new NullPointerException("file cannot be null");
+        return FileChannel.open(file.toPath(), StandardOpenOption.READ);
+    }
+
+    private static LineSeparator detect(FileChannel channel, long start, long end) throws IOException {
+        final ByteBuffer buffer = ByteBuffer.allocate(8192);
+
+        long offset = start;
+        while(offset < end) {
+            buffer.clear();
+            buffer.limit((int) Math.min(buffer.capacity(), end - offset));
+
+            final int read = channel.read(buffer, offset);
+            if(read <= 0) break;
+
+            for(int i=0; i<read; i++) {
+                final byte b = buffer.get(i);
+
+                if(b == '\n') return LineSeparator.LF;
+                if(b == '\r') {
+                    final byte next = i + 1 < read ? buffer.get(i + 1) : byteAt(channel, offset + i + 1, end);
+                    return next == '\n' ? LineSeparator.CRLF : LineSeparator.CR;
+                }
+            }
+            offset += read;
+        }
+
+        // Without any line break the file is a single row
+        return LineSeparator.LF;
+    }
+
+    private static byte byteAt(FileChannel channel, long offset, long end) throws IOException {
+        if(offset >= end) return 0;
+
+        final ByteBuffer buffer = ByteBuffer.allocate(1);
+        return channel.read(buffer, offset) == 1 ? buffer.get(0) : 0;
+    }
+
+    private void map(long start, long length) throws IOException {
+        final long mapStart = System.nanoTime();
+
+        this.window      = channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(Math.min(length, Integer.MAX_VALUE), size - start));
+        this.windowStart = start;
+        this.position    = 0;
+        this.ioNanos    += System.nanoTime() - mapStart;
+    }
+
+    private boolean isWindowLast() {
+        return windowStart + window.limit() >= size;
+    }
+
+    private boolean isSeparator(int index) {
+        final byte b = window.get(index);
+        switch (lineSeparator) {
+            case LF: return b == '\n';
+            case CR: return b == '\r';
+            default: return b == '\n' && index > position && window.get(index - 1) == '\r';
+        }
+    }
+
+    private boolean isBlank(int from, int to) {
+        for(int i=from; i<to; i++) {
+            final byte b = window.get(i);
+            if(b < 0 || !Character.isWhitespace(b)) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Find the next line, mapping the next window if the line crosses the end of the current one
+     *
+     * @return False if the end of the range has been reached
+     */
+    private boolean readLine() throws IOException {
+        while(true) {
+            final int limit = window.limit();
+
+            int end = position;
+            while(end < limit && !isSeparator(end)) end++;
+
+            if(end == limit && !isWindowLast()) {
+                // The line continues on the next window: map it again from the line start, growing the window if the line is too long
+                map(windowStart + position, Math.max(WINDOW_SIZE, 2L * (limit - position)));
+                continue;
+            }
+            if(end == limit && position == limit) return false;
+
+            lineStart = position;
+            lineEnd   = lineSeparator == LineSeparator.CRLF && end < limit ? end - 1 : end;
+            position  = end < limit ? end + 1 : end;
+            return true;
+        }
+    }
+
+
+    @Override
+    public boolean nextRow(CSVTokenizer tokenizer) throws IOException {
+        while(readLine()) {
+            if(!isBlank(lineStart, lineEnd)) {
+                tokenizer.tokenize(window, lineStart, lineEnd);
+                while(tokenizer.isQuoteOpen() && readLine()) {
+                    tokenizer.resume(lineSeparator.value, window, lineStart, lineEnd);
+                }
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @param buffer The beginning of a file
+     * @return The length of the UTF-8 byte order mark at the beginning of the buffer, or 0 if there is none
+     */
+    protected static int bomLength(ByteBuffer buffer) {
+        return buffer.limit() >= 3 && buffer.get(0) == (byte) 0xEF && buffer.get(1) == (byte) 0xBB && buffer.get(2) == (byte) 0xBF ? 3 : 0;
+    }
+
+    /**
+     * @return The separator between the rows, either the given one or the detected one
+     */
+    protected LineSeparator getLineSeparator() { return lineSeparator; }
+
+    /**
+     * @return The offset in the file of the next row
+     */
+    protected long position() { return windowStart + position; }
+
+    @Override
+    public long bytesRead() { return position() - start; }
+
+    @Override
+    public long ioNanos() { return ioNanos; }
+
+    @Override
+    public void close() throws IOException {
+        if(closeChannel) channel.close();
+    }
+}
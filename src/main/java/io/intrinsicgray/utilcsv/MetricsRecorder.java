@@ -0,0 +1,89 @@
+package io.intrinsicgray.utilcsv;
+
+import io.intrinsicgray.utilcsv.metrics.CSVMetrics;
+import io.intrinsicgray.utilcsv.metrics.CSVMetricsListener;
+
+/**
+ * Counters of a single parsing or formatting call, updated by {@link CSVRowIterator} and {@link CSVRowSink}
+ * and reported to the {@link CSVMetricsListener} of the parser/formatter.
+ *
+ * <p>A recorder is only created when a listener is set (see {@link #of(CSVUtil, CSVMetrics.Operation)}),
+ * so the rows are not timed at all by default. The chunks of a parallel parsing/formatting use their own
+ * recorder (see {@link #part()}), merged into the recorder of the call once the chunk is over.</p>
+ *
+ * <p>Instances are not thread-safe.</p>
+ *
+ * @author Intrinsic gray (mdegiovanni97@gmail.com)
+ * @version 0.2.0
+ * @since 0.2.0
+ */
+class MetricsRecorder {
+
+    private final CSVMetricsListener   listener;
+    private final CSVMetrics.Operation operation;
+    private final long                 start = System.nanoTime();
+
+    protected long rows;
+    protected long bytes;
+    protected long chars;
+    protected long cells;
+    protected long failures;
+    protected long ioNanos;
+    protected long tokenizeNanos;
+    protected long bindNanos;
+
+    private boolean reported;
+
+
+    /**
+     * @param listener The listener of the metrics, or null if the metrics are merged into another recorder
+     * @param operation The recorded operation
+     */
+    private MetricsRecorder(CSVMetricsListener listener, CSVMetrics.Operation operation) {
+        this.listener  = listener;
+        this.operation = operation;
+    }
+
+
+    /**
+     * @param util The parser/formatter configuration
+     * @param operation The recorded operation
+     * @return A recorder reporting to the listener of the configuration, or null if no listener is set
+     */
+    protected static MetricsRecorder of(CSVUtil util, CSVMetrics.Operation operation) {
+        return util.metricsListener == CSVMetricsListener.NONE ? null : new MetricsRecorder(util.metricsListener, operation);
+    }
+
+    /**
+     * @return A recorder for a chunk of this call, never reported
+     */
+    protected MetricsRecorder part() {
+        return new MetricsRecorder(null, operation);
+    }
+
+    /**
+     * Add the counters of a chunk to this recorder
+     *
+     * @param part A recorder created by {@link #part()}, no longer updated
+     */
+    protected void merge(MetricsRecorder part) {
+        rows          += part.rows;
+        bytes         += part.bytes;
+        chars         += part.chars;
+        cells         += part.cells;
+        failures      += part.failures;
+        ioNanos       += part.ioNanos;
+        tokenizeNanos += part.tokenizeNanos;
+        bindNanos     += part.bindNanos;
+    }
+
+    /**
+     * Notify the listener, if not already done
+     */
+    protected void report() {
+        if(listener == null || reported) return;
+        reported = true;
+
+        listener.completed(new CSVMetrics(operation, rows, bytes, chars, cells, failures, ioNanos, tokenizeNanos, bindNanos, System.nanoTime() - start));
+    }
+}
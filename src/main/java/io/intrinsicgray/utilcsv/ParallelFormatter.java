@@ -0,0 +1,133 @@
+package io.intrinsicgray.utilcsv;
+
+import io.intrinsicgray.utilcsv.exception.ListCannotBeFormattedException;
+import io.intrinsicgray.utilcsv.metrics.CSVMetrics;
+
+import java.io.CharArrayWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Parallel formatting, used by {@link CSVFormatter#formatParallel(Iterator, Class, Writer)}.
+ * The rows are grouped into chunks on the calling thread, each chunk is formatted into its own
+ * char buffer on a {@link ForkJoinPool}, and the buffers are written to the destination in order
+ * by the calling thread.
+ *
+ * <p>At most two chunks per thread of the pool are in progress at the same time, so the memory used
+ * does not depend on the number of rows, and a slow destination slows down the formatting.</p>
+ *
+ * @author Intrinsic gray (mdegiovanni97@gmail.com)
+ * @version 0.2.0
+ * @since 0.2.0
+ */
+class ParallelFormatter {
+
+    private static final int CHUNK_ROWS        = 4096;
+    private static final int CHUNKS_PER_THREAD = 2;
+
+
+    private ParallelFormatter() { }
+
+
+    // Private methods
+    private static <T> CharArrayWriter formatChunk(CSVFormatter formatter, Class<T> rowClass, List<T> rows, MetricsRecorder recorder) throws IOException {
+        final CharArrayWriter buffer = new CharArrayWriter(rows.size() * 64);
+
+        try(final RowSink<T> sink = new CSVRowSink<>(formatter, rowClass, buffer, false, false, recorder)) {
+            for(T row : rows) {
+                sink.write(row);
+            }
+        }
+        return buffer;
+    }
+
+    /**
+     * Wait for the oldest chunk and write it
+     *
+     * @param parts The recorders of the chunks, empty if the metrics are not recorded
+     */
+    private static void writeChunk(Deque<ForkJoinTask<CharArrayWriter>> chunks, Deque<MetricsRecorder> parts, Writer writer, MetricsRecorder recorder) throws IOException {
+        final CharArrayWriter buffer = ParallelParser.get(chunks, chunks.peek());
+        chunks.poll();
+
+        if(recorder == null) {
+            buffer.writeTo(writer);
+            return;
+        }
+
+        final long start = System.nanoTime();
+        buffer.writeTo(writer);
+        recorder.ioNanos += System.nanoTime() - start;
+        recorder.merge(parts.poll());
+    }
+
+    private static <T> List<T> nextChunk(Iterator<? extends T> rows) {
+        final List<T> chunk = new ArrayList<>(CHUNK_ROWS);
+        while(chunk.size() < CHUNK_ROWS && rows.hasNext()) {
+            chunk.add(rows.next());
+        }
+        return chunk;
+    }
+
+    private static <T> void format(CSVFormatter formatter, Iterator<? extends T> rows, Class<T> rowClass, Writer writer, ForkJoinPool pool, MetricsRecorder recorder) throws IOException, ListCannotBeFormattedException {
+        // The header is written (and the columns are checked) before formatting any chunk
+        new CSVRowSink<>(formatter, rowClass, writer, false, formatter.useHeader, null).close();
+
+        final int                                  maxChunks = Math.max(2, pool.getParallelism() * CHUNKS_PER_THREAD);
+        final Deque<ForkJoinTask<CharArrayWriter>> chunks    = new ArrayDeque<>();
+        final Deque<MetricsRecorder>               parts     = new ArrayDeque<>();
+
+        try {
+            while(rows.hasNext()) {
+                final List<T>         chunk = nextChunk(rows);
+                final MetricsRecorder part  = recorder != null ? recorder.part() : null;
+                chunks.add(pool.submit(() -> formatChunk(formatter, rowClass, chunk, part)));
+                if(part != null) parts.add(part);
+
+                if(chunks.size() >= maxChunks) {
+                    writeChunk(chunks, parts, writer, recorder);
+                }
+            }
+
+            while(!chunks.isEmpty()) {
+                writeChunk(chunks, parts, writer, recorder);
+            }
+        } catch (IOException | RuntimeException | Error e) {
+            // The chunks already submitted would be formatted for nothing (e.g. when the rows or the writer fail)
+            chunks.forEach(task -> task.cancel(true));
+            throw e;
+        }
+        writer.flush();
+    }
+
+
+    /**
+     * Format the rows in parallel
+     *
+     * @param formatter The formatter configuration
+     * @param rows The objects to format
+     * @param rowClass The class of the objects
+     * @param writer The destination, written only by the calling thread
+     * @param pool The pool formatting the chunks
+     * @param <T> The class of the objects
+     */
+    protected static <T> void format(CSVFormatter formatter, Iterator<? extends T> rows, Class<T> rowClass, Writer writer, ForkJoinPool pool) throws IOException, ListCannotBeFormattedException {
+        final MetricsRecorder recorder = MetricsRecorder.of(formatter, CSVMetrics.Operation.FORMAT);
+        try {
+            format(formatter, rows, rowClass, writer, pool, recorder);
+        } catch (IOException | RuntimeException | Error e) {
+            if(recorder != null) recorder.failures++;
+            throw e;
+        } finally {
+            // The listener is notified once per call, even if the call fails
+            if(recorder != null) recorder.report();
+        }
+    }
+}
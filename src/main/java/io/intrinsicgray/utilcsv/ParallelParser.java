@@ -0,0 +1,376 @@
+package io.intrinsicgray.utilcsv;
+
+import io.intrinsicgray.utilcsv.exception.CSVCannotBeParsedException;
+import io.intrinsicgray.utilcsv.exception.CellCannotBeParsedException;
+import io.intrinsicgray.utilcsv.exception.ColumnNameNotPresentException;
+import io.intrinsicgray.utilcsv.exception.InvalidColumnOrderException;
+import io.intrinsicgray.utilcsv.metrics.CSVMetrics;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.Future;
+
+/**
+ * Parallel parsing of a UTF-8 encoded file, used by {@link CSVParser#parseParallel(File, Class, java.nio.charset.Charset, boolean)}.
+ * The file is split into byte ranges (chunks) which are moved to row boundaries and then
+ * tokenized and bound concurrently on a {@link ForkJoinPool}, each one by its own {@link CSVRowIterator}.
+ *
+ * <p>A row boundary is a line separator outside a quoted cell, but whether an offset is inside a quoted
+ * cell depends on everything before it. So every chunk is first scanned in parallel once for each state
+ * the {@link CSVTokenizer} can be in at its start (new cell, unquoted cell, quoted cell, quote inside a quoted cell),
+ * recording the first boundary and the state at the end of the chunk. Then the actual state at the start of each chunk
+ * is resolved from the first chunk onward, in constant time per chunk. Chunks never start right after an escape
+ * character, so the escape states cannot be found at their start.</p>
+ *
+ * @author Intrinsic gray (mdegiovanni97@gmail.com)
+ * @version 0.2.0
+ * @since 0.2.0
+ */
+class ParallelParser {
+
+    private static final long MIN_CHUNK_SIZE    = 1 << 20;
+    private static final long MAX_CHUNK_SIZE    = 1 << 30;
+    private static final int  CHUNKS_PER_THREAD = 4;
+
+    // Same transitions of CSVTokenizer
+    private static final int CELL_START      = 0;
+    private static final int UNQUOTED        = 1;
+    private static final int QUOTED          = 2;
+    private static final int QUOTE_IN_QUOTED = 3;
+    private static final int ESCAPE_UNQUOTED = 4;
+    private static final int ESCAPE_QUOTED   = 5;
+
+    /** Number of states that can be found at the start of a chunk */
+    private static final int START_STATES = 4;
+
+    private static final byte ESCAPE = '\\';
+
+
+    private final CSVParser     parser;
+    private final FileChannel   channel;
+    private final long          size;
+    private final ForkJoinPool  pool;
+    private final LineSeparator lineSeparator;
+
+    private final byte    delimiter;
+    private final byte    quote;
+    private final byte    separator;
+    private final boolean crlf;
+
+
+    private ParallelParser(CSVParser parser, FileChannel channel, ForkJoinPool pool) throws IOException {
+        this.parser    = parser;
+        this.channel   = channel;
+        this.size      = channel.size();
+        this.pool      = pool;
+        this.delimiter = (byte) parser.delimiter.charAt(0);
+        this.quote     = (byte) parser.quote.charAt(0);
+
+        try(final MappedRowSource source = new MappedRowSource(channel, 0, size, parser.sourceLineSeparator())) {
+            this.lineSeparator = source.getLineSeparator();
+        }
+        this.separator = (byte) (lineSeparator == LineSeparator.CR ? '\r' : '\n');
+        this.crlf      = lineSeparator == LineSeparator.CRLF;
+    }
+
+
+    // Private methods
+    private int step(int state, byte b) {
+        switch (state) {
+            case CELL_START:
+                if(b == delimiter) return CELL_START;
+                if(b == quote)     return QUOTED;
+                if(b == ESCAPE)    return ESCAPE_UNQUOTED;
+                return UNQUOTED;
+
+            case UNQUOTED:
+                if(b == delimiter) return CELL_START;
+                if(b == ESCAPE)    return ESCAPE_UNQUOTED;
+                return UNQUOTED;
+
+            case QUOTED:
+                if(b == quote)     return QUOTE_IN_QUOTED;
+                if(b == ESCAPE)    return ESCAPE_QUOTED;
+                return QUOTED;
+
+            case QUOTE_IN_QUOTED:
+                if(b == quote)     return QUOTED;
+                if(b == delimiter) return CELL_START;
+                return UNQUOTED;
+
+            case ESCAPE_UNQUOTED:
+                return UNQUOTED;
+
+            default:
+                return QUOTED;
+        }
+    }
+
+    private boolean isBoundary(int state, byte b, byte previous) {
+        return b == separator && state != QUOTED && state != ESCAPE_QUOTED && (!crlf || previous == '\r');
+    }
+
+    private byte byteAt(long position) throws IOException {
+        final ByteBuffer buffer = ByteBuffer.allocate(1);
+        return channel.read(buffer, position) == 1 ? buffer.get(0) : 0;
+    }
+
+    /**
+     * Scan a chunk once for every possible state at its start
+     *
+     * @return The offset of the first boundary ({@code [0..START_STATES)}, -1 if there is none)
+     * and the state at the end of the chunk ({@code [START_STATES..2*START_STATES)}), for each start state
+     */
+    private long[] scan(long start, long end) throws IOException {
+        final MappedByteBuffer bytes = channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+        final int              limit = bytes.limit();
+
+        final int[]  states = { CELL_START, UNQUOTED, QUOTED, QUOTE_IN_QUOTED };
+        final long[] result = new long[START_STATES * 2];
+        Arrays.fill(result, 0, START_STATES, -1);
+
+        byte previous = start > 0 ? byteAt(start - 1) : 0;
+        int  found    = 0;
+        int  i        = 0;
+
+        // Every start state is followed until it finds its first boundary and they all end up in the same state
+        for(; i<limit && (found < START_STATES || !converged(states)); i++) {
+            final byte b = bytes.get(i);
+
+            for(int s=0; s<START_STATES; s++) {
+                if(isBoundary(states[s], b, previous)) {
+                    if(result[s] < 0) {
+                        result[s] = start + i;
+                        found++;
+                    }
+                    states[s] = CELL_START;
+                } else {
+                    states[s] = step(states[s], b);
+                }
+            }
+            previous = b;
+        }
+
+        // From now on a single state is enough
+        if(i < limit) {
+            int state = states[0];
+            for(; i<limit; i++) {
+                final byte b = bytes.get(i);
+
+                state    = isBoundary(state, b, previous) ? CELL_START : step(state, b);
+                previous = b;
+            }
+            Arrays.fill(states, state);
+        }
+
+        for(int s=0; s<START_STATES; s++) {
+            result[START_STATES + s] = states[s];
+        }
+        return result;
+    }
+
+    private static boolean converged(int[] states) {
+        for(int s=1; s<states.length; s++) {
+            if(states[s] != states[0]) return false;
+        }
+        return true;
+    }
+
+    /**
+     * @return The offsets where the chunks start, the first one being the start of the data
+     */
+    private long[] chunkStarts(long dataStart) throws IOException {
+        final long dataSize = size - dataStart;
+        final int  chunks   = (int) Math.max(Math.min((long) pool.getParallelism() * CHUNKS_PER_THREAD, dataSize / MIN_CHUNK_SIZE), (dataSize + MAX_CHUNK_SIZE - 1) / MAX_CHUNK_SIZE);
+
+        // Nominal starts, moved after any escape character
+        final List<Long> nominal = new ArrayList<>();
+        nominal.add(dataStart);
+        for(int c=1; c<chunks; c++) {
+            long position = dataStart + dataSize * c / chunks;
+            while(position < size && byteAt(position - 1) == ESCAPE) position++;
+
+            if(position < size && position > nominal.get(nominal.size() - 1)) {
+                nominal.add(position);
+            }
+        }
+
+        final List<ForkJoinTask<long[]>> scans = new ArrayList<>();
+        for(int c=0; c<nominal.size(); c++) {
+            final long start = nominal.get(c);
+            final long end   = c + 1 < nominal.size() ? nominal.get(c + 1) : size;
+            scans.add(pool.submit(() -> scan(start, end)));
+        }
+
+        // Resolve the state at the start of each chunk, starting from the beginning of the data
+        final List<Long> starts = new ArrayList<>();
+        starts.add(dataStart);
+
+        int state = (int) get(scans, scans.get(0))[START_STATES + CELL_START];
+        for(int c=1; c<scans.size(); c++) {
+            final long[] scan = get(scans, scans.get(c));
+
+            if(scan[state] >= 0) starts.add(scan[state] + 1);
+            state = (int) scan[START_STATES + state];
+        }
+
+        return starts.stream().mapToLong(Long::longValue).toArray();
+    }
+
+    /**
+     * @param chunkRows The number of rows read by each chunk, set at the index of the chunk once it is parsed
+     * @param chunk The index of the chunk
+     */
+    private <T> List<T> parseChunk(Class<T> destinationClass, List<String> header, long start, long end, MetricsRecorder recorder, CSVErrorReport errors, long[] chunkRows, int chunk) throws IOException {
+        try(final RowSource source = new MappedRowSource(channel, start, end, lineSeparator)) {
+            final CSVRowIterator<T> iterator = new CSVRowIterator<>(parser, source, destinationClass, header, recorder, errors);
+
+            final List<T> result = new ArrayList<>();
+            while(iterator.hasNext()) {
+                result.add(iterator.next());
+            }
+
+            chunkRows[chunk] = iterator.getRowCount();
+            return result;
+        }
+    }
+
+    private <T> List<T> parse(Class<T> destinationClass, boolean ordered) throws IOException {
+        final MetricsRecorder recorder = MetricsRecorder.of(parser, CSVMetrics.Operation.PARSE);
+        try {
+            return parse(destinationClass, ordered, recorder);
+        } catch (IOException | RuntimeException | Error e) {
+            if(recorder != null) recorder.failures++;
+            throw e;
+        } finally {
+            // The listener is notified once per call, even if the call fails
+            if(recorder != null) recorder.report();
+        }
+    }
+
+    private <T> List<T> parse(Class<T> destinationClass, boolean ordered, MetricsRecorder recorder) throws IOException {
+        final CSVErrorReport errorReport = parser.getErrorReport();
+
+        final List<String> header;
+        final long         dataStart;
+        try(final MappedRowSource source = new MappedRowSource(channel, 0, size, lineSeparator)) {
+            if(parser.useHeader) {
+                final CSVTokenizer tokenizer = new CSVTokenizer(parser.delimiter.charAt(0), parser.quote.charAt(0));
+                if(!source.nextRow(tokenizer)) return new ArrayList<>();
+                header = tokenizer.cells();
+            } else {
+                header = null;
+            }
+            dataStart = source.position();
+        }
+
+        // Build a first iterator on the calling thread, so that mapping errors are thrown before splitting the file
+        try(final RowSource source = new MappedRowSource(channel, dataStart, dataStart, lineSeparator)) {
+            new CSVRowIterator<>(parser, source, destinationClass, header, null, null);
+        }
+
+        final long[]  starts = chunkStarts(dataStart);
+        final List<T> result = ordered ? new ArrayList<>() : Collections.synchronizedList(new ArrayList<>());
+
+        final long[]                      chunkRows   = new long[starts.length];
+        final List<ForkJoinTask<List<T>>> tasks       = new ArrayList<>();
+        final List<MetricsRecorder>       parts       = new ArrayList<>();
+        final List<CSVErrorReport>        chunkErrors = new ArrayList<>();
+        for(int c=0; c<starts.length; c++) {
+            final int             chunk  = c;
+            final long            start  = starts[c];
+            final long            end    = c + 1 < starts.length ? starts[c + 1] : size;
+            final MetricsRecorder part   = recorder != null ? recorder.part() : null;
+            final CSVErrorReport  errors = errorReport != null ? errorReport.part() : null;
+
+            final Callable<List<T>> task = ordered
+                    ? () -> parseChunk(destinationClass, header, start, end, part, errors, chunkRows, chunk)
+                    : () -> {
+                        result.addAll(parseChunk(destinationClass, header, start, end, part, errors, chunkRows, chunk));
+                        return null;
+                    };
+            tasks.add(pool.submit(task));
+            parts.add(part);
+            chunkErrors.add(errors);
+        }
+
+        // The rows of the errors are counted from the beginning of their chunk, then shifted by the rows of the previous chunks
+        long rows = 0;
+        for(int c=0; c<tasks.size(); c++) {
+            final List<T> chunk = get(tasks, tasks.get(c));
+            if(ordered) result.addAll(chunk);
+            if(recorder != null) recorder.merge(parts.get(c));
+            if(errorReport != null) {
+                errorReport.merge(chunkErrors.get(c), rows);
+                rows += chunkRows[c];
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Wait for a task, cancelling all the tasks if it fails
+     *
+     * @param tasks All the tasks in progress
+     * @param task The task to wait for
+     * @return The result of the task
+     */
+    protected static <V> V get(Collection<? extends Future<?>> tasks, Future<V> task) throws IOException {
+        try {
+            return task.get();
+        } catch (InterruptedException e) {
+            tasks.forEach(t -> t.cancel(true));
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Parallel processing interrupted");
+        } catch (ExecutionException e) {
+            tasks.forEach(t -> t.cancel(true));
+
+            final Throwable cause = e.getCause();
+            if(cause instanceof IOException)      throw (IOException) cause;
+            if(cause instanceof RuntimeException) throw (RuntimeException) cause;
+            if(cause instanceof Error)            throw (Error) cause;
+            throw new CSVCannotBeParsedException("Error during CSV parsing. "+cause.getMessage(), cause);
+        }
+    }
+
+
+    /**
+     * @return True if the parser configuration allows to look for rows and cells on the raw bytes,
+     * i.e. the delimiter and the quote are ASCII characters
+     */
+    protected static boolean isSupported(CSVParser parser) {
+        return parser.delimiter.charAt(0) < 0x80 && parser.quote.charAt(0) < 0x80;
+    }
+
+    /**
+     * Parse a UTF-8 encoded file in parallel
+     *
+     * @param parser The parser configuration
+     * @param file The CSV file
+     * @param destinationClass The class of the objects to create
+     * @param ordered If true, the objects are returned in the order of the rows
+     * @param pool The pool running the chunks
+     * @param <T> The class of the objects
+     *
+     * @return The list of the objects of the CSV file
+     */
+    protected static <T> List<T> parse(CSVParser parser, File file, Class<T> destinationClass, boolean ordered, ForkJoinPool pool) throws IOException, CSVCannotBeParsedException, CellCannotBeParsedException, ColumnNameNotPresentException, InvalidColumnOrderException {
+        try(final FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            return new ParallelParser(parser, channel, pool).parse(destinationClass, ordered);
+        }
+    }
+}
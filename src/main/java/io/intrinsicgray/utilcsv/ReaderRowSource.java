@@ -0,0 +1,197 @@
+package io.intrinsicgray.utilcsv;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * {@link RowSource} reading the rows from a {@link BufferedReader}.
+ * The reader is read in blocks of chars, which are scanned for line breaks with a tight loop
+ * and copied in bulk into a reusable row buffer, so no object is created per row.
+ * With {@link LineSeparator#CRLF} the carriage return is not part of the row.
+ *
+ * <p>Line breaks are found before looking at the quotes: when a line ends inside a quoted cell,
+ * the tokenizer is resumed with the line separator and the next line, so a quoted cell can span
+ * several lines (as in RFC 4180) without any extra pass over the input.</p>
+ *
+ * <p>If no line separator is given, it is detected from the first line break of the reader
+ * ("\r\n", "\r" or "\n").</p>
+ *
+ * <p>Since the reader is consumed one block at a time, it is usually read beyond the last row returned.
+ * A reader provided by the user is not closed by this class.</p>
+ *
+ * @author Intrinsic gray (mdegiovanni97@gmail.com)
+ * @version 0.2.0
+ * @since 0.2.0
+ */
+class ReaderRowSource implements RowSource {
+
+    private static final int BLOCK_SIZE = 8192;
+
+    private final BufferedReader      reader;
+    private final boolean             closeReader;
+    private final CountingInputStream counter;
+
+    private LineSeparator lineSeparator;
+
+    private final char[] block = new char[BLOCK_SIZE];
+    private int          position;
+    private int          limit;
+
+    private char[] row = new char[256];
+    private int    rowLength;
+
+    private long charsRead;
+    private long ioNanos;
+
+
+    /**
+     * @param reader The reader containing the CSV file
+     * @param lineSeparator The separator between the rows, or null to detect it from the first line break
+     * @param closeReader If true, the reader is closed together with this source
+     */
+    protected ReaderRowSource(BufferedReader reader, LineSeparator lineSeparator, boolean closeReader) {
+        this(reader, lineSeparator, closeReader, null);
+    }
+
+    /**
+     * @param reader The reader containing the CSV file
+     * @param lineSeparator The separator between the rows, or null to detect it from the first line break
+     * @param closeReader If true, the reader is closed together with this source
+     * @param counter The stream of the file decoded by the reader, counting its bytes, or null if the bytes are not known.
+     *                Since the reader decodes the stream one block at a time, the bytes are usually counted beyond the last row returned
+     */
+    protected ReaderRowSource(BufferedReader reader, LineSeparator lineSeparator, boolean closeReader, CountingInputStream counter) {
+        if(reader == null) throw new NullPointerException("reader cannot be null");
+
+        this.reader        = reader;
+        this.lineSeparator = lineSeparator;
+        this.closeReader   = closeReader;
+        this.counter       = counter;
+    }
+
+
+    // Private methods
+    private boolean fill() throws IOException {
+        final long start = System.nanoTime();
+
+        int read;
+        do {
+            read = reader.read(block, 0, block.length);
+        } while(read == 0);
+
+        ioNanos  += System.nanoTime() - start;
+        charsRead = read > 0 ? charsRead + read : charsRead;
+        position  = 0;
+        limit    = Math.max(read, 0);
+        return read > 0;
+    }
+
+    private void append(char[] chars, int from, int to) {
+        final int length = to - from;
+        if(rowLength + length > row.length) {
+            row = Arrays.copyOf(row, Math.max(row.length * 2, rowLength + length));
+        }
+        System.arraycopy(chars, from, row, rowLength, length);
+        rowLength += length;
+    }
+
+    private void append(char c) {
+        if(rowLength == row.length) row = Arrays.copyOf(row, row.length * 2);
+        row[rowLength++] = c;
+    }
+
+    /**
+     * Consume the next char if it is a line feed
+     */
+    private boolean skipLineFeed() throws IOException {
+        if(position == limit && !fill()) return false;
+        if(block[position] != '\n') return false;
+
+        position++;
+        return true;
+    }
+
+    /**
+     * Read the next line into the row buffer, without the line separator
+     *
+     * @return False if the end of the reader has been reached before any char
+     */
+    private boolean readLine() throws IOException {
+        rowLength = 0;
+
+        boolean read = false;
+        while(true) {
+            if(position == limit && !fill()) return read;
+            read = true;
+
+            int i = position;
+            while(i < limit && block[i] != '\n' && block[i] != '\r') i++;
+
+            append(block, position, i);
+            if(i == limit) {
+                position = limit;
+                continue;
+            }
+
+            final char c = block[i];
+            position = i + 1;
+
+            if(lineSeparator == null) {
+                if(c == '\n')           lineSeparator = LineSeparator.LF;
+                else if(skipLineFeed()) lineSeparator = LineSeparator.CRLF;
+                else                    lineSeparator = LineSeparator.CR;
+                return true;
+            }
+
+            switch (lineSeparator) {
+                case LF:
+                    if(c == '\n') return true;
+                    break;
+                case CR:
+                    if(c == '\r') return true;
+                    break;
+                default:
+                    if(c == '\r' && skipLineFeed()) return true;
+                    break;
+            }
+            append(c);
+        }
+    }
+
+    private boolean isBlank() {
+        for(int i=0; i<rowLength; i++) {
+            if(!Character.isWhitespace(row[i])) return false;
+        }
+        return true;
+    }
+
+
+    @Override
+    public boolean nextRow(CSVTokenizer tokenizer) throws IOException {
+        while(readLine()) {
+            if(!isBlank()) {
+                tokenizer.tokenize(row, 0, rowLength);
+                while(tokenizer.isQuoteOpen() && readLine()) {
+                    tokenizer.resume(lineSeparator.value, row, 0, rowLength);
+                }
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public long bytesRead() { return counter != null ? counter.getCount() : 0; }
+
+    @Override
+    public long charsRead() { return charsRead; }
+
+    @Override
+    public long ioNanos() { return ioNanos; }
+
+    @Override
+    public void close() throws IOException {
+        if(closeReader) reader.close();
+    }
+}
@@ -0,0 +1,68 @@
+package io.intrinsicgray.utilcsv;
+
+import java.util.Arrays;
+
+/**
+ * Batch of tokenized rows, handed from the reading thread to the binding thread of a {@link CSVPublisher}.
+ * The cells of all the rows are copied one after the other into a single char buffer, so a batch costs
+ * a few arrays whatever the number of its rows, and the threads synchronize once per batch instead of once per row.
+ *
+ * <p>Instances are not thread-safe: a batch is filled by a thread and then read by another one,
+ * after being passed through a {@link java.util.concurrent.BlockingQueue}.</p>
+ *
+ * @author Intrinsic gray (mdegiovanni97@gmail.com)
+ * @version 0.2.0
+ * @since 0.2.0
+ */
+class RowBatch {
+
+    protected static final int MAX_ROWS  = 256;
+    protected static final int MAX_CHARS = 64 * 1024;
+
+    private char[] chars    = new char[1024];
+    private int    length;
+    private int[]  cellEnds = new int[256];
+    private int    cells;
+
+    /** For each row, the index after its last cell on cellEnds */
+    private final int[] rowEnds = new int[MAX_ROWS];
+    private int         rows;
+
+
+    /**
+     * Copy the last row tokenized by a tokenizer at the end of the batch
+     */
+    protected void add(CSVTokenizer tokenizer) {
+        final int rowLength = tokenizer.cellCount() == 0 ? 0 : tokenizer.cellStart(tokenizer.cellCount() - 1) + tokenizer.cellLength(tokenizer.cellCount() - 1);
+        final int rowCells  = tokenizer.cellCount();
+
+        if(length + rowLength > chars.length) chars = Arrays.copyOf(chars, Math.max(length + rowLength, chars.length * 2));
+        if(cells + rowCells > cellEnds.length) cellEnds = Arrays.copyOf(cellEnds, Math.max(cells + rowCells, cellEnds.length * 2));
+
+        System.arraycopy(tokenizer.buffer(), 0, chars, length, rowLength);
+        for(int i=0; i<rowCells; i++) {
+            cellEnds[cells + i] = length + tokenizer.cellStart(i) + tokenizer.cellLength(i);
+        }
+
+        length += rowLength;
+        cells  += rowCells;
+        rowEnds[rows++] = cells;
+    }
+
+    /**
+     * Load a row of the batch into a tokenizer, as if the tokenizer had read it
+     *
+     * @param row The index of the row on the batch
+     */
+    protected void load(int row, CSVTokenizer tokenizer) {
+        final int firstCell = row == 0 ? 0 : rowEnds[row - 1];
+        final int from      = firstCell == 0 ? 0 : cellEnds[firstCell - 1];
+
+        tokenizer.load(chars, from, cellEnds, firstCell, rowEnds[row] - firstCell);
+    }
+
+    protected int size() { return rows; }
+
+    protected boolean isFull() { return rows == MAX_ROWS || length >= MAX_CHARS; }
+
+}
@@ -0,0 +1,245 @@
+package io.intrinsicgray.utilcsv;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Arrays;
+
+/**
+ * Reusable char buffer used by {@link CSVRowSink} to build a row before writing it.
+ * Cells are appended directly into the buffer, already quoted and escaped, and the whole row
+ * is handed to the {@link Writer} with a single call, so formatting a row does not create any
+ * intermediate string.
+ *
+ * <p>Each cell is scanned once to find out whether it must be quoted (it contains the delimiter,
+ * it starts with the quote or quotes are always used) and whether it contains characters to escape.
+ * Cells without such characters are copied in bulk. Primitive values are written digit by digit.</p>
+ *
+ * <p>Instances are not thread-safe and are meant to be reused row after row.</p>
+ *
+ * @author Intrinsic gray (mdegiovanni97@gmail.com)
+ * @version 0.2.0
+ * @since 0.2.0
+ */
+class RowBuffer {
+
+    private static final char   ESCAPE       = '\\';
+    private static final String NUMBER_CHARS = "0123456789-.EInfityNa";
+
+    private final char    delimiter;
+    private final char    quote;
+    private final boolean alwaysUseQuotes;
+    private final char[]  lineSeparator;
+
+    /** True if a number can contain the delimiter or the quote, so it must be checked as any other cell */
+    private final boolean checkNumbers;
+
+    private final StringBuilder number = new StringBuilder(32);
+
+    private char[]  buffer = new char[256];
+    private int     length;
+    private boolean firstCell = true;
+
+
+    protected RowBuffer(char delimiter, char quote, boolean alwaysUseQuotes, LineSeparator lineSeparator) {
+        this.delimiter       = delimiter;
+        this.quote           = quote;
+        this.alwaysUseQuotes = alwaysUseQuotes;
+        this.lineSeparator   = lineSeparator.value.toCharArray();
+        this.checkNumbers    = NUMBER_CHARS.indexOf(delimiter) >= 0 || NUMBER_CHARS.indexOf(quote) >= 0;
+    }
+
+
+    // Private methods
+    private void ensureCapacity(int chars) {
+        if(length + chars > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, length + chars));
+        }
+    }
+
+    private void startCell() {
+        if(!firstCell) {
+            ensureCapacity(1);
+            buffer[length++] = delimiter;
+        }
+        firstCell = false;
+    }
+
+    private static char escaped(char c) {
+        switch (c) {
+            case '\\': return '\\';
+            case '\t': return 't';
+            case '\b': return 'b';
+            case '\n': return 'n';
+            case '\r': return 'r';
+            case '\f': return 'f';
+            default:   return 0;
+        }
+    }
+
+    private void appendEscaped(CharSequence cell, boolean quoted) {
+        // Every char takes at most two chars
+        ensureCapacity(cell.length() * 2);
+
+        for(int i=0; i<cell.length(); i++) {
+            final char c       = cell.charAt(i);
+            final char escaped = escaped(c);
+
+            if(escaped != 0) {
+                buffer[length++] = ESCAPE;
+                buffer[length++] = escaped;
+            } else {
+                if(quoted && c == quote) buffer[length++] = quote;
+                buffer[length++] = c;
+            }
+        }
+    }
+
+    private void appendDigits(long value) {
+        ensureCapacity(20);
+
+        // Digits are computed on the negative value, so that Long.MIN_VALUE is handled too
+        if(value < 0) buffer[length++] = '-';
+        else value = -value;
+
+        final int start = length;
+        do {
+            buffer[length++] = (char) ('0' - value % 10);
+            value /= 10;
+        } while(value != 0);
+
+        for(int i=start, j=length-1; i<j; i++, j--) {
+            final char c = buffer[i];
+            buffer[i] = buffer[j];
+            buffer[j] = c;
+        }
+    }
+
+    private void appendChars(CharSequence chars) {
+        ensureCapacity(chars.length());
+
+        if(chars instanceof String) {
+            ((String) chars).getChars(0, chars.length(), buffer, length);
+        } else if(chars instanceof StringBuilder) {
+            ((StringBuilder) chars).getChars(0, chars.length(), buffer, length);
+        } else {
+            for(int i=0; i<chars.length(); i++) {
+                buffer[length + i] = chars.charAt(i);
+            }
+        }
+        length += chars.length();
+    }
+
+    private void openNumber() {
+        startCell();
+        if(alwaysUseQuotes) {
+            ensureCapacity(1);
+            buffer[length++] = quote;
+        }
+    }
+
+    private void closeNumber() {
+        if(alwaysUseQuotes) {
+            ensureCapacity(1);
+            buffer[length++] = quote;
+        }
+    }
+
+
+    /**
+     * Discard the current content and start a new row
+     */
+    protected void clear() {
+        length    = 0;
+        firstCell = true;
+    }
+
+    /**
+     * Append a cell, quoting and escaping it if needed
+     *
+     * @param cell The content of the cell
+     */
+    protected void appendCell(CharSequence cell) {
+        startCell();
+
+        boolean hasDelimiter = false;
+        boolean hasQuote     = false;
+        boolean hasEscape    = false;
+        for(int i=0; i<cell.length(); i++) {
+            final char c = cell.charAt(i);
+
+            hasDelimiter |= c == delimiter;
+            hasQuote     |= c == quote;
+            hasEscape    |= escaped(c) != 0;
+        }
+
+        final boolean quoted = alwaysUseQuotes || hasDelimiter || (cell.length() > 0 && cell.charAt(0) == quote);
+
+        if(quoted) {
+            ensureCapacity(1);
+            buffer[length++] = quote;
+        }
+
+        if(hasEscape || (quoted && hasQuote)) {
+            appendEscaped(cell, quoted);
+        } else {
+            appendChars(cell);
+        }
+
+        if(quoted) {
+            ensureCapacity(1);
+            buffer[length++] = quote;
+        }
+    }
+
+    protected void appendInt(int value) {
+        appendLong(value);
+    }
+
+    protected void appendLong(long value) {
+        if(checkNumbers) {
+            number.setLength(0);
+            appendCell(number.append(value));
+            return;
+        }
+
+        openNumber();
+        appendDigits(value);
+        closeNumber();
+    }
+
+    protected void appendDouble(double value) {
+        number.setLength(0);
+        number.append(value);
+
+        if(checkNumbers) {
+            appendCell(number);
+            return;
+        }
+
+        openNumber();
+        appendChars(number);
+        closeNumber();
+    }
+
+    protected void appendBoolean(boolean value) {
+        appendCell(value ? "true" : "false");
+    }
+
+    /**
+     * Terminate the row with the line separator and write it
+     *
+     * @param writer The writer where the row is written
+     * @return The number of chars written
+     * @throws IOException If the row cannot be written
+     */
+    protected int writeRow(Writer writer) throws IOException {
+        ensureCapacity(lineSeparator.length);
+        System.arraycopy(lineSeparator, 0, buffer, length, lineSeparator.length);
+        length += lineSeparator.length;
+
+        final int written = length;
+        writer.write(buffer, 0, length);
+        clear();
+        return written;
+    }
+}
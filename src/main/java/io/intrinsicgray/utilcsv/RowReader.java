@@ -0,0 +1,84 @@
+package io.intrinsicgray.utilcsv;
+
+import java.util.function.BiConsumer;
+import java.util.function.ObjDoubleConsumer;
+import java.util.function.ObjIntConsumer;
+import java.util.function.ObjLongConsumer;
+
+/**
+ * Reflection-free accessor used by {@link CSVParser} to create and populate the objects of a class.
+ * Implementations are usually generated at compile time by the <i>utilcsv-processor</i> annotation
+ * processor and also registered as services in {@code META-INF/services/io.intrinsicgray.utilcsv.RowReader}.
+ *
+ * <p>When the destination class has a generated mapper, i.e. a public class named {@code <class>_CSVMapper} in the same package
+ * (nested classes use "_" instead of "$"), the parser creates it once and uses it instead of reflection. Fields for which {@link #setter(String, boolean)} returns null
+ * are still accessed reflectively.</p>
+ *
+ * <p>The fields of type int, long, double and boolean can also be written without boxing, through the
+ * primitive setters (e.g. {@link #intSetter(String, boolean)}). When a primitive setter is not available,
+ * the value is boxed and written through {@link #setter(String, boolean)}.</p>
+ *
+ * @param <T> The class of the objects
+ *
+ * @author Intrinsic gray (mdegiovanni97@gmail.com)
+ * @version 0.2.0
+ * @since 0.2.0
+ */
+public interface RowReader<T> {
+
+    /**
+     * @return The class handled by this reader
+     */
+    Class<T> type();
+
+    /**
+     * @return A new instance of the class, created with the no-args constructor
+     */
+    T newInstance();
+
+    /**
+     * @param field The name of a field annotated with {@link CSVColumn}
+     * @param fieldAccess If true, the field must be written directly instead of through its setter
+     * @return A function writing the (already converted) value on the object, or null if not available
+     */
+    BiConsumer<T, Object> setter(String field, boolean fieldAccess);
+
+    /**
+     * @param field The name of an int field annotated with {@link CSVColumn}
+     * @param fieldAccess If true, the field must be written directly instead of through its setter
+     * @return A function writing the value on the object without boxing, or null if not available
+     */
+    default ObjIntConsumer<T> intSetter(String field, boolean fieldAccess) { return null; }
+
+    /**
+     * @param field The name of a long field annotated with {@link CSVColumn}
+     * @param fieldAccess If true, the field must be written directly instead of through its setter
+     * @return A function writing the value on the object without boxing, or null if not available
+     */
+    default ObjLongConsumer<T> longSetter(String field, boolean fieldAccess) { return null; }
+
+    /**
+     * @param field The name of a double field annotated with {@link CSVColumn}
+     * @param fieldAccess If true, the field must be written directly instead of through its setter
+     * @return A function writing the value on the object without boxing, or null if not available
+     */
+    default ObjDoubleConsumer<T> doubleSetter(String field, boolean fieldAccess) { return null; }
+
+    /**
+     * @param field The name of a boolean field annotated with {@link CSVColumn}
+     * @param fieldAccess If true, the field must be written directly instead of through its setter
+     * @return A function writing the value on the object without boxing, or null if not available
+     */
+    default BooleanSetter<T> booleanSetter(String field, boolean fieldAccess) { return null; }
+
+
+    /**
+     * Setter of a boolean field, the counterpart of {@link ObjIntConsumer} for booleans
+     *
+     * @param <T> The class of the objects
+     */
+    @FunctionalInterface
+    interface BooleanSetter<T> {
+        void accept(T target, boolean value);
+    }
+}
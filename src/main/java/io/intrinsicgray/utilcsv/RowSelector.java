@@ -0,0 +1,153 @@
+package io.intrinsicgray.utilcsv;
+
+import io.intrinsicgray.utilcsv.exception.CSVCannotBeParsedException;
+import io.intrinsicgray.utilcsv.exception.ColumnNameNotPresentException;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * Selection of the rows read by {@link CSVRowIterator} and {@link CSVRecordIterator}: the filters, the skip,
+ * the sample interval and the limit of the parser, applied in this order as soon as a row is tokenized.
+ * Once the limit is reached the source is not read anymore.
+ *
+ * <p>A row too short to contain a filtered cell is handled with the {@link ErrorPolicy} of the parser:
+ * with {@link ErrorPolicy#FAIL_FAST} the parsing stops, otherwise the row does not match and the error
+ * is added to the {@link CSVErrorReport} (if any).</p>
+ *
+ * <p>The parser configuration is copied when the selector is created. Instances are not thread-safe.</p>
+ *
+ * @author Intrinsic gray (mdegiovanni97@gmail.com)
+ * @version 0.2.0
+ * @since 0.2.0
+ */
+class RowSelector {
+
+    private Predicate<String>[] filters       = newFilters(0);
+    private String[]            filterNames   = new String[0];
+    private int[]               filterIndexes = new int[0];
+
+    private final ErrorPolicy    policy;
+    private final CSVErrorReport errors;
+
+    private final int interval;
+    private long      toSkip;
+    private long      remaining;
+    private long      sampled;
+
+    /** The number of rows read from the source, the header excluded */
+    private long row;
+
+
+    /**
+     * @param parser The parser configuration. Its filters are applied only once mapped with {@link #filter(CSVParser, List, String)}
+     * @param errors The report of the errors, or null if they are not collected
+     */
+    protected RowSelector(CSVParser parser, CSVErrorReport errors) {
+        this.policy    = parser.getErrorPolicy();
+        this.errors    = errors;
+        this.toSkip    = parser.getSkip();
+        this.remaining = parser.getLimit();
+        this.interval  = parser.getSampleInterval();
+    }
+
+
+    // Private methods
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Predicate<String>[] newFilters(int size) {
+        return (Predicate<String>[]) new Predicate[size];
+    }
+
+    private boolean matches(CSVTokenizer tokenizer) throws CSVCannotBeParsedException {
+        for(int i=0; i<filters.length; i++) {
+            if(filterIndexes[i] >= tokenizer.cellCount()) {
+                final IndexOutOfBoundsException e = new IndexOutOfBoundsException("Cell "+filterIndexes[i]+" not present (cells: "+tokenizer.cellCount()+")");
+                if(policy == ErrorPolicy.FAIL_FAST) {
+                    throw new CSVCannotBeParsedException("Error during CSV parsing. The filtered column \""+filterNames[i]+"\" is not present on row "+(row - 1), e);
+                }
+
+                if(errors != null) errors.add(new CSVParseError(row - 1, filterNames[i], null, e));
+                return false;
+            }
+            if(!filters[i].test(tokenizer.cell(filterIndexes[i]))) return false;
+        }
+        return true;
+    }
+
+
+    /**
+     * Resolve the cell index of each filtered column
+     *
+     * @param parser The parser configuration
+     * @param names The name of each cell, or null if the cells have no name
+     * @param location Where the names come from, for the message of the exception (e.g. " in the header")
+     *
+     * @throws ColumnNameNotPresentException If a filtered column is not present in names
+     */
+    protected void filter(CSVParser parser, List<String> names, String location) throws ColumnNameNotPresentException {
+        this.filters       = newFilters(parser.filters.size());
+        this.filterNames   = new String[filters.length];
+        this.filterIndexes = new int[filters.length];
+
+        int i = 0;
+        for(Map.Entry<String, Predicate<String>> filter : parser.filters.entrySet()) {
+            final int index = names != null ? names.indexOf(filter.getKey()) : -1;
+            if(index < 0) {
+                throw new ColumnNameNotPresentException("The filtered column \""+filter.getKey()+"\" is not present"+location);
+            }
+
+            filters[i]       = filter.getValue();
+            filterNames[i]   = filter.getKey();
+            filterIndexes[i] = index;
+            i++;
+        }
+    }
+
+    /**
+     * Read the next row matching the filters, the skip, the sample interval and the limit
+     *
+     * @param source The source of the rows
+     * @param tokenizer The tokenizer that will contain the cells of the row
+     * @return True if a row has been selected, false if the rows are over or the limit is reached
+     *
+     * @throws IOException If the source cannot be read
+     * @throws CSVCannotBeParsedException If a row is too short to contain a filtered cell, with {@link ErrorPolicy#FAIL_FAST}
+     */
+    protected boolean next(RowSource source, CSVTokenizer tokenizer) throws IOException, CSVCannotBeParsedException {
+        if(remaining == 0) return false;
+
+        while(source.nextRow(tokenizer)) {
+            row++;
+            if(!matches(tokenizer)) continue;
+
+            if(toSkip > 0) {
+                toSkip--;
+                continue;
+            }
+            if(sampled++ % interval != 0) continue;
+
+            remaining--;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Give back the last selected row to the limit (e.g. when the row is skipped because it cannot be bound)
+     */
+    protected void unselect() {
+        remaining++;
+    }
+
+    /**
+     * @return The cell index of each filtered column
+     */
+    protected int[] getFilterIndexes() { return filterIndexes; }
+
+    /**
+     * @return The number of rows read from the source, the header excluded
+     */
+    protected long getRowCount() { return row; }
+}
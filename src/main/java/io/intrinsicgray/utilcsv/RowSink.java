@@ -0,0 +1,44 @@
+package io.intrinsicgray.utilcsv;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Push-style destination of the objects to format, returned by {@link CSVFormatter#sink(Class, java.io.Writer)}.
+ * Each object is formatted and written as soon as it is received, so the rows never need to be collected
+ * in memory (e.g. when exporting the rows of a database cursor).
+ *
+ * <p>Usage example:</p>
+ * <pre>
+ * try(RowSink&lt;Person&gt; sink = csvFormatter.sink(Person.class, file)) {
+ *     while(cursor.next()) {
+ *         sink.write(toPerson(cursor));
+ *     }
+ * }
+ * </pre>
+ *
+ * @param <T> The class of the objects
+ *
+ * @author Intrinsic gray (mdegiovanni97@gmail.com)
+ * @version 0.2.0
+ * @since 0.2.0
+ */
+public interface RowSink<T> extends Closeable {
+
+    /**
+     * Format an object and write it as a new row
+     *
+     * @param row The object to write
+     * @throws IOException If the row cannot be written
+     */
+    void write(T row) throws IOException;
+
+    /**
+     * Flush the rows written so far. The underlying writer is closed only if it was opened by the formatter
+     *
+     * @throws IOException If the rows cannot be flushed
+     */
+    @Override
+    void close() throws IOException;
+
+}
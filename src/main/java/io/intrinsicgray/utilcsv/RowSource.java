@@ -0,0 +1,51 @@
+package io.intrinsicgray.utilcsv;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Source of the rows read by {@link CSVRowIterator}. Each implementation reads the next
+ * non-blank row from its input and hands it to a {@link CSVTokenizer}, so the iterator
+ * does not depend on how the CSV file is read or decoded.
+ *
+ * @author Intrinsic gray (mdegiovanni97@gmail.com)
+ * @version 0.2.0
+ * @since 0.2.0
+ */
+interface RowSource extends Closeable {
+
+    /**
+     * Read the next non-blank row and tokenize it
+     *
+     * @param tokenizer The tokenizer that will contain the cells of the row
+     * @return True if a row has been read, false if the input is over
+     *
+     * @throws IOException If the input cannot be read
+     */
+    boolean nextRow(CSVTokenizer tokenizer) throws IOException;
+
+    /**
+     * @return The number of bytes read so far from the file, used by the metrics. 0 if the bytes are not known
+     * (e.g. for a reader provided by the user)
+     */
+    default long bytesRead() { return 0; }
+
+    /**
+     * @return The number of chars read so far, used by the metrics. 0 for the sources reading bytes
+     */
+    default long charsRead() { return 0; }
+
+    /**
+     * Notify the source of the cells needed by the reader of the rows, before the first row (the header excluded) is read.
+     * A source tokenizing the rows with its own tokenizer (e.g. on another thread) can then skip the other cells
+     *
+     * @param projection For each cell index, true if the cell is needed (see {@link CSVTokenizer#project(boolean[])})
+     */
+    default void project(boolean[] projection) { }
+
+    /**
+     * @return The time spent waiting for the input so far, in nanoseconds, used by the metrics
+     */
+    default long ioNanos() { return 0; }
+
+}
@@ -0,0 +1,70 @@
+package io.intrinsicgray.utilcsv;
+
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
+
+/**
+ * Reflection-free accessor used by {@link CSVFormatter} to read the values of the objects of a class.
+ * Implementations are usually generated at compile time by the <i>utilcsv-processor</i> annotation
+ * processor and also registered as services in {@code META-INF/services/io.intrinsicgray.utilcsv.RowWriter}.
+ *
+ * <p>When the formatted class has a generated mapper, i.e. a public class named {@code <class>_CSVMapper} in the same package
+ * (nested classes use "_" instead of "$"), the formatter creates it once and uses it instead of reflection. Fields for which {@link #getter(String, boolean)} returns null
+ * are still accessed reflectively.</p>
+ *
+ * <p>The fields of type int, long, double and boolean can also be read without boxing, through the
+ * primitive getters (e.g. {@link #intGetter(String, boolean)}). When a primitive getter is not available,
+ * the value is read through {@link #getter(String, boolean)} and unboxed.</p>
+ *
+ * @param <T> The class of the objects
+ *
+ * @author Intrinsic gray (mdegiovanni97@gmail.com)
+ * @version 0.2.0
+ * @since 0.2.0
+ */
+public interface RowWriter<T> {
+
+    /**
+     * @return The class handled by this writer
+     */
+    Class<T> type();
+
+    /**
+     * @param field The name of a field annotated with {@link CSVColumn}
+     * @param fieldAccess If true, the field must be read directly instead of through its getter
+     * @return A function reading the value from the object, or null if not available
+     */
+    Function<T, Object> getter(String field, boolean fieldAccess);
+
+    /**
+     * @param field The name of an int field annotated with {@link CSVColumn}
+     * @param fieldAccess If true, the field must be read directly instead of through its getter
+     * @return A function reading the value from the object without boxing, or null if not available
+     */
+    default ToIntFunction<T> intGetter(String field, boolean fieldAccess) { return null; }
+
+    /**
+     * @param field The name of a long field annotated with {@link CSVColumn}
+     * @param fieldAccess If true, the field must be read directly instead of through its getter
+     * @return A function reading the value from the object without boxing, or null if not available
+     */
+    default ToLongFunction<T> longGetter(String field, boolean fieldAccess) { return null; }
+
+    /**
+     * @param field The name of a double field annotated with {@link CSVColumn}
+     * @param fieldAccess If true, the field must be read directly instead of through its getter
+     * @return A function reading the value from the object without boxing, or null if not available
+     */
+    default ToDoubleFunction<T> doubleGetter(String field, boolean fieldAccess) { return null; }
+
+    /**
+     * @param field The name of a boolean field annotated with {@link CSVColumn}
+     * @param fieldAccess If true, the field must be read directly instead of through its getter
+     * @return A function reading the value from the object without boxing, or null if not available
+     */
+    default Predicate<T> booleanGetter(String field, boolean fieldAccess) { return null; }
+
+}
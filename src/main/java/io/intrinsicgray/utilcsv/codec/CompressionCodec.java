@@ -0,0 +1,52 @@
+package io.intrinsicgray.utilcsv.codec;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Compression format of CSV files, used by the {@link java.nio.file.Path} based methods of
+ * {@link io.intrinsicgray.utilcsv.CSVParser} and {@link io.intrinsicgray.utilcsv.CSVFormatter}.
+ * A compressed file is recognized by its first bytes when it is read, and by its extension when it is written.
+ *
+ * <p>Codecs can be registered on a parser or a formatter, or installed as a service provider
+ * (listed in {@code META-INF/services/io.intrinsicgray.utilcsv.codec.CompressionCodec}), e.g. for zstd:</p>
+ * <pre>
+ * CSVParser parser = new CSVParser().codec(new ZstdCodec());
+ * </pre>
+ *
+ * <p>Codecs are shared between threads, so they must be thread-safe.</p>
+ *
+ * @author Intrinsic gray (mdegiovanni97@gmail.com)
+ * @version 0.2.0
+ * @since 0.2.0
+ */
+public interface CompressionCodec {
+
+    /**
+     * @return The extension of the compressed files, including the dot (e.g. ".gz")
+     */
+    String getExtension();
+
+    /**
+     * @param header The first bytes of a file
+     * @param length The number of bytes available, up to 16 (less if the file is shorter)
+     * @return True if the file is compressed with this codec
+     */
+    boolean isCompressed(byte[] header, int length);
+
+    /**
+     * @param in The compressed stream
+     * @return A stream reading the decompressed content of in, closing in when it is closed
+     * @throws IOException If the stream cannot be read
+     */
+    InputStream decompress(InputStream in) throws IOException;
+
+    /**
+     * @param out The destination of the compressed content
+     * @return A stream compressing what is written into out, closing out when it is closed
+     * @throws IOException If the stream cannot be written
+     */
+    OutputStream compress(OutputStream out) throws IOException;
+
+}
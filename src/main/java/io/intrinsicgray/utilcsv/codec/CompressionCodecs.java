@@ -0,0 +1,103 @@
+package io.intrinsicgray.utilcsv.codec;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.ServiceLoader;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Built-in {@link CompressionCodec}s and lookup of the installed ones.
+ *
+ * @author Intrinsic gray (mdegiovanni97@gmail.com)
+ * @version 0.2.0
+ * @since 0.2.0
+ */
+public final class CompressionCodecs {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * GZIP format, through {@link java.util.zip}. Concatenated members are read as a single stream
+     */
+    public static final CompressionCodec GZIP = new CompressionCodec() {
+        @Override
+        public String getExtension() { return ".gz"; }
+
+        @Override
+        public boolean isCompressed(byte[] header, int length) {
+            return length >= 2 && header[0] == (byte) 0x1F && header[1] == (byte) 0x8B;
+        }
+
+        @Override
+        public InputStream decompress(InputStream in) throws IOException {
+            return new GZIPInputStream(in, BUFFER_SIZE);
+        }
+
+        @Override
+        public OutputStream compress(OutputStream out) throws IOException {
+            return new GZIPOutputStream(out, BUFFER_SIZE);
+        }
+
+        @Override
+        public String toString() { return "GZIP"; }
+    };
+
+
+    private static final List<CompressionCodec> INSTALLED = load();
+
+
+    private CompressionCodecs() { }
+
+
+    // Private methods
+    private static List<CompressionCodec> load() {
+        final List<CompressionCodec> codecs = new ArrayList<>();
+        codecs.add(GZIP);
+
+        for(CompressionCodec codec : ServiceLoader.load(CompressionCodec.class, CompressionCodecs.class.getClassLoader())) {
+            codecs.add(codec);
+        }
+        return Collections.unmodifiableList(codecs);
+    }
+
+
+    /**
+     * @return The built-in codecs followed by the ones installed as service providers
+     */
+    public static List<CompressionCodec> installed() { return INSTALLED; }
+
+    /**
+     * @param codecs The codecs to look into
+     * @param header The first bytes of a file
+     * @param length The number of bytes available
+     * @return The first codec recognizing the bytes, or null if there is none
+     */
+    public static CompressionCodec byContent(List<CompressionCodec> codecs, byte[] header, int length) {
+        for(CompressionCodec codec : codecs) {
+            if(codec.isCompressed(header, length)) return codec;
+        }
+        return null;
+    }
+
+    /**
+     * @param codecs The codecs to look into
+     * @param path A file
+     * @return The first codec whose extension matches the name of the file, or null if there is none
+     */
+    public static CompressionCodec byExtension(List<CompressionCodec> codecs, Path path) {
+        final Path fileName = path.getFileName();
+        if(fileName == null) return null;
+
+        final String name = fileName.toString();
+        for(CompressionCodec codec : codecs) {
+            if(name.regionMatches(true, name.length() - codec.getExtension().length(), codec.getExtension(), 0, codec.getExtension().length())) return codec;
+        }
+        return null;
+    }
+}
@@ -0,0 +1,31 @@
+package io.intrinsicgray.utilcsv.converter;
+
+import io.intrinsicgray.utilcsv.exception.CellCannotBeParsedException;
+
+/**
+ * {@link CellConverter} specialized for the primitive <i>boolean</i> type.
+ * Fields of type <i>boolean</i> are populated through {@link #parseBoolean(char[], int, int)}, without boxing the value.
+ *
+ * @author Intrinsic gray (mdegiovanni97@gmail.com)
+ * @version 0.2.0
+ * @since 0.2.0
+ */
+@FunctionalInterface
+public interface BooleanCellConverter extends CellConverter<Boolean> {
+
+    /**
+     * @param buffer The buffer containing the cell
+     * @param offset The index of the first char of the cell
+     * @param length The number of chars of the cell
+     * @return The converted value
+     *
+     * @throws CellCannotBeParsedException If the cell cannot be converted
+     */
+    boolean parseBoolean(char[] buffer, int offset, int length) throws CellCannotBeParsedException;
+
+    @Override
+    default Boolean parse(char[] buffer, int offset, int length) throws CellCannotBeParsedException {
+        return parseBoolean(buffer, offset, length);
+    }
+
+}
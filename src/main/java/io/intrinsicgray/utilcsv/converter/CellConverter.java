@@ -0,0 +1,46 @@
+package io.intrinsicgray.utilcsv.converter;
+
+import io.intrinsicgray.utilcsv.exception.CellCannotBeParsedException;
+
+/**
+ * Converter turning the content of a CSV cell into a value of the field type, and vice versa.
+ * The cell is passed as a window of a shared char buffer, so converters that do not need
+ * a {@link String} (e.g. numeric ones) can parse the value without allocating.
+ *
+ * <p>Custom converters can be registered on {@link io.intrinsicgray.utilcsv.CSVParser} and
+ * {@link io.intrinsicgray.utilcsv.CSVFormatter} for any type:</p>
+ * <pre>
+ * CSVParser parser = new CSVParser()
+ *         .converter(Money.class, (buffer, offset, length) -&gt; Money.parse(new String(buffer, offset, length)));
+ * </pre>
+ *
+ * <p>The buffer is reused for the next cells and rows: converters must not keep a reference to it.</p>
+ *
+ * @param <T> The class of the converted values
+ *
+ * @author Intrinsic gray (mdegiovanni97@gmail.com)
+ * @version 0.2.0
+ * @since 0.2.0
+ */
+@FunctionalInterface
+public interface CellConverter<T> {
+
+    /**
+     * @param buffer The buffer containing the cell
+     * @param offset The index of the first char of the cell
+     * @param length The number of chars of the cell
+     * @return The converted value
+     *
+     * @throws CellCannotBeParsedException If the cell cannot be converted
+     */
+    T parse(char[] buffer, int offset, int length) throws CellCannotBeParsedException;
+
+    /**
+     * @param value The value to format, never null
+     * @return The content of the cell. By default, the result of {@link Object#toString()}
+     */
+    default String format(T value) {
+        return value.toString();
+    }
+
+}
@@ -0,0 +1,537 @@
+package io.intrinsicgray.utilcsv.converter;
+
+import io.intrinsicgray.utilcsv.exception.CellCannotBeParsedException;
+
+import java.lang.reflect.Array;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.CharBuffer;
+import java.time.*;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.TemporalAccessor;
+import java.time.temporal.TemporalQuery;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Built-in {@link CellConverter}s. The supported types are:
+ * <ul>
+ *   <li>{@link String} and {@code char}</li>
+ *   <li>{@code int}, {@code long}, {@code short}, {@code byte}, {@code double}, {@code float},
+ *       {@code boolean} and their wrappers</li>
+ *   <li>{@link BigDecimal} and {@link BigInteger}</li>
+ *   <li>{@link LocalDate}, {@link LocalDateTime}, {@link LocalTime}, {@link OffsetDateTime},
+ *       {@link ZonedDateTime} and {@link Instant}, in ISO-8601 format or with a custom pattern</li>
+ *   <li>{@link UUID}</li>
+ *   <li>Enums</li>
+ * </ul>
+ *
+ * <p>Numbers are parsed directly from the char buffer, ignoring leading and trailing whitespaces,
+ * without creating intermediate strings.</p>
+ *
+ * @author Intrinsic gray (mdegiovanni97@gmail.com)
+ * @version 0.2.0
+ * @since 0.2.0
+ */
+public final class CellConverters {
+
+    public static final IntCellConverter     INT     = CellConverters::parseInt;
+    public static final LongCellConverter    LONG    = CellConverters::parseLong;
+    public static final DoubleCellConverter  DOUBLE  = CellConverters::parseDouble;
+    public static final BooleanCellConverter BOOLEAN = CellConverters::parseBoolean;
+    public static final CellConverter<String> STRING = String::new;
+
+    public static final CellConverter<Short> SHORT = (buffer, offset, length) -> (short) parseLong(buffer, offset, length, Short.MIN_VALUE, Short.MAX_VALUE, "short");
+    public static final CellConverter<Byte>  BYTE  = (buffer, offset, length) -> (byte) parseLong(buffer, offset, length, Byte.MIN_VALUE, Byte.MAX_VALUE, "byte");
+    public static final CellConverter<Float> FLOAT = CellConverters::parseFloat;
+
+    public static final CellConverter<Character> CHAR = (buffer, offset, length) -> {
+        if(length != 1) throw cannotBeParsed("char", buffer, offset, length);
+        return buffer[offset];
+    };
+
+    public static final CellConverter<BigDecimal> BIG_DECIMAL = CellConverters::parseBigDecimal;
+    public static final CellConverter<BigInteger> BIG_INTEGER = CellConverters::parseBigInteger;
+    public static final CellConverter<UUID>       UUID        = CellConverters::parseUUID;
+
+    public static final CellConverter<LocalDate>      LOCAL_DATE       = new TemporalConverter<>(DateTimeFormatter.ISO_LOCAL_DATE, LocalDate::from, LocalDate.class, true);
+    public static final CellConverter<LocalDateTime>  LOCAL_DATE_TIME  = new TemporalConverter<>(DateTimeFormatter.ISO_LOCAL_DATE_TIME, LocalDateTime::from, LocalDateTime.class, true);
+    public static final CellConverter<LocalTime>      LOCAL_TIME       = new TemporalConverter<>(DateTimeFormatter.ISO_LOCAL_TIME, LocalTime::from, LocalTime.class, true);
+    public static final CellConverter<OffsetDateTime> OFFSET_DATE_TIME = new TemporalConverter<>(DateTimeFormatter.ISO_OFFSET_DATE_TIME, OffsetDateTime::from, OffsetDateTime.class, true);
+    public static final CellConverter<ZonedDateTime>  ZONED_DATE_TIME  = new TemporalConverter<>(DateTimeFormatter.ISO_ZONED_DATE_TIME, ZonedDateTime::from, ZonedDateTime.class, true);
+    public static final CellConverter<Instant>        INSTANT          = new TemporalConverter<>(DateTimeFormatter.ISO_INSTANT, Instant::from, Instant.class, true);
+
+    private static final Map<Class<?>, CellConverter<?>> DEFAULTS = new HashMap<>();
+    private static final Map<Class<?>, TemporalQuery<?>> TEMPORAL_QUERIES = new HashMap<>();
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static final ClassValue<CellConverter<?>> ENUMS = new ClassValue<>() {
+        @Override
+        protected CellConverter<?> computeValue(Class<?> type) {
+            return new EnumConverter(type);
+        }
+    };
+
+    /** Compiled patterns, shared by every column using the same {@link io.intrinsicgray.utilcsv.CSVColumn#format()} */
+    private static final Map<String, DateTimeFormatter> FORMATTERS = new ConcurrentHashMap<>();
+
+    static {
+        DEFAULTS.put(String.class, STRING);
+        DEFAULTS.put(int.class, INT);          DEFAULTS.put(Integer.class, INT);
+        DEFAULTS.put(long.class, LONG);        DEFAULTS.put(Long.class, LONG);
+        DEFAULTS.put(short.class, SHORT);      DEFAULTS.put(Short.class, SHORT);
+        DEFAULTS.put(byte.class, BYTE);        DEFAULTS.put(Byte.class, BYTE);
+        DEFAULTS.put(double.class, DOUBLE);    DEFAULTS.put(Double.class, DOUBLE);
+        DEFAULTS.put(float.class, FLOAT);      DEFAULTS.put(Float.class, FLOAT);
+        DEFAULTS.put(boolean.class, BOOLEAN);  DEFAULTS.put(Boolean.class, BOOLEAN);
+        DEFAULTS.put(char.class, CHAR);        DEFAULTS.put(Character.class, CHAR);
+        DEFAULTS.put(BigDecimal.class, BIG_DECIMAL);
+        DEFAULTS.put(BigInteger.class, BIG_INTEGER);
+        DEFAULTS.put(UUID.class, UUID);
+        DEFAULTS.put(LocalDate.class, LOCAL_DATE);
+        DEFAULTS.put(LocalDateTime.class, LOCAL_DATE_TIME);
+        DEFAULTS.put(LocalTime.class, LOCAL_TIME);
+        DEFAULTS.put(OffsetDateTime.class, OFFSET_DATE_TIME);
+        DEFAULTS.put(ZonedDateTime.class, ZONED_DATE_TIME);
+        DEFAULTS.put(Instant.class, INSTANT);
+
+        TEMPORAL_QUERIES.put(LocalDate.class, LocalDate::from);
+        TEMPORAL_QUERIES.put(LocalDateTime.class, LocalDateTime::from);
+        TEMPORAL_QUERIES.put(LocalTime.class, LocalTime::from);
+        TEMPORAL_QUERIES.put(OffsetDateTime.class, OffsetDateTime::from);
+        TEMPORAL_QUERIES.put(ZonedDateTime.class, ZonedDateTime::from);
+        TEMPORAL_QUERIES.put(Instant.class, Instant::from);
+    }
+
+    /** Exact powers of ten, used by the fast path of {@link #parseDouble(char[], int, int)} */
+    private static final double[] POWERS_OF_TEN = {
+            1e0,  1e1,  1e2,  1e3,  1e4,  1e5,  1e6,  1e7,  1e8,  1e9,  1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    /** Max number of significant digits represented exactly by a double mantissa */
+    private static final int MAX_EXACT_DIGITS = 15;
+
+
+    private CellConverters() { }
+
+
+    // Private methods
+    private static CellCannotBeParsedException cannotBeParsed(String type, char[] buffer, int offset, int length) {
+        return new CellCannotBeParsedException("Cell cannot be parsed as "+type+" (value: "+new String(buffer, offset, length)+")");
+    }
+
+    private static int hash(char[] buffer, int offset, int length) {
+        int hash = 0;
+        for(int i=offset; i<offset+length; i++) {
+            hash = 31 * hash + buffer[i];
+        }
+        return hash ^ (hash >>> 16);
+    }
+
+    private static boolean matches(char[] value, char[] buffer, int offset, int length) {
+        if(value.length != length) return false;
+        for(int i=0; i<length; i++) {
+            if(value[i] != buffer[offset + i]) return false;
+        }
+        return true;
+    }
+
+    private static boolean matches(String value, char[] buffer, int offset, int length) {
+        if(value.length() != length) return false;
+        for(int i=0; i<length; i++) {
+            if(value.charAt(i) != buffer[offset + i]) return false;
+        }
+        return true;
+    }
+
+    private static String trimmed(char[] buffer, int offset, int length) {
+        final int end = trimEnd(buffer, offset, offset + length);
+        final int start = trimStart(buffer, offset, end);
+        return new String(buffer, start, end - start);
+    }
+
+    private static int trimStart(char[] buffer, int offset, int end) {
+        while(offset < end && buffer[offset] <= ' ') offset++;
+        return offset;
+    }
+
+    private static int trimEnd(char[] buffer, int offset, int end) {
+        while(end > offset && buffer[end - 1] <= ' ') end--;
+        return end;
+    }
+
+    private static long parseLong(char[] buffer, int offset, int length, long min, long max, String type) throws CellCannotBeParsedException {
+        final int end = trimEnd(buffer, offset, offset + length);
+        int i = trimStart(buffer, offset, end);
+
+        if(i == end) throw cannotBeParsed(type, buffer, offset, length);
+
+        final boolean negative = buffer[i] == '-';
+        if(negative || buffer[i] == '+') i++;
+        if(i == end) throw cannotBeParsed(type, buffer, offset, length);
+
+        // Accumulate negatively, so that the min value does not overflow
+        final long limit   = negative ? min : -max;
+        final long multMin = limit / 10;
+        long result = 0;
+        for(; i<end; i++) {
+            final int digit = buffer[i] - '0';
+            if(digit < 0 || digit > 9) throw cannotBeParsed(type, buffer, offset, length);
+
+            if(result < multMin) throw cannotBeParsed(type, buffer, offset, length);
+            result *= 10;
+            if(result < limit + digit) throw cannotBeParsed(type, buffer, offset, length);
+            result -= digit;
+        }
+
+        return negative ? result : -result;
+    }
+
+
+    /**
+     * Parse an int, with the same syntax accepted by {@link Integer#parseInt(String)}
+     *
+     * @param buffer The buffer containing the cell
+     * @param offset The index of the first char of the cell
+     * @param length The number of chars of the cell
+     * @return The parsed value
+     *
+     * @throws CellCannotBeParsedException If the cell is not a valid int
+     */
+    public static int parseInt(char[] buffer, int offset, int length) throws CellCannotBeParsedException {
+        return (int) parseLong(buffer, offset, length, Integer.MIN_VALUE, Integer.MAX_VALUE, "int");
+    }
+
+    /**
+     * Parse a long, with the same syntax accepted by {@link Long#parseLong(String)}
+     *
+     * @param buffer The buffer containing the cell
+     * @param offset The index of the first char of the cell
+     * @param length The number of chars of the cell
+     * @return The parsed value
+     *
+     * @throws CellCannotBeParsedException If the cell is not a valid long
+     */
+    public static long parseLong(char[] buffer, int offset, int length) throws CellCannotBeParsedException {
+        return parseLong(buffer, offset, length, Long.MIN_VALUE, Long.MAX_VALUE, "long");
+    }
+
+    /**
+     * Parse a double, with the same syntax accepted by {@link Double#parseDouble(String)}.
+     * Plain decimal numbers with up to 15 significant digits and a small exponent are computed
+     * exactly from the chars; every other value falls back to {@link Double#parseDouble(String)}
+     *
+     * @param buffer The buffer containing the cell
+     * @param offset The index of the first char of the cell
+     * @param length The number of chars of the cell
+     * @return The parsed value
+     *
+     * @throws CellCannotBeParsedException If the cell is not a valid double
+     */
+    public static double parseDouble(char[] buffer, int offset, int length) throws CellCannotBeParsedException {
+        final int end = trimEnd(buffer, offset, offset + length);
+        int i = trimStart(buffer, offset, end);
+
+        final boolean negative = i < end && buffer[i] == '-';
+        if(i < end && (negative || buffer[i] == '+')) i++;
+
+        long mantissa = 0;
+        int  digits   = 0;
+        int  exponent = 0;
+        boolean anyDigit = false;
+        boolean dot      = false;
+
+        for(; i<end; i++) {
+            final char c = buffer[i];
+
+            if(c >= '0' && c <= '9') {
+                anyDigit = true;
+                if(mantissa != 0 || c != '0') digits++;
+                if(digits > MAX_EXACT_DIGITS) return parseDoubleSlow(buffer, offset, length);
+
+                mantissa = mantissa * 10 + (c - '0');
+                if(dot) exponent--;
+            } else if(c == '.' && !dot) {
+                dot = true;
+            } else {
+                break;
+            }
+        }
+
+        if(i < end && anyDigit && (buffer[i] == 'e' || buffer[i] == 'E')) {
+            i++;
+            final boolean negativeExponent = i < end && buffer[i] == '-';
+            if(i < end && (negativeExponent || buffer[i] == '+')) i++;
+
+            int explicitExponent = 0;
+            final int exponentStart = i;
+            for(; i<end && buffer[i] >= '0' && buffer[i] <= '9' && explicitExponent < 1000; i++) {
+                explicitExponent = explicitExponent * 10 + (buffer[i] - '0');
+            }
+            if(i == exponentStart) return parseDoubleSlow(buffer, offset, length);
+
+            exponent += negativeExponent ? -explicitExponent : explicitExponent;
+        }
+
+        if(i != end || !anyDigit || exponent < -22 || exponent > 22) {
+            return parseDoubleSlow(buffer, offset, length);
+        }
+
+        final double value = exponent < 0 ? mantissa / POWERS_OF_TEN[-exponent] : mantissa * POWERS_OF_TEN[exponent];
+        return negative ? -value : value;
+    }
+
+    private static double parseDoubleSlow(char[] buffer, int offset, int length) throws CellCannotBeParsedException {
+        try {
+            return Double.parseDouble(new String(buffer, offset, length));
+        } catch (NumberFormatException e) {
+            throw cannotBeParsed("double", buffer, offset, length);
+        }
+    }
+
+    private static float parseFloat(char[] buffer, int offset, int length) throws CellCannotBeParsedException {
+        try {
+            return Float.parseFloat(new String(buffer, offset, length));
+        } catch (NumberFormatException e) {
+            throw cannotBeParsed("float", buffer, offset, length);
+        }
+    }
+
+    private static BigDecimal parseBigDecimal(char[] buffer, int offset, int length) throws CellCannotBeParsedException {
+        final int end   = trimEnd(buffer, offset, offset + length);
+        final int start = trimStart(buffer, offset, end);
+        try {
+            return new BigDecimal(buffer, start, end - start);
+        } catch (NumberFormatException e) {
+            throw cannotBeParsed("BigDecimal", buffer, offset, length);
+        }
+    }
+
+    private static BigInteger parseBigInteger(char[] buffer, int offset, int length) throws CellCannotBeParsedException {
+        try {
+            return new BigInteger(trimmed(buffer, offset, length));
+        } catch (NumberFormatException e) {
+            throw cannotBeParsed("BigInteger", buffer, offset, length);
+        }
+    }
+
+    private static int hexDigit(char c) {
+        if(c >= '0' && c <= '9') return c - '0';
+        if(c >= 'a' && c <= 'f') return c - 'a' + 10;
+        if(c >= 'A' && c <= 'F') return c - 'A' + 10;
+        return -1;
+    }
+
+    /**
+     * @return The bits of the hex digits in [start, end), or -1 if a char is not a hex digit (at most 15 digits)
+     */
+    private static long parseHex(char[] buffer, int start, int end) {
+        long bits = 0;
+        for(int i=start; i<end; i++) {
+            final int digit = hexDigit(buffer[i]);
+            if(digit < 0) return -1;
+            bits = bits << 4 | digit;
+        }
+        return bits;
+    }
+
+    private static UUID parseUUID(char[] buffer, int offset, int length) throws CellCannotBeParsedException {
+        final int end   = trimEnd(buffer, offset, offset + length);
+        final int start = trimStart(buffer, offset, end);
+
+        // The canonical 8-4-4-4-12 form is decoded from the chars, without creating a string
+        if(end - start == 36 && buffer[start + 8] == '-' && buffer[start + 13] == '-' && buffer[start + 18] == '-' && buffer[start + 23] == '-') {
+            final long group1 = parseHex(buffer, start, start + 8);
+            final long group2 = parseHex(buffer, start + 9, start + 13);
+            final long group3 = parseHex(buffer, start + 14, start + 18);
+            final long group4 = parseHex(buffer, start + 19, start + 23);
+            final long group5 = parseHex(buffer, start + 24, start + 36);
+
+            if((group1 | group2 | group3 | group4 | group5) >= 0) {
+                return new UUID(group1 << 32 | group2 << 16 | group3, group4 << 48 | group5);
+            }
+            throw cannotBeParsed("UUID", buffer, offset, length);
+        }
+
+        try {
+            return java.util.UUID.fromString(trimmed(buffer, offset, length));
+        } catch (IllegalArgumentException e) {
+            throw cannotBeParsed("UUID", buffer, offset, length);
+        }
+    }
+
+    /**
+     * Parse a boolean, with the same rules of {@link Boolean#parseBoolean(String)}:
+     * the result is true only if the cell is equal, ignoring case, to <i>"true"</i>
+     *
+     * @param buffer The buffer containing the cell
+     * @param offset The index of the first char of the cell
+     * @param length The number of chars of the cell
+     * @return The parsed value
+     */
+    public static boolean parseBoolean(char[] buffer, int offset, int length) {
+        return length == 4
+                && (buffer[offset]     | 0x20) == 't'
+                && (buffer[offset + 1] | 0x20) == 'r'
+                && (buffer[offset + 2] | 0x20) == 'u'
+                && (buffer[offset + 3] | 0x20) == 'e';
+    }
+
+    /**
+     * @param type The class of the field
+     * @return The built-in converter of the class, or null if the class is not supported
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public static <T> CellConverter<T> forType(Class<T> type) {
+        if(type.isEnum()) {
+            return (CellConverter<T>) ENUMS.get(type);
+        }
+        return (CellConverter<T>) DEFAULTS.get(type);
+    }
+
+    /**
+     * Create a string converter that returns the same instance for repeated cells, useful for
+     * low-cardinality columns (e.g. countries, statuses, currencies) of big files.
+     * The returned converter keeps its dictionary between calls and is not thread-safe,
+     * so a new one should be created for every parsing.
+     *
+     * @param maxSize The maximum number of distinct strings kept in the dictionary
+     * @return A new string converter with an empty dictionary
+     *
+     * @throws IllegalArgumentException If maxSize is negative
+     */
+    public static CellConverter<String> dictionary(int maxSize) throws IllegalArgumentException {
+        if(maxSize < 0) throw new IllegalArgumentException("maxSize cannot be negative");
+        return new DictionaryConverter(maxSize);
+    }
+
+    /**
+     * @param type The class of the field, one of the {@code java.time} classes supported by default
+     * @param pattern A {@link DateTimeFormatter} pattern
+     * @return A converter parsing and formatting the cells with the pattern, or null if the class is not supported
+     *
+     * @throws IllegalArgumentException If the pattern is invalid
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> CellConverter<T> ofPattern(Class<T> type, String pattern) throws IllegalArgumentException {
+        final TemporalQuery<T> query = (TemporalQuery<T>) TEMPORAL_QUERIES.get(type);
+        if(query == null) return null;
+
+        return new TemporalConverter<>(FORMATTERS.computeIfAbsent(pattern, DateTimeFormatter::ofPattern), query, type, false);
+    }
+
+
+    private static final class TemporalConverter<T> implements CellConverter<T> {
+        private final DateTimeFormatter formatter;
+        private final TemporalQuery<T>  query;
+        private final Class<T>          type;
+        private final boolean           iso;
+
+        private TemporalConverter(DateTimeFormatter formatter, TemporalQuery<T> query, Class<T> type, boolean iso) {
+            this.formatter = formatter;
+            this.query     = query;
+            this.type      = type;
+            this.iso       = iso;
+        }
+
+        @Override
+        public T parse(char[] buffer, int offset, int length) throws CellCannotBeParsedException {
+            try {
+                return formatter.parse(CharBuffer.wrap(buffer, offset, length), query);
+            } catch (DateTimeParseException e) {
+                throw new CellCannotBeParsedException("Cell cannot be parsed as "+type.getSimpleName()+" (value: "+new String(buffer, offset, length)+")", e);
+            }
+        }
+
+        @Override
+        public String format(T value) {
+            // ISO values keep the format of toString(), e.g. without seconds when they are zero
+            return iso ? value.toString() : formatter.format((TemporalAccessor) value);
+        }
+    }
+
+    /**
+     * Resolves the constants from an open-addressing table keyed by the hash of the cell chars,
+     * so that no string is created for the cells with a valid value.
+     */
+    private static final class EnumConverter<E extends Enum<E>> implements CellConverter<E> {
+        private final Class<E> type;
+        private final E[]      table;
+        private final char[][] names;
+        private final int      mask;
+
+        @SuppressWarnings("unchecked")
+        private EnumConverter(Class<E> type) {
+            final E[] constants = type.getEnumConstants();
+            final int size      = Integer.highestOneBit(Math.max(constants.length, 1) * 2 - 1) << 1;
+
+            this.type  = type;
+            this.table = (E[]) Array.newInstance(type, size);
+            this.names = new char[size][];
+            this.mask  = size - 1;
+
+            for(E constant : constants) {
+                final char[] name = constant.name().toCharArray();
+
+                int index = hash(name, 0, name.length) & mask;
+                while(table[index] != null) index = (index + 1) & mask;
+
+                table[index] = constant;
+                names[index] = name;
+            }
+        }
+
+        @Override
+        public E parse(char[] buffer, int offset, int length) throws CellCannotBeParsedException {
+            for(int index = hash(buffer, offset, length) & mask; table[index] != null; index = (index + 1) & mask) {
+                if(matches(names[index], buffer, offset, length)) return table[index];
+            }
+            throw new CellCannotBeParsedException("Cell cannot be parsed as "+type.getName()+" (value: "+new String(buffer, offset, length)+")");
+        }
+
+        /**
+         * Write the name of the constant, which {@link #parse(char[], int, int)} reads back, instead of
+         * {@link Enum#toString()} as in 0.1.x: enums overriding toString() are formatted differently
+         */
+        @Override
+        public String format(E value) {
+            return value.name();
+        }
+    }
+
+    /**
+     * Returns the same instance for equal cells, keeping at most {@code maxSize} distinct strings.
+     * Once full, the cells not in the dictionary are copied as usual. Not thread-safe.
+     */
+    private static final class DictionaryConverter implements CellConverter<String> {
+        private final String[] table;
+        private final int      mask;
+        private final int      maxSize;
+        private int            size;
+
+        private DictionaryConverter(int maxSize) {
+            this.maxSize = maxSize;
+            this.table   = new String[Integer.highestOneBit(Math.max(maxSize, 1) * 2 - 1) << 1];
+            this.mask    = table.length - 1;
+        }
+
+        @Override
+        public String parse(char[] buffer, int offset, int length) {
+            int index = hash(buffer, offset, length) & mask;
+            for(; table[index] != null; index = (index + 1) & mask) {
+                if(matches(table[index], buffer, offset, length)) return table[index];
+            }
+
+            final String value = new String(buffer, offset, length);
+            if(size < maxSize) {
+                table[index] = value;
+                size++;
+            }
+            return value;
+        }
+    }
+}
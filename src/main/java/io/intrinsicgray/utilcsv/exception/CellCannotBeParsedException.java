@@ -6,4 +6,8 @@ public class CellCannotBeParsedException extends RuntimeException {
         super(message);
     }
 
+    public CellCannotBeParsedException(String message, Throwable cause) {
+        super(message, cause);
+    }
+
 }
@@ -0,0 +1,118 @@
+package io.intrinsicgray.utilcsv.metrics;
+
+/**
+ * Metrics of a single parsing or formatting call, reported to a {@link CSVMetricsListener}.
+ *
+ * <p>The time of a call is split into:</p>
+ * <ul>
+ *     <li><b>I/O:</b> the time spent waiting for the input (reading a file, mapping a window of it,
+ *     waiting for a decompressed block) or writing the output</li>
+ *     <li><b>Tokenizing:</b> the time spent splitting the input into rows and cells, and filtering them (parsing only).
+ *     The pages of a memory-mapped file are loaded while they are tokenized, so their loading is part of this time</li>
+ *     <li><b>Binding:</b> the time spent creating the objects and converting the cells (parsing),
+ *     or reading and converting the values of the objects (formatting)</li>
+ * </ul>
+ * The rest of the elapsed time is spent in the user code (e.g. between two rows of a stream).
+ * The times of the chunks of a parallel parsing/formatting are summed, so they can exceed the elapsed time.
+ *
+ * @author Intrinsic gray (mdegiovanni97@gmail.com)
+ * @version 0.2.0
+ * @since 0.2.0
+ */
+public final class CSVMetrics {
+
+    public enum Operation { PARSE, FORMAT }
+
+    private final Operation operation;
+    private final long      rows;
+    private final long      bytes;
+    private final long      chars;
+    private final long      cells;
+    private final long      failures;
+    private final long      ioNanos;
+    private final long      tokenizeNanos;
+    private final long      bindNanos;
+    private final long      elapsedNanos;
+
+
+    public CSVMetrics(Operation operation, long rows, long bytes, long chars, long cells, long failures, long ioNanos, long tokenizeNanos, long bindNanos, long elapsedNanos) {
+        if(operation == null) throw new NullPointerException("operation cannot be null");
+
+        this.operation     = operation;
+        this.rows          = rows;
+        this.bytes         = bytes;
+        this.chars         = chars;
+        this.cells         = cells;
+        this.failures      = failures;
+        this.ioNanos       = ioNanos;
+        this.tokenizeNanos = tokenizeNanos;
+        this.bindNanos     = bindNanos;
+        this.elapsedNanos  = elapsedNanos;
+    }
+
+
+    public Operation getOperation() { return operation; }
+
+    /**
+     * @return The number of rows bound to objects (parsing) or written (formatting), header excluded
+     */
+    public long getRows() { return rows; }
+
+    /**
+     * @return The number of bytes read from the file (parsing), compressed if the file is compressed.
+     * 0 when the bytes are not known: when the input is a {@link java.io.Reader} provided by the user, and when formatting
+     */
+    public long getBytes() { return bytes; }
+
+    /**
+     * @return The number of chars read through a {@link java.io.Reader} (parsing) or written through a {@link java.io.Writer} (formatting).
+     * 0 when a memory-mapped file is parsed, since its bytes are tokenized without being decoded into chars
+     */
+    public long getChars() { return chars; }
+
+    /**
+     * @return The number of cells converted
+     */
+    public long getCells() { return cells; }
+
+    /**
+     * @return The number of rows that could not be bound or formatted
+     */
+    public long getFailures() { return failures; }
+
+    public long getIoNanos() { return ioNanos; }
+
+    public long getTokenizeNanos() { return tokenizeNanos; }
+
+    public long getBindNanos() { return bindNanos; }
+
+    /**
+     * @return The wall-clock time of the call
+     */
+    public long getElapsedNanos() { return elapsedNanos; }
+
+    /**
+     * @return The number of rows per second, over the elapsed time
+     */
+    public double getRowsPerSecond() {
+        return elapsedNanos > 0 ? rows * 1e9 / elapsedNanos : 0;
+    }
+
+
+    @Override
+    public String toString() {
+        return "CSVMetrics{" +
+                "operation=" + operation +
+                ", rows=" + rows +
+                ", bytes=" + bytes +
+                ", chars=" + chars +
+                ", cells=" + cells +
+                ", failures=" + failures +
+                ", ioNanos=" + ioNanos +
+                ", tokenizeNanos=" + tokenizeNanos +
+                ", bindNanos=" + bindNanos +
+                ", elapsedNanos=" + elapsedNanos +
+                ", rowsPerSecond=" + Math.round(getRowsPerSecond()) +
+                '}';
+    }
+}
@@ -0,0 +1,34 @@
+package io.intrinsicgray.utilcsv.metrics;
+
+/**
+ * Listener of the metrics of the parsing and formatting calls of {@link io.intrinsicgray.utilcsv.CSVParser}
+ * and {@link io.intrinsicgray.utilcsv.CSVFormatter}. A listener is notified once for each call, when
+ * the call is over (or has failed), on the thread that completed it.
+ *
+ * <p>The metrics are only collected when a listener other than {@link #NONE} is set, e.g.:</p>
+ * <pre>
+ * CSVParser parser = new CSVParser().metrics(metrics -&gt; log.info("{}", metrics));
+ * CSVParser parser = new CSVParser().metrics(new JfrMetricsListener());
+ * </pre>
+ *
+ * <p>Listeners can be shared between parsers, formatters and threads, so they must be thread-safe.</p>
+ *
+ * @author Intrinsic gray (mdegiovanni97@gmail.com)
+ * @version 0.2.0
+ * @since 0.2.0
+ */
+@FunctionalInterface
+public interface CSVMetricsListener {
+
+    /**
+     * Listener ignoring the metrics, set as default. No metric is collected when it is used
+     */
+    CSVMetricsListener NONE = metrics -> { };
+
+
+    /**
+     * @param metrics The metrics of a completed parsing or formatting
+     */
+    void completed(CSVMetrics metrics);
+
+}
@@ -0,0 +1,88 @@
+package io.intrinsicgray.utilcsv.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * {@link CSVMetricsListener} committing a Java Flight Recorder event for each parsing and formatting call,
+ * so the calls appear in the recordings next to the I/O, GC and CPU events of the application
+ * (e.g. with {@code -XX:StartFlightRecording} or {@code jcmd <pid> JFR.start}).
+ *
+ * <p>The events are named "io.intrinsicgray.utilcsv.Operation" and are enabled by default.
+ * Nothing is created when no recording is running.</p>
+ *
+ * @author Intrinsic gray (mdegiovanni97@gmail.com)
+ * @version 0.2.0
+ * @since 0.2.0
+ */
+public class JfrMetricsListener implements CSVMetricsListener {
+
+    @Name("io.intrinsicgray.utilcsv.Operation")
+    @Label("CSV Operation")
+    @Category("UtilCSV")
+    @Description("A parsing or formatting call of UtilCSV")
+    static class OperationEvent extends Event {
+        @Label("Operation")
+        String operation;
+
+        @Label("Rows")
+        long rows;
+
+        @Label("Bytes")
+        @DataAmount
+        long bytes;
+
+        @Label("Chars")
+        long chars;
+
+        @Label("Cells")
+        long cells;
+
+        @Label("Failures")
+        long failures;
+
+        @Label("I/O Time")
+        @Timespan
+        long ioTime;
+
+        @Label("Tokenizing Time")
+        @Timespan
+        long tokenizeTime;
+
+        @Label("Binding Time")
+        @Timespan
+        long bindTime;
+
+        @Label("Elapsed Time")
+        @Timespan
+        long elapsedTime;
+
+        @Label("Rows per Second")
+        double rowsPerSecond;
+    }
+
+
+    @Override
+    public void completed(CSVMetrics metrics) {
+        final OperationEvent event = new OperationEvent();
+        if(!event.shouldCommit()) return;
+
+        event.operation     = metrics.getOperation().name();
+        event.rows          = metrics.getRows();
+        event.bytes         = metrics.getBytes();
+        event.chars         = metrics.getChars();
+        event.cells         = metrics.getCells();
+        event.failures      = metrics.getFailures();
+        event.ioTime        = metrics.getIoNanos();
+        event.tokenizeTime  = metrics.getTokenizeNanos();
+        event.bindTime      = metrics.getBindNanos();
+        event.elapsedTime   = metrics.getElapsedNanos();
+        event.rowsPerSecond = metrics.getRowsPerSecond();
+        event.commit();
+    }
+}
@@ -1,13 +1,32 @@
 package io.intrinsicgray.utilcsv;
 
 import io.intrinsicgray.utilcsv.example.*;
+import io.intrinsicgray.utilcsv.exception.ListCannotBeFormattedException;
+import io.intrinsicgray.utilcsv.metrics.CSVMetrics;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.StringWriter;
+import java.io.Writer;
 import java.time.LocalDate;
 import java.time.Month;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -91,4 +110,225 @@ public class CSVFormatterTests {
         testExpectedCsvContent(people, expectedCsv);
     }
 
+    @Test
+    void formatterFieldAccess() {
+        final List<PersonWithoutAccessors> people = List.of(
+                new PersonWithoutAccessors("Sheldon Lee Cooper", LocalDate.of(1980, Month.FEBRUARY, 26), 186, true)
+        );
+
+        //Without getters the fields cannot be read...
+        assertThrows(ListCannotBeFormattedException.class, () -> formatter.format(people));
+
+        //...unless they are accessed directly
+        try {
+            assertEquals("Sheldon Lee Cooper,1980-02-26,186,true" + System.lineSeparator(), formatter.fieldAccess(true).format(people));
+        } catch (Exception e) {
+            fail(e);
+        }
+    }
+
+    @Test
+    void formatterStreaming() {
+        formatter.lineSeparator(LineSeparator.LF).useHeader(true);
+
+        try {
+            //The header is written even without rows
+            StringWriter stringWriter = new StringWriter();
+            formatter.format(Collections.<PersonNameAndOrder>emptyIterator(), PersonNameAndOrder.class, new BufferedWriter(stringWriter));
+            assertEquals("Full name,Birthdate,Height,Won a Nobel\n", stringWriter.toString());
+
+            //Rows are pulled from a stream, one at a time
+            stringWriter = new StringWriter();
+            formatter.format(
+                    Stream.iterate(150, height -> height < 153, height -> height + 1).map(height -> new PersonNameAndOrder("Person "+height, LocalDate.of(1980, Month.FEBRUARY, 26), height, false)),
+                    PersonNameAndOrder.class,
+                    new BufferedWriter(stringWriter)
+            );
+            assertEquals(
+                    "Full name,Birthdate,Height,Won a Nobel\n" +
+                    "Person 150,1980-02-26,150,false\n" +
+                    "Person 151,1980-02-26,151,false\n" +
+                    "Person 152,1980-02-26,152,false\n",
+                    stringWriter.toString()
+            );
+
+            //Rows are written as soon as they are pushed
+            stringWriter = new StringWriter();
+            try(RowSink<PersonNameAndOrder> sink = formatter.useHeader(false).sink(PersonNameAndOrder.class, stringWriter)) {
+                sink.write(new PersonNameAndOrder("Sheldon Lee Cooper", LocalDate.of(1980, Month.FEBRUARY, 26), 186, true));
+                assertEquals("Sheldon Lee Cooper,1980-02-26,186,true\n", stringWriter.toString());
+
+                assertThrows(NullPointerException.class, () -> sink.write(null));
+            }
+        } catch (Exception e) {
+            fail(e);
+        }
+    }
+
+    @Test
+    void formatterEscapes() {
+        final List<PersonNameAndOrder> people = List.of(
+                new PersonNameAndOrder("Tab\tand\\backslash", LocalDate.of(1968, Month.JANUARY, 9), -175, false),
+                new PersonNameAndOrder("\"Joey\", Tribbiani\nJr.", LocalDate.of(1980, Month.FEBRUARY, 26), Integer.MIN_VALUE, true)
+        );
+
+        try {
+            final String csvContent = formatter.lineSeparator(LineSeparator.LF).format(people);
+            assertEquals(
+                    "Tab\\tand\\\\backslash,1968-01-09,-175,false\n" +
+                    "\"\"\"Joey\"\", Tribbiani\\nJr.\",1980-02-26,-2147483648,true\n",
+                    csvContent
+            );
+
+            //Escaped cells are restored by the parser
+            final List<PersonNameAndOrder> parsed = new CSVParser().lineSeparator(LineSeparator.LF).parse(csvContent, PersonNameAndOrder.class);
+            for(int i=0; i<people.size(); i++) {
+                assertEquals(people.get(i).toString(), parsed.get(i).toString());
+            }
+
+            //Numbers are quoted too
+            assertEquals("\"Tab\\tand\\\\backslash\",\"1968-01-09\",\"-175\",\"false\"\n", formatter.alwaysUseQuotes(true).format(people.subList(0, 1)));
+        } catch (Exception e) {
+            fail(e);
+        }
+    }
+
+    @Test
+    void formatterParallel() {
+        final List<PersonNameAndOrder> people = new ArrayList<>();
+        for(int i=0; i<20_000; i++) {
+            people.add(new PersonNameAndOrder("Person, "+i, LocalDate.of(1970, Month.JANUARY, 1).plusDays(i), i, i % 3 == 0));
+        }
+
+        final ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            final String expected = formatter.useHeader(true).format(people);
+
+            final StringWriter stringWriter = new StringWriter();
+            formatter.pool(pool).formatParallel(people.iterator(), PersonNameAndOrder.class, stringWriter);
+            assertEquals(expected, stringWriter.toString());
+
+            //Header only
+            final StringWriter emptyWriter = new StringWriter();
+            formatter.formatParallel(Collections.<PersonNameAndOrder>emptyIterator(), PersonNameAndOrder.class, emptyWriter);
+            assertEquals("Full name,Birthdate,Height,Won a Nobel" + System.lineSeparator(), emptyWriter.toString());
+
+            //Errors of the chunks are thrown by the calling thread
+            people.set(15_000, null);
+            assertThrows(NullPointerException.class, () -> formatter.formatParallel(people.iterator(), PersonNameAndOrder.class, new StringWriter()));
+        } catch (Exception e) {
+            fail(e);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void formatterSubscriber() {
+        final List<PersonNameAndOrder> people = new ArrayList<>();
+        for(int i=0; i<5_000; i++) {
+            people.add(new PersonNameAndOrder("Person, "+i, LocalDate.of(1970, Month.JANUARY, 1).plusDays(i), i, i % 3 == 0));
+        }
+
+        try {
+            final String expected = formatter.useHeader(true).format(people);
+
+            final StringWriter stringWriter = new StringWriter();
+            final CSVSubscriber<PersonNameAndOrder> subscriber = formatter.subscriber(PersonNameAndOrder.class, stringWriter);
+            try(SubmissionPublisher<PersonNameAndOrder> publisher = new SubmissionPublisher<>(ForkJoinPool.commonPool(), 16)) {
+                publisher.subscribe(subscriber);
+                people.forEach(publisher::submit);
+            }
+            //Completing the returned future does not complete the subscriber
+            subscriber.getCompletion().complete(-1L);
+            assertEquals(5_000, subscriber.getCompletion().get(30, TimeUnit.SECONDS));
+            assertEquals(expected, stringWriter.toString());
+
+            //The error of the publisher completes the subscriber
+            final StringWriter failedWriter = new StringWriter();
+            final CSVSubscriber<PersonNameAndOrder> failed = formatter.subscriber(PersonNameAndOrder.class, failedWriter);
+            try(SubmissionPublisher<PersonNameAndOrder> publisher = new SubmissionPublisher<>()) {
+                publisher.subscribe(failed);
+                publisher.submit(people.get(0));
+                publisher.closeExceptionally(new IllegalStateException("Cursor closed"));
+            }
+            final ExecutionException error = assertThrows(ExecutionException.class, () -> failed.getCompletion().get(30, TimeUnit.SECONDS));
+            assertEquals("Cursor closed", error.getCause().getMessage());
+            assertTrue(failedWriter.toString().startsWith("Full name,Birthdate,Height,Won a Nobel"));
+
+            //A publisher delivering more rows than requested fails the subscriber
+            final CountDownLatch delivered = new CountDownLatch(1);
+            final AtomicBoolean  blocking  = new AtomicBoolean();
+            final Writer blockedWriter = new Writer() {
+                @Override
+                public void write(char[] cbuf, int off, int len) throws IOException {
+                    try {
+                        if(blocking.get()) delivered.await();
+                    } catch (InterruptedException e) {
+                        throw new InterruptedIOException();
+                    }
+                }
+                @Override public void flush() { }
+                @Override public void close() { }
+            };
+            final CSVSubscriber<PersonNameAndOrder> overflowed = formatter.subscriber(PersonNameAndOrder.class, blockedWriter);
+            final CountDownLatch cancelled = new CountDownLatch(1);
+            final Flow.Publisher<PersonNameAndOrder> overDelivering = s -> {
+                s.onSubscribe(new Flow.Subscription() {
+                    @Override public void request(long n) { }
+                    @Override public void cancel() { cancelled.countDown(); }
+                });
+                people.forEach(s::onNext);
+                s.onComplete();
+            };
+            blocking.set(true);
+            overDelivering.subscribe(overflowed);
+            delivered.countDown();
+
+            final ExecutionException overflow = assertThrows(ExecutionException.class, () -> overflowed.getCompletion().get(30, TimeUnit.SECONDS));
+            assertInstanceOf(IllegalStateException.class, overflow.getCause());
+            assertTrue(cancelled.await(30, TimeUnit.SECONDS));
+        } catch (Exception e) {
+            fail(e);
+        }
+    }
+
+    @Test
+    void formatterMetrics() {
+        final List<PersonNameAndOrder> people = List.of(
+                new PersonNameAndOrder("Joseph Francis Tribbiani Jr.", LocalDate.of(1968, Month.JANUARY, 9), 175, false),
+                new PersonNameAndOrder("Sheldon Lee Cooper", LocalDate.of(1980, Month.FEBRUARY, 26), 186, true)
+        );
+
+        final List<CSVMetrics> reported = new ArrayList<>();
+        try {
+            final String csvContent = formatter.useHeader(true).metrics(reported::add).format(people);
+            assertEquals(1, reported.size());
+
+            final CSVMetrics metrics = reported.get(0);
+            assertEquals(CSVMetrics.Operation.FORMAT, metrics.getOperation());
+            assertEquals(2, metrics.getRows());
+            assertEquals(8, metrics.getCells());
+            assertEquals(csvContent.length(), metrics.getChars());
+            assertEquals(0, metrics.getBytes());
+            assertEquals(0, metrics.getTokenizeNanos());
+
+            formatter.formatParallel(people.iterator(), PersonNameAndOrder.class, new StringWriter());
+            assertEquals(2, reported.size());
+            assertEquals(2, reported.get(1).getRows());
+
+            //Failed parallel calls are reported too
+            assertThrows(NullPointerException.class, () -> formatter.formatParallel(Arrays.asList(people.get(0), null).iterator(), PersonNameAndOrder.class, new StringWriter()));
+            assertEquals(3, reported.size());
+            assertEquals(1, reported.get(2).getFailures());
+
+            final Iterator<PersonNameAndOrder> failing = Stream.<PersonNameAndOrder>generate(() -> { throw new IllegalStateException("Cursor closed"); }).iterator();
+            assertThrows(IllegalStateException.class, () -> formatter.formatParallel(failing, PersonNameAndOrder.class, new StringWriter()));
+            assertEquals(4, reported.size());
+            assertEquals(1, reported.get(3).getFailures());
+        } catch (Exception e) {
+            fail(e);
+        }
+    }
+
 }
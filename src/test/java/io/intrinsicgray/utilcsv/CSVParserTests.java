@@ -0,0 +1,994 @@
+package io.intrinsicgray.utilcsv;
+
+import io.intrinsicgray.utilcsv.codec.CompressionCodec;
+import io.intrinsicgray.utilcsv.example.*;
+import io.intrinsicgray.utilcsv.exception.CSVCannotBeParsedException;
+import io.intrinsicgray.utilcsv.exception.CellCannotBeParsedException;
+import io.intrinsicgray.utilcsv.exception.ColumnNameNotPresentException;
+import io.intrinsicgray.utilcsv.metrics.CSVMetrics;
+import io.intrinsicgray.utilcsv.metrics.JfrMetricsListener;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.*;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.Month;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CSVParserTests {
+
+    private CSVParser parser;
+
+
+    @BeforeEach
+    void resetParser() {
+        this.parser = new CSVParser().lineSeparator(LineSeparator.LF);
+    }
+
+
+    private List<PersonNameAndOrder> testParse(String csvContent, int expectedSize) {
+        try {
+            final List<PersonNameAndOrder> people = parser.parse(csvContent, PersonNameAndOrder.class);
+
+            assertNotNull(people);
+            assertEquals(expectedSize, people.size());
+            return people;
+        } catch (Exception e) {
+            return fail(e);
+        }
+    }
+
+
+
+    @Test
+    void testNullContent() {
+        assertThrows(NullPointerException.class, () -> parser.parse((String) null, PersonNameAndOrder.class));
+    }
+
+    @Test
+    void parserEmptyContent() {
+        testParse("", 0);
+    }
+
+    @Test
+    void parserNameAndOrder() {
+        //Standard
+        List<PersonNameAndOrder> people = testParse(
+                "Joseph Francis \"Joey\" Tribbiani Jr.,1968-01-09,175,false\n" +
+                "Sheldon Lee Cooper,1980-02-26,186,true\n",
+                2
+        );
+
+        assertEquals("Joseph Francis \"Joey\" Tribbiani Jr.", people.get(0).getName());
+        assertEquals(LocalDate.of(1968, Month.JANUARY, 9), people.get(0).getBirthDate());
+        assertEquals(175, people.get(0).getHeight());
+        assertFalse(people.get(0).isNobel());
+        assertEquals("Sheldon Lee Cooper", people.get(1).getName());
+        assertTrue(people.get(1).isNobel());
+
+
+        //Use header
+        parser.useHeader(true);
+        people = testParse(
+                "Full name,Birthdate,Height,Won a Nobel\n" +
+                "Sheldon Lee Cooper,1980-02-26,186,true\n",
+                1
+        );
+
+        assertEquals("Sheldon Lee Cooper", people.get(0).getName());
+        assertEquals(186, people.get(0).getHeight());
+    }
+
+    @Test
+    void parserHeaderMapping() {
+        parser.useHeader(true);
+
+        //Columns in a different order and unmapped columns
+        final List<PersonNameAndOrder> people = testParse(
+                "Height,Country,Full name,Won a Nobel,Birthdate\n" +
+                "186,USA,Sheldon Lee Cooper,true,1980-02-26\n",
+                1
+        );
+
+        assertEquals("Sheldon Lee Cooper", people.get(0).getName());
+        assertEquals(186, people.get(0).getHeight());
+        assertTrue(people.get(0).isNobel());
+        assertEquals(LocalDate.of(1980, Month.FEBRUARY, 26), people.get(0).getBirthDate());
+
+        //Unmapped cells are skipped, even when quoted, escaped or spanning several lines
+        final List<PersonNameAndOrder> wide = testParse(
+                "Notes,Full name,Height,Tags,Won a Nobel,Birthdate,Extra\n" +
+                "\"a, \"\"b\"\"\nc\",Sheldon Lee Cooper,186,x\\ny,true,1980-02-26,\"1\n2\",3,4\n" +
+                "x\\t,Leonard Hofstadter,165,,false,1980-05-17\n",
+                2
+        );
+        assertEquals("Sheldon Lee Cooper", wide.get(0).getName());
+        assertEquals(186, wide.get(0).getHeight());
+        assertEquals(LocalDate.of(1980, Month.FEBRUARY, 26), wide.get(0).getBirthDate());
+        assertEquals("Leonard Hofstadter", wide.get(1).getName());
+        assertFalse(wide.get(1).isNobel());
+
+        //Columns without a name
+        assertThrows(ColumnNameNotPresentException.class, () -> parser.parse("Full name\nSheldon Lee Cooper\n", PersonOrder.class));
+    }
+
+    @Test
+    void parserQuotedCells() {
+        //Delimiter and doubled quotes inside a quoted cell
+        List<PersonNameAndOrder> people = testParse(
+                "\"Joseph, Francis \"\"Joey\"\" Tribbiani Jr.\",\"1968-01-09\",\"175\",\"false\"\n",
+                1
+        );
+
+        assertEquals("Joseph, Francis \"Joey\" Tribbiani Jr.", people.get(0).getName());
+        assertEquals(175, people.get(0).getHeight());
+
+
+        //Cells containing the old placeholder text are left untouched
+        people = testParse("\"a|||DEL|||b, |||QTE|||\",1968-01-09,175,false\n", 1);
+        assertEquals("a|||DEL|||b, |||QTE|||", people.get(0).getName());
+
+
+        //Escape sequences
+        people = testParse("\"Line\\nBreak\",1968-01-09,175,false\n", 1);
+        assertEquals("Line\nBreak", people.get(0).getName());
+    }
+
+    @Test
+    void parserMultiLineCells(@TempDir Path directory) {
+        //Line separators inside quoted cells, including empty lines
+        final String csvContent =
+                "\"Joseph\nFrancis\n\nTribbiani\",1968-01-09,175,false\n" +
+                "Sheldon Lee Cooper,1980-02-26,186,true\n" +
+                "\"Leonard, \"\"Leakey\"\"\n\",1980-05-17,165,false\n";
+
+        List<PersonNameAndOrder> people = testParse(csvContent, 3);
+        assertEquals("Joseph\nFrancis\n\nTribbiani", people.get(0).getName());
+        assertEquals(175, people.get(0).getHeight());
+        assertEquals("Sheldon Lee Cooper", people.get(1).getName());
+        assertEquals("Leonard, \"Leakey\"\n", people.get(2).getName());
+
+        try {
+            parser.lineSeparator(LineSeparator.CRLF);
+            people = parser.parse(csvContent.replace("\n", "\r\n"), PersonNameAndOrder.class);
+            assertEquals("Joseph\r\nFrancis\r\n\r\nTribbiani", people.get(0).getName());
+
+            final File file = directory.resolve("multiline.csv").toFile();
+            Files.write(file.toPath(), csvContent.replace("\n", "\r\n").getBytes(StandardCharsets.UTF_8));
+
+            people = parser.parse(file, PersonNameAndOrder.class, StandardCharsets.UTF_8);
+            assertEquals(3, people.size());
+            assertEquals("Joseph\r\nFrancis\r\n\r\nTribbiani", people.get(0).getName());
+            assertEquals("Leonard, \"Leakey\"\r\n", people.get(2).getName());
+        } catch (Exception e) {
+            fail(e);
+        }
+    }
+
+    @Test
+    void parserFilters() {
+        final String csvContent =
+                "Full name,Status,Height,Birthdate,Won a Nobel\n" +
+                "Joseph Francis Tribbiani Jr.,ACTIVE,175,1968-01-09,false\n" +
+                "Sheldon Lee Cooper,INACTIVE,186,1980-02-26,true\n" +
+                "Leonard Leakey Hofstadter,ACTIVE,165,not a date,false\n";
+
+        parser.useHeader(true).where("Status", "ACTIVE"::equals);
+
+        //Filtered rows are never bound, so their cells are not converted
+        parser.where("Height", v -> Integer.parseInt(v) > 170);
+        List<PersonNameAndOrder> people = testParse(csvContent, 1);
+        assertEquals("Joseph Francis Tribbiani Jr.", people.get(0).getName());
+
+        //Unmapped columns can be filtered too
+        parser.setFilter("Height", null);
+        assertThrows(CellCannotBeParsedException.class, () -> parser.parse(csvContent, PersonNameAndOrder.class));
+        assertNull(parser.getFilter("Height"));
+
+        //Without header, the columns are the ones of the class
+        parser.useHeader(false).setFilter("Status", null);
+        parser.where("Full name", v -> v.startsWith("S"));
+        people = testParse("Joseph Francis Tribbiani Jr.,1968-01-09,175,false\nSheldon Lee Cooper,1980-02-26,186,true\n", 1);
+        assertEquals("Sheldon Lee Cooper", people.get(0).getName());
+
+        //Missing columns
+        parser.useHeader(true).where("Country", "Italy"::equals);
+        assertThrows(ColumnNameNotPresentException.class, () -> parser.parse(csvContent, PersonNameAndOrder.class));
+    }
+
+    @Test
+    void parserSlicing() {
+        final StringBuilder csvContent = new StringBuilder("Full name,Height\n");
+        for(int i=0; i<1000; i++) {
+            csvContent.append("Person ").append(i).append(',').append(i).append('\n');
+        }
+
+        try {
+            parser.useHeader(true).skip(10).limit(3);
+            List<PersonNameAndOrder> people = parser.parse(csvContent.toString(), PersonNameAndOrder.class);
+            assertEquals(List.of(10, 11, 12), people.stream().map(PersonNameAndOrder::getHeight).collect(Collectors.toList()));
+
+            //The reader is not read after the limit
+            final String firstRows = csvContent.substring(0, 500);
+            final Reader failing = new Reader() {
+                private final StringReader content = new StringReader(firstRows);
+
+                @Override
+                public int read(char[] chars, int offset, int length) throws IOException {
+                    final int read = content.read(chars, offset, length);
+                    if(read < 0) throw new IOException("Read after the limit");
+                    return read;
+                }
+
+                @Override
+                public void close() {}
+            };
+            people = parser.parse(new BufferedReader(failing), PersonNameAndOrder.class);
+            assertEquals(3, people.size());
+
+            //Every k-th row, after the skipped ones
+            parser.limit(Long.MAX_VALUE).sampleInterval(100);
+            people = parser.parse(csvContent.toString(), PersonNameAndOrder.class);
+            assertEquals(10, people.size());
+            assertEquals(110, people.get(1).getHeight());
+
+            //Reservoir sampling
+            parser.skip(0).sampleInterval(1).where("Height", v -> Integer.parseInt(v) % 2 == 0);
+            people = parser.sample(new BufferedReader(new StringReader(csvContent.toString())), PersonNameAndOrder.class, 50, new Random(42));
+            assertEquals(50, people.size());
+            assertEquals(50, people.stream().map(PersonNameAndOrder::getHeight).distinct().count());
+            assertTrue(people.stream().allMatch(person -> person.getHeight() % 2 == 0));
+
+            people = parser.sample(new BufferedReader(new StringReader(csvContent.toString())), PersonNameAndOrder.class, 2000, new Random(42));
+            assertEquals(500, people.size());
+
+            assertThrows(IllegalArgumentException.class, () -> parser.limit(-1));
+            assertThrows(IllegalArgumentException.class, () -> parser.sampleInterval(0));
+        } catch (Exception e) {
+            fail(e);
+        }
+    }
+
+    @Test
+    void parserStreaming() {
+        final String csvContent =
+                "Joseph Francis Tribbiani Jr.,1968-01-09,175,false\n" +
+                "Sheldon Lee Cooper,1980-02-26,186,true\n" +
+                "Leonard Leakey Hofstadter,1980-05-17,165,false\n";
+
+        try(BufferedReader reader = new BufferedReader(new StringReader(csvContent))) {
+            final Iterator<PersonNameAndOrder> iterator = parser.iterator(reader, PersonNameAndOrder.class);
+
+            assertTrue(iterator.hasNext());
+            assertEquals("Joseph Francis Tribbiani Jr.", iterator.next().getName());
+
+            assertEquals("Sheldon Lee Cooper", iterator.next().getName());
+            assertEquals("Leonard Leakey Hofstadter", iterator.next().getName());
+            assertFalse(iterator.hasNext());
+            assertThrows(NoSuchElementException.class, iterator::next);
+        } catch (Exception e) {
+            fail(e);
+        }
+
+        try(BufferedReader reader = new BufferedReader(new StringReader(csvContent))) {
+            assertEquals(526, parser.stream(reader, PersonNameAndOrder.class).mapToInt(PersonNameAndOrder::getHeight).sum());
+        } catch (Exception e) {
+            fail(e);
+        }
+    }
+
+    @Test
+    void parserFieldAccess() {
+        final String csvContent = "Sheldon Lee Cooper,1980-02-26,186,true\n";
+
+        //Without setters the fields cannot be written...
+        assertThrows(CSVCannotBeParsedException.class, () -> parser.parse(csvContent, PersonWithoutAccessors.class));
+
+        //...unless they are accessed directly
+        try {
+            final List<PersonWithoutAccessors> people = parser.fieldAccess(true).parse(csvContent, PersonWithoutAccessors.class);
+
+            assertEquals(1, people.size());
+            assertEquals("Person{name='Sheldon Lee Cooper', birthDate=1980-02-26, height=186, nobel=true}", people.get(0).toString());
+        } catch (Exception e) {
+            fail(e);
+        }
+    }
+
+    @Test
+    void parserFormatterRoundTrip() {
+        final List<Person> people = List.of(
+                new PersonNameAndOrder("Joseph, Francis \"Joey\" Tribbiani Jr.", LocalDate.of(1968, Month.JANUARY, 9), 175, false),
+                new PersonNameAndOrder("Sheldon Lee Cooper", LocalDate.of(1980, Month.FEBRUARY, 26), 186, true)
+        );
+
+        try {
+            final CSVFormatter formatter = new CSVFormatter().lineSeparator(LineSeparator.LF).useHeader(true);
+            final List<PersonNameAndOrder> parsed = parser.useHeader(true).parse(formatter.format(people), PersonNameAndOrder.class);
+
+            assertEquals(people.size(), parsed.size());
+            for(int i=0; i<people.size(); i++) {
+                assertEquals(people.get(i).toString(), parsed.get(i).toString());
+            }
+        } catch (Exception e) {
+            fail(e);
+        }
+    }
+
+    @Test
+    void parserCompressedFiles(@TempDir Path directory) {
+        final List<PersonNameAndOrder> people = new ArrayList<>();
+        for(int i=0; i<50000; i++) {
+            people.add(new PersonNameAndOrder("Zoë \"number\" "+i, LocalDate.of(1980, Month.FEBRUARY, 26), i, i % 2 == 0));
+        }
+
+        try {
+            final CSVFormatter formatter = new CSVFormatter().lineSeparator(LineSeparator.LF).useHeader(true);
+            parser.useHeader(true);
+
+            //Compressed by extension, decompressed by content
+            final Path gzip = formatter.format(people, directory.resolve("people.csv.gz"), StandardCharsets.UTF_8);
+            try(InputStream in = Files.newInputStream(gzip)) {
+                assertEquals(0x1F, in.read());
+                assertEquals(0x8B, in.read());
+            }
+
+            final Path renamed = Files.move(gzip, directory.resolve("people.csv"));
+            List<PersonNameAndOrder> parsed = parser.parse(renamed, PersonNameAndOrder.class, StandardCharsets.UTF_8);
+            assertEquals(people.stream().map(Object::toString).collect(Collectors.toList()), parsed.stream().map(Object::toString).collect(Collectors.toList()));
+
+            //The stream can be closed before the end of the file
+            try(Stream<PersonNameAndOrder> stream = parser.stream(renamed, PersonNameAndOrder.class, StandardCharsets.UTF_8)) {
+                assertEquals("Zoë \"number\" 0", stream.findFirst().orElseThrow().getName());
+            }
+
+            //Uncompressed files
+            final Path plain = formatter.format(people.subList(0, 10), directory.resolve("plain.csv"), StandardCharsets.UTF_8);
+            assertEquals(10, parser.parse(plain, PersonNameAndOrder.class, StandardCharsets.UTF_8).size());
+
+            //Custom codecs, recognized by extension
+            final CompressionCodec reversed = new CompressionCodec() {
+                @Override
+                public String getExtension() { return ".rev"; }
+
+                @Override
+                public boolean isCompressed(byte[] header, int length) { return false; }
+
+                @Override
+                public InputStream decompress(InputStream in) {
+                    return new FilterInputStream(in) {
+                        @Override
+                        public int read() throws IOException {
+                            final int b = super.read();
+                            return b < 0 ? b : b ^ 0xFF;
+                        }
+
+                        @Override
+                        public int read(byte[] bytes, int offset, int length) throws IOException {
+                            final int read = super.read(bytes, offset, length);
+                            for(int i=0; i<read; i++) bytes[offset + i] ^= (byte) 0xFF;
+                            return read;
+                        }
+                    };
+                }
+
+                @Override
+                public OutputStream compress(OutputStream out) {
+                    return new FilterOutputStream(out) {
+                        @Override
+                        public void write(int b) throws IOException {
+                            super.write(b ^ 0xFF);
+                        }
+                    };
+                }
+            };
+            formatter.codec(reversed);
+            parser.codec(reversed);
+
+            final Path custom = formatter.format(people.subList(0, 100), directory.resolve("people.csv.rev"), StandardCharsets.UTF_8);
+            assertNotEquals('F', Files.readAllBytes(custom)[0]);
+            assertEquals(100, parser.parse(custom, PersonNameAndOrder.class, StandardCharsets.UTF_8).size());
+
+            //Corrupted files
+            final byte[] bytes = Files.readAllBytes(renamed);
+            final Path corrupted = Files.write(directory.resolve("corrupted.csv.gz"), Arrays.copyOf(bytes, bytes.length / 2));
+            assertThrows(IOException.class, () -> parser.parse(corrupted, PersonNameAndOrder.class, StandardCharsets.UTF_8));
+        } catch (Exception e) {
+            fail(e);
+        }
+    }
+
+    @Test
+    void parserConverters() {
+        final String csvContent =
+                "6f1c2a3e-1b2c-4d5e-8f90-123456789abc,09/01/1968,1234.50,9876543210,0.25,2024-03-01T10:15:30Z,EUR\n";
+
+        try {
+            final Transaction transaction = parser.parse(csvContent, Transaction.class).get(0);
+
+            assertEquals(UUID.fromString("6f1c2a3e-1b2c-4d5e-8f90-123456789abc"), transaction.getId());
+            assertEquals(LocalDate.of(1968, Month.JANUARY, 9), transaction.getDate());
+            assertEquals(new BigDecimal("1234.50"), transaction.getAmount());
+            assertEquals(9876543210L, transaction.getAccount());
+            assertEquals(0.25f, transaction.getRate());
+            assertEquals(Instant.parse("2024-03-01T10:15:30Z"), transaction.getCreated());
+
+            //The column format is used to write the cells too
+            final String formatted = new CSVFormatter().lineSeparator(LineSeparator.LF).format(List.of(transaction));
+            assertEquals(csvContent, formatted);
+
+            //A registered converter replaces the built-in one, also for primitive fields
+            final Transaction custom = parser
+                    .converter(BigDecimal.class, (buffer, offset, length) -> new BigDecimal(new String(buffer, offset, length).replace(".", "")))
+                    .converter(Long.class, (buffer, offset, length) -> -1L)
+                    .parse(csvContent, Transaction.class).get(0);
+
+            assertEquals(new BigDecimal("123450"), custom.getAmount());
+            assertEquals(-1L, custom.getAccount());
+        } catch (Exception e) {
+            fail(e);
+        }
+
+        assertThrows(CellCannotBeParsedException.class, () -> new CSVParser().lineSeparator(LineSeparator.LF).parse(csvContent.replace("09/01/1968", "1968-01-09"), Transaction.class));
+    }
+
+    @Test
+    void parserDictionary() {
+        final String csvContent =
+                "6f1c2a3e-1b2c-4d5e-8f90-123456789abc,09/01/1968,10,1,0.25,2024-03-01T10:15:30Z,EUR\n" +
+                "6f1c2a3e-1b2c-4d5e-8f90-123456789abd,10/01/1968,20,2,0.25,2024-03-01T10:15:30Z,USD\n" +
+                "6f1c2a3e-1b2c-4d5e-8f90-123456789abe,11/01/1968,30,3,0.25,2024-03-01T10:15:30Z,EUR\n" +
+                "6f1c2a3e-1b2c-4d5e-8f90-123456789abf,12/01/1968,40,4,0.25,2024-03-01T10:15:30Z,GBP\n";
+
+        try {
+            //Repeated values share the same instance...
+            List<Transaction> transactions = parser.parse(csvContent, Transaction.class);
+            assertEquals("EUR", transactions.get(0).getCurrency());
+            assertSame(transactions.get(0).getCurrency(), transactions.get(2).getCurrency());
+
+            //...until the dictionary is full
+            transactions = parser.dictionarySize(1).parse(csvContent, Transaction.class);
+            assertSame(transactions.get(0).getCurrency(), transactions.get(2).getCurrency());
+            assertEquals("GBP", transactions.get(3).getCurrency());
+        } catch (Exception e) {
+            fail(e);
+        }
+    }
+
+    @Test
+    void parserLineSeparators(@TempDir Path directory) {
+        final String csvContent = "Height,Full name\r\n186,Zoë\r\n\r\n175,\"Łukasz\r\"\r\n";
+
+        try {
+            parser.lineSeparator(LineSeparator.CRLF).useHeader(true);
+
+            //The carriage return is not part of the last cell
+            List<PersonNameAndOrder> people = parser.parse(csvContent, PersonNameAndOrder.class);
+            assertEquals(2, people.size());
+            assertEquals("Zoë", people.get(0).getName());
+            assertEquals("Łukasz\r", people.get(1).getName());
+
+            //Rows longer than a read block
+            final String longName = Stream.generate(() -> "x").limit(20000).collect(Collectors.joining());
+            people = parser.parse("Height,Full name\r\n186,"+longName+"\r\n175,Zoë", PersonNameAndOrder.class);
+            assertEquals(longName, people.get(0).getName());
+            assertEquals("Zoë", people.get(1).getName());
+
+            //Detection of the line separator, whatever is configured
+            parser.lineSeparator(LineSeparator.LF).detectLineSeparator(true);
+            for(LineSeparator separator : LineSeparator.values()) {
+                final String content = "Height,Full name"+separator.value+"186,Zoë"+separator.value+"175,Ada"+separator.value;
+
+                people = parser.parse(content, PersonNameAndOrder.class);
+                assertEquals(2, people.size());
+                assertEquals("Ada", people.get(1).getName());
+
+                final File file = directory.resolve(separator.name()+".csv").toFile();
+                Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+
+                people = parser.parse(file, PersonNameAndOrder.class, StandardCharsets.UTF_8);
+                assertEquals("Ada", people.get(1).getName());
+                people = parser.parseParallel(file, PersonNameAndOrder.class, StandardCharsets.UTF_8, true);
+                assertEquals("Ada", people.get(1).getName());
+            }
+        } catch (Exception e) {
+            fail(e);
+        }
+    }
+
+    @Test
+    void parserMappedFile(@TempDir Path directory) {
+        final String csvContent =
+                "\uFEFFFull name,Birthdate,Height,Won a Nobel\r\n" +
+                "Zoë Ångström \uD83D\uDE00,1980-02-26,186,true\r\n" +
+                "   \r\n" +
+                "\"Łukasz, \"\"Luke\"\"\",1968-01-09,175,false";
+
+        try {
+            final File utf8 = directory.resolve("utf8.csv").toFile();
+            Files.write(utf8.toPath(), csvContent.getBytes(StandardCharsets.UTF_8));
+
+            parser.lineSeparator(LineSeparator.CRLF).useHeader(true);
+
+            List<PersonNameAndOrder> people = parser.parse(utf8, PersonNameAndOrder.class, StandardCharsets.UTF_8);
+            assertEquals(2, people.size());
+            assertEquals("Zoë Ångström \uD83D\uDE00", people.get(0).getName());
+            assertEquals("Łukasz, \"Luke\"", people.get(1).getName());
+            assertEquals(175, people.get(1).getHeight());
+
+            try(Stream<PersonNameAndOrder> stream = parser.stream(utf8, PersonNameAndOrder.class, StandardCharsets.UTF_8)) {
+                assertEquals(361, stream.mapToInt(PersonNameAndOrder::getHeight).sum());
+            }
+
+            //Other charsets are decoded by a reader
+            final File latin1 = directory.resolve("latin1.csv").toFile();
+            Files.write(latin1.toPath(), "Full name,Height\r\nZoë,170\r\n".getBytes(StandardCharsets.ISO_8859_1));
+
+            people = parser.parse(latin1, PersonNameAndOrder.class, StandardCharsets.ISO_8859_1);
+            assertEquals("Zoë", people.get(0).getName());
+
+            //Empty file
+            final File empty = directory.resolve("empty.csv").toFile();
+            Files.write(empty.toPath(), new byte[0]);
+            assertTrue(parser.parse(empty, PersonNameAndOrder.class, StandardCharsets.UTF_8).isEmpty());
+        } catch (Exception e) {
+            fail(e);
+        }
+    }
+
+    @Test
+    void parserRange(@TempDir Path directory) {
+        final StringBuilder csvContent = new StringBuilder("Full name,Birthdate,Height,Won a Nobel\n");
+        for(int i=0; i<2500; i++) {
+            csvContent.append(i % 7 == 0 ? "\"Person,\n"+i+"\"" : "Person "+i).append(",1980-02-26,").append(i).append(",true\n");
+            if(i % 500 == 0) csvContent.append("\n");
+        }
+
+        try {
+            final File file = directory.resolve("range.csv").toFile();
+            Files.write(file.toPath(), csvContent.toString().getBytes(StandardCharsets.UTF_8));
+
+            parser.useHeader(true);
+            final List<PersonNameAndOrder> all = parser.parse(file, PersonNameAndOrder.class, StandardCharsets.UTF_8);
+
+            final CSVIndex index = parser.index(file, 100);
+            assertEquals(2500, index.getRowCount());
+            assertEquals(List.of("Full name", "Birthdate", "Height", "Won a Nobel"), index.getHeader());
+
+            for(long[] range : new long[][] { {0, 10}, {95, 205}, {1234, 1235}, {2490, 3000}, {700, 700} }) {
+                final List<PersonNameAndOrder> people = parser.parseRange(file, index, range[0], range[1], PersonNameAndOrder.class);
+                assertEquals(
+                        all.subList((int) range[0], (int) Math.min(range[1], 2500)).stream().map(Object::toString).collect(Collectors.toList()),
+                        people.stream().map(Object::toString).collect(Collectors.toList())
+                );
+            }
+
+            //Sidecar index, built once and read afterwards
+            assertEquals(all.get(1500).getName(), parser.parseRange(file, 1500, 1501, PersonNameAndOrder.class).get(0).getName());
+            assertTrue(CSVIndex.sidecar(file).isFile());
+
+            final CSVIndex saved = CSVIndex.read(CSVIndex.sidecar(file));
+            assertEquals(2500, saved.getRowCount());
+            assertEquals(CSVParser.DEFAULT_INDEX_INTERVAL, saved.getInterval());
+
+            //A modified file needs a new index
+            Files.write(file.toPath(), "Full name,Height\nZoë,170\n".getBytes(StandardCharsets.UTF_8));
+            assertTrue(file.setLastModified(file.lastModified() + 2000));
+            assertThrows(IllegalArgumentException.class, () -> parser.parseRange(file, index, 0, 1, PersonNameAndOrder.class));
+            assertEquals("Zoë", parser.parseRange(file, 0, 1, PersonNameAndOrder.class).get(0).getName());
+
+            assertThrows(IndexOutOfBoundsException.class, () -> parser.parseRange(file, 5, 1, PersonNameAndOrder.class));
+        } catch (Exception e) {
+            fail(e);
+        }
+    }
+
+    @Test
+    void parserParallel(@TempDir Path directory) {
+        final StringBuilder csvContent = new StringBuilder("Full name,Birthdate,Height,Won a Nobel\n");
+        for(int i=0; i<60000; i++) {
+            //Quoted cells with delimiters, doubled quotes, line separators and escapes, so that quotes are found on every chunk boundary
+            csvContent.append(i % 3 == 0 ? "\"Person, \"\"number\"\"\n"+i+"\"" : "Person \\"+i).append(",1980-02-26,").append(100 + i % 100).append(",true\n");
+        }
+
+        final ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            final File file = directory.resolve("parallel.csv").toFile();
+            Files.write(file.toPath(), csvContent.toString().getBytes(StandardCharsets.UTF_8));
+
+            parser.useHeader(true).pool(pool);
+
+            final List<PersonNameAndOrder> expected = parser.parse(file, PersonNameAndOrder.class, StandardCharsets.UTF_8);
+            final List<PersonNameAndOrder> ordered  = parser.parseParallel(file, PersonNameAndOrder.class, StandardCharsets.UTF_8, true);
+            final List<PersonNameAndOrder> any      = parser.parseParallel(file, PersonNameAndOrder.class, StandardCharsets.UTF_8, false);
+
+            assertEquals(60000, expected.size());
+            assertEquals(expected.stream().map(Object::toString).collect(Collectors.toList()), ordered.stream().map(Object::toString).collect(Collectors.toList()));
+            assertEquals(expected.stream().map(Object::toString).sorted().collect(Collectors.toList()), any.stream().map(Object::toString).sorted().collect(Collectors.toList()));
+        } catch (Exception e) {
+            fail(e);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void parserMetrics(@TempDir Path directory) {
+        final String csvContent =
+                "Full name,Birthdate,Height,Won a Nobel\n" +
+                "Joseph Francis Tribbiani Jr.,1968-01-09,175,false\n" +
+                "Sheldon Lee Cooper,1980-02-26,186,true\n" +
+                "Leonard Hofstadter,1980-05-17,165,false\n";
+
+        final List<CSVMetrics> reported = new ArrayList<>();
+        final ForkJoinPool     pool     = new ForkJoinPool(2);
+        try {
+            parser.useHeader(true).pool(pool).metrics(reported::add);
+
+            parser.parse(csvContent, PersonNameAndOrder.class);
+            assertEquals(1, reported.size());
+
+            final CSVMetrics metrics = reported.get(0);
+            assertEquals(CSVMetrics.Operation.PARSE, metrics.getOperation());
+            assertEquals(3, metrics.getRows());
+            assertEquals(12, metrics.getCells());
+            assertEquals(csvContent.length(), metrics.getChars());
+            assertEquals(0, metrics.getBytes());
+            assertEquals(0, metrics.getFailures());
+            assertTrue(metrics.getElapsedNanos() >= metrics.getBindNanos());
+
+            //Mapped and parallel parsing report once per call
+            final File file = directory.resolve("metrics.csv").toFile();
+            Files.write(file.toPath(), csvContent.getBytes(StandardCharsets.UTF_8));
+
+            parser.parse(file, PersonNameAndOrder.class, StandardCharsets.UTF_8);
+            assertEquals(file.length(), reported.get(1).getBytes());
+            assertEquals(0, reported.get(1).getChars());
+
+            parser.parseParallel(file, PersonNameAndOrder.class, StandardCharsets.UTF_8, true);
+            assertEquals(3, reported.size());
+            assertEquals(3, reported.get(2).getRows());
+
+            //Streams report when closed
+            try(Stream<PersonNameAndOrder> people = parser.stream(file, PersonNameAndOrder.class, StandardCharsets.UTF_8)) {
+                assertEquals(1, people.limit(1).count());
+            }
+            assertEquals(1, reported.get(3).getRows());
+
+            //Failures are reported before the exception is thrown
+            assertThrows(CellCannotBeParsedException.class, () -> parser.parse(csvContent.replace("186", "tall"), PersonNameAndOrder.class));
+            assertEquals(1, reported.get(4).getRows());
+            assertEquals(1, reported.get(4).getFailures());
+
+            Files.writeString(file.toPath(), csvContent.replace("186", "tall"));
+            assertThrows(CellCannotBeParsedException.class, () -> parser.parseParallel(file, PersonNameAndOrder.class, StandardCharsets.UTF_8, true));
+            assertEquals(6, reported.size());
+            assertEquals(1, reported.get(5).getFailures());
+            Files.writeString(file.toPath(), csvContent);
+
+            //Files decoded through a reader report both the bytes and the chars
+            parser.parse(file, PersonNameAndOrder.class, StandardCharsets.ISO_8859_1);
+            assertEquals(file.length(), reported.get(6).getBytes());
+            assertEquals(csvContent.length(), reported.get(6).getChars());
+
+            //Without recording, the JFR listener does nothing
+            parser.metrics(new JfrMetricsListener()).parse(csvContent, PersonNameAndOrder.class);
+        } catch (Exception e) {
+            fail(e);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void parserErrorPolicy(@TempDir Path directory) {
+        final String csvContent =
+                "Full name,Birthdate,Height,Won a Nobel\n" +
+                "Joseph Francis Tribbiani Jr.,1968-01-09,175,false\n" +
+                "Sheldon Lee Cooper,1980-02-26,tall,true\n" +
+                "Leonard Hofstadter,1980-05-17,165,false\n" +
+                "Howard Wolowitz,yesterday,163,false\n" +
+                "Rajesh Koothrappali,1981-10-06,170\n";
+
+        final CSVErrorReport errors = new CSVErrorReport(2);
+        final ForkJoinPool   pool   = new ForkJoinPool(2);
+        try {
+            parser.useHeader(true).pool(pool).errorPolicy(ErrorPolicy.SKIP).errors(errors);
+
+            final List<PersonNameAndOrder> people = parser.parse(csvContent, PersonNameAndOrder.class);
+            assertEquals(2, people.size());
+            assertEquals("Joseph Francis Tribbiani Jr.", people.get(0).getName());
+            assertEquals("Leonard Hofstadter", people.get(1).getName());
+
+            //Only the first errors are kept
+            assertEquals(3, errors.getErrorCount());
+            assertTrue(errors.isTruncated());
+
+            final CSVParseError error = errors.getErrors().get(0);
+            assertEquals(1, error.getRow());
+            assertEquals("Height", error.getColumn());
+            assertEquals("tall", error.getValue());
+            assertEquals(3, errors.getErrors().get(1).getRow());
+            assertEquals("Birthdate", errors.getErrors().get(1).getColumn());
+
+            //The skipped rows do not count for the limit
+            assertEquals(2, parser.limit(2).parse(csvContent, PersonNameAndOrder.class).size());
+            parser.limit(Long.MAX_VALUE);
+
+            //The bad cells keep their default value
+            errors.clear();
+            final List<PersonNameAndOrder> defaults = parser.errorPolicy(ErrorPolicy.DEFAULT).parse(csvContent, PersonNameAndOrder.class);
+            assertEquals(5, defaults.size());
+            assertEquals(0, defaults.get(1).getHeight());
+            assertNull(defaults.get(3).getBirthDate());
+            assertEquals(170, defaults.get(4).getHeight());
+            assertEquals(3, errors.getErrorCount());
+            assertEquals("yesterday", errors.getErrors().get(1).getValue());
+
+            //The rows of the errors are counted from the beginning of the file, whatever the chunk or the range
+            final File file = directory.resolve("errors.csv").toFile();
+            Files.write(file.toPath(), csvContent.getBytes(StandardCharsets.UTF_8));
+
+            errors.clear();
+            parser.errorPolicy(ErrorPolicy.SKIP).errors(new CSVErrorReport()).parseRange(file, 2, 5, PersonNameAndOrder.class);
+            assertEquals(3, parser.getErrorReport().getErrors().get(0).getRow());
+            assertEquals(4, parser.getErrorReport().getErrors().get(1).getRow());
+            assertNull(parser.getErrorReport().getErrors().get(1).getValue());
+
+            parser.errors(new CSVErrorReport()).parseParallel(file, PersonNameAndOrder.class, StandardCharsets.UTF_8, true);
+            assertEquals(3, parser.getErrorReport().getErrorCount());
+
+            //Fail fast is the default
+            assertThrows(CellCannotBeParsedException.class, () -> new CSVParser().useHeader(true).parse(csvContent, PersonNameAndOrder.class));
+        } catch (Exception e) {
+            fail(e);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void parserPublisher(@TempDir Path directory) {
+        final StringBuilder csvContent = new StringBuilder("Full name,Birthdate,Height,Won a Nobel\n");
+        for(int i=0; i<5_000; i++) {
+            csvContent.append("\"Person, ").append(i).append("\",1970-01-01,").append(i).append(',').append(i % 2 == 0).append('\n');
+        }
+
+        try {
+            final Path file = directory.resolve("publisher.csv");
+            Files.writeString(file, csvContent);
+            parser.useHeader(true);
+
+            //Rows are delivered only when requested
+            final List<PersonNameAndOrder> people = new ArrayList<>();
+            final CompletableFuture<Void> done = new CompletableFuture<>();
+            parser.publisher(file, PersonNameAndOrder.class, StandardCharsets.UTF_8).subscribe(new Flow.Subscriber<>() {
+                private Flow.Subscription subscription;
+
+                @Override
+                public void onSubscribe(Flow.Subscription subscription) {
+                    this.subscription = subscription;
+                    subscription.request(100);
+                }
+
+                @Override
+                public void onNext(PersonNameAndOrder person) {
+                    people.add(person);
+                    if(people.size() % 100 == 0) subscription.request(100);
+                }
+
+                @Override
+                public void onError(Throwable throwable) { done.completeExceptionally(throwable); }
+
+                @Override
+                public void onComplete() { done.complete(null); }
+            });
+            done.get(30, TimeUnit.SECONDS);
+
+            assertEquals(5_000, people.size());
+            for(int i=0; i<people.size(); i++) {
+                assertEquals("Person, "+i, people.get(i).getName());
+                assertEquals(i, people.get(i).getHeight());
+            }
+
+            //Without the header, the rows are read from the first one and match a parse of the same file
+            final Path noHeader = directory.resolve("publisher-no-header.csv");
+            Files.writeString(noHeader, csvContent.substring(csvContent.indexOf("\n") + 1));
+            parser.useHeader(false);
+            final List<PersonNameAndOrder> unnamed = new ArrayList<>();
+            final CompletableFuture<Void> unnamedDone = new CompletableFuture<>();
+            parser.publisher(noHeader, PersonNameAndOrder.class, StandardCharsets.UTF_8).subscribe(new Flow.Subscriber<>() {
+                @Override
+                public void onSubscribe(Flow.Subscription subscription) { subscription.request(Long.MAX_VALUE); }
+
+                @Override
+                public void onNext(PersonNameAndOrder person) { unnamed.add(person); }
+
+                @Override
+                public void onError(Throwable throwable) { unnamedDone.completeExceptionally(throwable); }
+
+                @Override
+                public void onComplete() { unnamedDone.complete(null); }
+            });
+            unnamedDone.get(30, TimeUnit.SECONDS);
+            final List<PersonNameAndOrder> parsed = parser.parse(noHeader.toFile(), PersonNameAndOrder.class, StandardCharsets.UTF_8);
+            assertEquals(parsed.size(), unnamed.size());
+            for(int i=0; i<parsed.size(); i++) {
+                assertEquals(parsed.get(i).getName(), unnamed.get(i).getName());
+                assertEquals(parsed.get(i).getBirthDate(), unnamed.get(i).getBirthDate());
+                assertEquals(parsed.get(i).getHeight(), unnamed.get(i).getHeight());
+            }
+            parser.useHeader(true);
+
+            //Cancelling stops the rows
+            final List<PersonNameAndOrder> cancelled = Collections.synchronizedList(new ArrayList<>());
+            parser.publisher(file.toFile(), PersonNameAndOrder.class, StandardCharsets.UTF_8).subscribe(new Flow.Subscriber<>() {
+                private Flow.Subscription subscription;
+
+                @Override
+                public void onSubscribe(Flow.Subscription subscription) {
+                    this.subscription = subscription;
+                    subscription.request(Long.MAX_VALUE);
+                }
+
+                @Override
+                public void onNext(PersonNameAndOrder person) {
+                    cancelled.add(person);
+                    if(cancelled.size() == 10) subscription.cancel();
+                }
+
+                @Override
+                public void onError(Throwable throwable) { cancelled.clear(); }
+
+                @Override
+                public void onComplete() { cancelled.clear(); }
+            });
+            Thread.sleep(200);
+            assertEquals(10, cancelled.size());
+
+            //Errors are signaled to the subscriber
+            final CompletableFuture<Void> failed = new CompletableFuture<>();
+            parser.publisher(directory.resolve("missing.csv"), PersonNameAndOrder.class, StandardCharsets.UTF_8).subscribe(new Flow.Subscriber<>() {
+                @Override
+                public void onSubscribe(Flow.Subscription subscription) { }
+
+                @Override
+                public void onNext(PersonNameAndOrder person) { }
+
+                @Override
+                public void onError(Throwable throwable) { failed.completeExceptionally(throwable); }
+
+                @Override
+                public void onComplete() { failed.complete(null); }
+            });
+            final ExecutionException error = assertThrows(ExecutionException.class, () -> failed.get(30, TimeUnit.SECONDS));
+            assertInstanceOf(IOException.class, error.getCause());
+        } catch (Exception e) {
+            fail(e);
+        }
+    }
+
+    @Test
+    void parserRecords(@TempDir Path directory) {
+        final String csvContent =
+                "Full name,Birthdate,Height,Won a Nobel\n" +
+                "Joseph Francis Tribbiani Jr.,1968-01-09,175,false\n" +
+                "\"Cooper, Sheldon Lee\",1980-02-26,186,true\n" +
+                "Leonard Hofstadter,1980-05-17,165,false\n";
+
+        try {
+            final Iterator<CSVRecord> records = parser.useHeader(true).records(new BufferedReader(new StringReader(csvContent)));
+
+            final CSVRecord first = records.next();
+            assertEquals(0, first.getRow());
+            assertEquals(4, first.getCellCount());
+            assertEquals(Arrays.asList("Full name", "Birthdate", "Height", "Won a Nobel"), first.getHeader());
+            assertEquals("Joseph Francis Tribbiani Jr.", first.getString("Full name"));
+            assertEquals("175", first.get(2).toString());
+            assertEquals("Tribbiani", first.get(0).subSequence(15, 24).toString());
+
+            //The same record is reused for every row
+            final CSVRecord second = records.next();
+            assertSame(first, second);
+            assertEquals(1, second.getRow());
+            assertEquals(0, CharSequence.compare("Cooper, Sheldon Lee", second.get("Full name")));
+            assertEquals("true", second.getString(3));
+            assertTrue(second.hasColumn("Height"));
+            assertFalse(second.hasColumn("Age"));
+            assertThrows(IllegalArgumentException.class, () -> second.get("Age"));
+            assertThrows(IndexOutOfBoundsException.class, () -> second.get(4));
+
+            records.next();
+            assertFalse(records.hasNext());
+
+            //Filters and limit are applied, files are closed with the stream
+            final Path file = directory.resolve("records.csv");
+            Files.writeString(file, csvContent);
+
+            parser.where("Won a Nobel", "false"::equals).limit(1);
+            try(Stream<CSVRecord> stream = parser.records(file, StandardCharsets.UTF_8)) {
+                assertEquals(Collections.singletonList("Joseph Francis Tribbiani Jr."), stream.map(record -> record.getString(0)).collect(Collectors.toList()));
+            }
+
+            //Records report their metrics once exhausted or closed
+            final List<CSVMetrics> reported = new ArrayList<>();
+            parser.metrics(reported::add).limit(Long.MAX_VALUE);
+            parser.records(new BufferedReader(new StringReader(csvContent))).forEachRemaining(record -> { });
+            assertEquals(1, reported.size());
+            assertEquals(2, reported.get(0).getRows());
+            assertEquals(8, reported.get(0).getCells());
+            assertEquals(csvContent.length(), reported.get(0).getChars());
+
+            try(Stream<CSVRecord> stream = parser.records(file, StandardCharsets.UTF_8)) {
+                assertEquals(1, stream.limit(1).count());
+            }
+            assertEquals(2, reported.size());
+            assertEquals(1, reported.get(1).getRows());
+
+            //Without header, cells are read by index only
+            final Iterator<CSVRecord> noHeader = new CSVParser().lineSeparator(LineSeparator.LF).records(new BufferedReader(new StringReader(csvContent)));
+            final CSVRecord header = noHeader.next();
+            assertNull(header.getHeader());
+            assertEquals("Full name", header.get(0).toString());
+            assertThrows(IllegalStateException.class, () -> header.get("Full name"));
+        } catch (Exception e) {
+            fail(e);
+        }
+    }
+
+    @Test
+    void parserFilterShortRow() {
+        final String csvContent =
+                "Full name,Birthdate,Height,Won a Nobel\n" +
+                "Joseph Francis Tribbiani Jr.,1968-01-09,175,false\n" +
+                "Sheldon Lee Cooper,1980-02-26\n" +
+                "Leonard Hofstadter,1980-05-17,165,false\n";
+
+        try {
+            parser.useHeader(true).where("Won a Nobel", "false"::equals);
+
+            //Fail fast stops on the short row
+            final CSVCannotBeParsedException e = assertThrows(CSVCannotBeParsedException.class, () -> parser.parse(csvContent, PersonNameAndOrder.class));
+            assertInstanceOf(IndexOutOfBoundsException.class, e.getCause());
+            assertThrows(CSVCannotBeParsedException.class, () -> parser.records(new BufferedReader(new StringReader(csvContent))).forEachRemaining(record -> { }));
+
+            //Lenient policies record the error and leave the row out
+            for(ErrorPolicy policy : new ErrorPolicy[]{ ErrorPolicy.SKIP, ErrorPolicy.DEFAULT }) {
+                final CSVErrorReport errors = new CSVErrorReport();
+                final List<PersonNameAndOrder> people = parser.errorPolicy(policy).errors(errors).parse(csvContent, PersonNameAndOrder.class);
+
+                assertEquals(2, people.size(), policy.name());
+                assertEquals("Leonard Hofstadter", people.get(1).getName());
+                assertEquals(1, errors.getErrorCount());
+                assertEquals(1, errors.getErrors().get(0).getRow());
+                assertEquals("Won a Nobel", errors.getErrors().get(0).getColumn());
+                assertNull(errors.getErrors().get(0).getValue());
+
+                final Iterator<CSVRecord> records = parser.records(new BufferedReader(new StringReader(csvContent)));
+                assertEquals(0, records.next().getRow());
+                assertEquals(2, records.next().getRow());
+                assertFalse(records.hasNext());
+                assertEquals(2, errors.getErrorCount());
+            }
+        } catch (Exception e) {
+            fail(e);
+        }
+    }
+
+}
@@ -0,0 +1,144 @@
+package io.intrinsicgray.utilcsv.converter;
+
+import io.intrinsicgray.utilcsv.exception.CellCannotBeParsedException;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.Month;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CellConvertersTests {
+
+    private static char[] cell(String value) {
+        return ("|" + value + "|").toCharArray();
+    }
+
+    private static int parseInt(String value) {
+        return CellConverters.parseInt(cell(value), 1, value.length());
+    }
+
+    private static long parseLong(String value) {
+        return CellConverters.parseLong(cell(value), 1, value.length());
+    }
+
+    private static double parseDouble(String value) {
+        return CellConverters.parseDouble(cell(value), 1, value.length());
+    }
+
+    private static boolean parseBoolean(String value) {
+        return CellConverters.parseBoolean(cell(value), 1, value.length());
+    }
+
+
+
+    @Test
+    void convertersInt() {
+        assertEquals(0, parseInt("0"));
+        assertEquals(175, parseInt(" 175 "));
+        assertEquals(-42, parseInt("-42"));
+        assertEquals(Integer.MAX_VALUE, parseInt("2147483647"));
+        assertEquals(Integer.MIN_VALUE, parseInt("-2147483648"));
+
+        assertThrows(CellCannotBeParsedException.class, () -> parseInt("2147483648"));
+        assertThrows(CellCannotBeParsedException.class, () -> parseInt(""));
+        assertThrows(CellCannotBeParsedException.class, () -> parseInt("-"));
+        assertThrows(CellCannotBeParsedException.class, () -> parseInt("1.5"));
+    }
+
+    @Test
+    void convertersLong() {
+        assertEquals(Long.MAX_VALUE, parseLong("9223372036854775807"));
+        assertEquals(Long.MIN_VALUE, parseLong("-9223372036854775808"));
+
+        assertThrows(CellCannotBeParsedException.class, () -> parseLong("9223372036854775808"));
+    }
+
+    @Test
+    void convertersDouble() {
+        for(String value : new String[]{ "0", "-0.0", "1.5", ".5", "3.", "186.25", "-1e10", "1.7976931348623157E308",
+                "0.1", "123456789012345", "1234567890123456789", "4.9e-324", "2.5E-3", "NaN", "-Infinity", "1d" }) {
+            assertEquals(Double.parseDouble(value), parseDouble(value), value);
+        }
+
+        assertThrows(CellCannotBeParsedException.class, () -> parseDouble(""));
+        assertThrows(CellCannotBeParsedException.class, () -> parseDouble("1e"));
+        assertThrows(CellCannotBeParsedException.class, () -> parseDouble("abc"));
+    }
+
+    @Test
+    void convertersUUID() {
+        for(String value : new String[]{ "6f1c2a3e-1b2c-4d5e-8f90-123456789abc", "FFFFFFFF-FFFF-FFFF-FFFF-FFFFFFFFFFFF", "00000000-0000-0000-0000-000000000000", "1-2-3-4-5" }) {
+            assertEquals(UUID.fromString(value), CellConverters.UUID.parse(cell(value), 1, value.length()), value);
+        }
+
+        final String invalid = "6f1c2a3e-1b2c-4d5e-8f90-123456789abg";
+        assertThrows(CellCannotBeParsedException.class, () -> CellConverters.UUID.parse(cell(invalid), 1, invalid.length()));
+    }
+
+    @Test
+    void convertersBoolean() {
+        assertTrue(parseBoolean("true"));
+        assertTrue(parseBoolean("TRUE"));
+        assertFalse(parseBoolean("false"));
+        assertFalse(parseBoolean("yes"));
+        assertFalse(parseBoolean(""));
+    }
+
+    @Test
+    void convertersForType() {
+        assertSame(CellConverters.INT, CellConverters.forType(int.class));
+        assertSame(CellConverters.LONG, CellConverters.forType(Long.class));
+        assertNull(CellConverters.forType(Object.class));
+
+        assertEquals((short) -12, CellConverters.forType(short.class).parse(cell("-12"), 1, 3));
+        assertEquals('x', CellConverters.forType(char.class).parse(cell("x"), 1, 1));
+        assertEquals(Month.MAY, CellConverters.forType(Month.class).parse(cell("MAY"), 1, 3));
+
+        assertThrows(CellCannotBeParsedException.class, () -> CellConverters.forType(byte.class).parse(cell("128"), 1, 3));
+        assertThrows(CellCannotBeParsedException.class, () -> CellConverters.forType(Month.class).parse(cell("MAI"), 1, 3));
+    }
+
+    @Test
+    void convertersEnum() {
+        final CellConverter<Month> converter = CellConverters.forType(Month.class);
+
+        for(Month month : Month.values()) {
+            assertSame(month, converter.parse(cell(month.name()), 1, month.name().length()));
+        }
+        assertSame(converter, CellConverters.forType(Month.class));
+        assertThrows(CellCannotBeParsedException.class, () -> converter.parse(cell("may"), 1, 3));
+        assertThrows(CellCannotBeParsedException.class, () -> converter.parse(cell(""), 1, 0));
+    }
+
+    @Test
+    void convertersDictionary() {
+        final CellConverter<String> converter = CellConverters.dictionary(2);
+
+        final String eur = converter.parse(cell("EUR"), 1, 3);
+        assertSame(eur, converter.parse("EUR,USD".toCharArray(), 0, 3));
+        assertEquals("USD", converter.parse("EUR,USD".toCharArray(), 4, 3));
+
+        //Full dictionary: new values are still parsed, but not kept
+        final String gbp = converter.parse(cell("GBP"), 1, 3);
+        assertEquals("GBP", gbp);
+        assertNotSame(gbp, converter.parse(cell("GBP"), 1, 3));
+
+        assertThrows(IllegalArgumentException.class, () -> CellConverters.dictionary(-1));
+    }
+
+    @Test
+    void convertersOfPattern() {
+        final CellConverter<LocalDate> converter = CellConverters.ofPattern(LocalDate.class, "dd/MM/yyyy");
+
+        assertEquals(LocalDate.of(1980, Month.FEBRUARY, 26), converter.parse(cell("26/02/1980"), 1, 10));
+        assertEquals("26/02/1980", converter.format(LocalDate.of(1980, Month.FEBRUARY, 26)));
+        assertThrows(CellCannotBeParsedException.class, () -> converter.parse(cell("1980-02-26"), 1, 10));
+
+        assertNull(CellConverters.ofPattern(String.class, "dd/MM/yyyy"));
+        assertThrows(IllegalArgumentException.class, () -> CellConverters.ofPattern(LocalDate.class, "dd/MM/yyyyb"));
+    }
+
+}
@@ -0,0 +1,41 @@
+package io.intrinsicgray.utilcsv.example;
+
+import io.intrinsicgray.utilcsv.CSVColumn;
+
+import java.time.LocalDate;
+
+public class PersonWithoutAccessors {
+
+    @CSVColumn(name = "Full name", order = 1)
+    private String name;
+
+    @CSVColumn(name = "Birthdate", order = 2)
+    private LocalDate birthDate;
+
+    @CSVColumn(name = "Height", order = 3)
+    private int height;
+
+    @CSVColumn(name = "Won a Nobel", order = 4)
+    private boolean nobel;
+
+
+    public PersonWithoutAccessors() { }
+
+    public PersonWithoutAccessors(String name, LocalDate birthDate, int height, boolean nobel) {
+        this.name      = name;
+        this.birthDate = birthDate;
+        this.height    = height;
+        this.nobel     = nobel;
+    }
+
+
+    @Override
+    public String toString() {
+        return "Person{" +
+                "name='" + name + '\'' +
+                ", birthDate=" + birthDate +
+                ", height=" + height +
+                ", nobel=" + nobel +
+                '}';
+    }
+}
@@ -0,0 +1,54 @@
+package io.intrinsicgray.utilcsv.example;
+
+import io.intrinsicgray.utilcsv.CSVColumn;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.UUID;
+
+public class Transaction {
+
+    @CSVColumn(name = "Id", order = 1)
+    private UUID id;
+
+    @CSVColumn(name = "Date", order = 2, format = "dd/MM/yyyy")
+    private LocalDate date;
+
+    @CSVColumn(name = "Amount", order = 3)
+    private BigDecimal amount;
+
+    @CSVColumn(name = "Account", order = 4)
+    private long account;
+
+    @CSVColumn(name = "Rate", order = 5)
+    private float rate;
+
+    @CSVColumn(name = "Created", order = 6)
+    private Instant created;
+
+    @CSVColumn(name = "Currency", order = 7, dictionary = true)
+    private String currency;
+
+
+    public UUID getId() { return id; }
+    public void setId(UUID id) { this.id = id; }
+
+    public LocalDate getDate() { return date; }
+    public void setDate(LocalDate date) { this.date = date; }
+
+    public BigDecimal getAmount() { return amount; }
+    public void setAmount(BigDecimal amount) { this.amount = amount; }
+
+    public long getAccount() { return account; }
+    public void setAccount(long account) { this.account = account; }
+
+    public float getRate() { return rate; }
+    public void setRate(float rate) { this.rate = rate; }
+
+    public Instant getCreated() { return created; }
+    public void setCreated(Instant created) { this.created = created; }
+
+    public String getCurrency() { return currency; }
+    public void setCurrency(String currency) { this.currency = currency; }
+}
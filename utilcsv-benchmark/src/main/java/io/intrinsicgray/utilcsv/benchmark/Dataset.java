@@ -0,0 +1,131 @@
+package io.intrinsicgray.utilcsv.benchmark;
+
+import io.intrinsicgray.utilcsv.CSVFormatter;
+import io.intrinsicgray.utilcsv.CSVIndex;
+import io.intrinsicgray.utilcsv.CSVParser;
+import io.intrinsicgray.utilcsv.LineSeparator;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.File;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * Generated dataset shared by the benchmarks of a trial.
+ * The rows are generated from a fixed seed, so every run (and every version of the library) works on the same data,
+ * and are kept both as objects (input of the formatter) and as CSV content, in memory and in a temporary UTF-8 file (input of the parser).
+ *
+ * <p>Parameters:</p>
+ * <ul>
+ *     <li>rows - The number of rows</li>
+ *     <li>width - The length of the free text column</li>
+ *     <li>quotedRatio - The fraction of rows whose text contains the delimiter, so the cell is quoted</li>
+ *     <li>lineSeparator - The separator between the rows</li>
+ *     <li>type - The DTO of the rows: {@link Person} (few, small columns) or {@link Transaction} (many column types)</li>
+ * </ul>
+ *
+ * @author Intrinsic gray (mdegiovanni97@gmail.com)
+ * @version 0.2.0
+ * @since 0.2.0
+ */
+@State(Scope.Benchmark)
+public class Dataset {
+
+    private static final long     SEED       = 42;
+    private static final String[] CURRENCIES = { "EUR", "USD", "GBP", "JPY", "CHF" };
+
+    @Param({"1000", "100000"})
+    public int rows;
+
+    @Param({"8", "64"})
+    public int width;
+
+    @Param({"0.0", "0.5"})
+    public double quotedRatio;
+
+    @Param({"LF", "CRLF"})
+    public LineSeparator lineSeparator;
+
+    @Param({"PERSON", "TRANSACTION"})
+    public String type;
+
+    public CSVParser    parser;
+    public CSVFormatter formatter;
+    public Class<?>     rowClass;
+    public List<?>      objects;
+    public String       content;
+    public File         file;
+    public File         output;
+    public CSVIndex     index;
+
+
+    // Private methods
+    private static String text(Random random, int width, boolean quoted) {
+        final StringBuilder text = new StringBuilder(width);
+        for(int i=0; i<width; i++) {
+            text.append((char) ('a' + random.nextInt(26)));
+        }
+        if(quoted && width > 1) text.setCharAt(width / 2, ',');
+        return text.toString();
+    }
+
+    private List<?> generate() {
+        final Random  random   = new Random(SEED);
+        final boolean isPerson = "PERSON".equals(type);
+
+        final List<Object> result = new ArrayList<>(rows);
+        for(int i=0; i<rows; i++) {
+            final String text = text(random, width, random.nextDouble() < quotedRatio);
+
+            if(isPerson) {
+                result.add(new Person(text, LocalDate.of(1950, 1, 1).plusDays(random.nextInt(25_000)), 150 + random.nextInt(60), random.nextBoolean()));
+            } else {
+                result.add(new Transaction(
+                        new UUID(random.nextLong(), random.nextLong()),
+                        LocalDate.of(2000, 1, 1).plusDays(random.nextInt(9_000)),
+                        BigDecimal.valueOf(random.nextInt(10_000_000), 2),
+                        random.nextLong(),
+                        random.nextFloat(),
+                        Instant.ofEpochSecond(946_684_800L + random.nextInt(Integer.MAX_VALUE)),
+                        CURRENCIES[random.nextInt(CURRENCIES.length)],
+                        text
+                ));
+            }
+        }
+        return result;
+    }
+
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        parser    = new CSVParser().lineSeparator(lineSeparator).useHeader(true);
+        formatter = new CSVFormatter().lineSeparator(lineSeparator).useHeader(true);
+        rowClass  = "PERSON".equals(type) ? Person.class : Transaction.class;
+        objects   = generate();
+        content   = formatter.format(objects);
+
+        file   = File.createTempFile("utilcsv-benchmark", ".csv");
+        output = File.createTempFile("utilcsv-benchmark", ".out.csv");
+        Files.writeString(file.toPath(), content);
+        index = parser.index(file, CSVParser.DEFAULT_INDEX_INTERVAL);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file.toPath());
+        Files.deleteIfExists(output.toPath());
+        Files.deleteIfExists(CSVIndex.sidecar(file).toPath());
+    }
+}
@@ -0,0 +1,100 @@
+package io.intrinsicgray.utilcsv.benchmark;
+
+import io.intrinsicgray.utilcsv.RowSink;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of the public format overloads of {@link io.intrinsicgray.utilcsv.CSVFormatter}.
+ * Each invocation formats the whole {@link Dataset}. The overloads taking a writer write to a null writer,
+ * so only the formatting is measured, the others write to a temporary file.
+ * Run with "-prof gc" to get the allocation rate too.
+ *
+ * @author Intrinsic gray (mdegiovanni97@gmail.com)
+ * @version 0.2.0
+ * @since 0.2.0
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FormatBenchmark {
+
+    // Private methods
+    @SuppressWarnings("unchecked")
+    private static <T> List<T> objects(Dataset data) { return (List<T>) data.objects; }
+
+    @SuppressWarnings("unchecked")
+    private static <T> Class<T> rowClass(Dataset data) { return (Class<T>) data.rowClass; }
+
+
+    @Benchmark
+    public String formatString(Dataset data) throws IOException {
+        return data.formatter.format(data.objects);
+    }
+
+    @Benchmark
+    public void formatList(Dataset data) throws IOException {
+        try(final BufferedWriter writer = new BufferedWriter(Writer.nullWriter())) {
+            data.formatter.format(data.objects, writer);
+        }
+    }
+
+    @Benchmark
+    public void formatIterator(Dataset data) throws IOException {
+        try(final BufferedWriter writer = new BufferedWriter(Writer.nullWriter())) {
+            data.formatter.format(objects(data).iterator(), rowClass(data), writer);
+        }
+    }
+
+    @Benchmark
+    public void formatStream(Dataset data) throws IOException {
+        try(final BufferedWriter writer = new BufferedWriter(Writer.nullWriter())) {
+            data.formatter.format(objects(data).stream(), rowClass(data), writer);
+        }
+    }
+
+    @Benchmark
+    public void formatSink(Dataset data) throws IOException {
+        try(final RowSink<Object> sink = data.formatter.sink(rowClass(data), Writer.nullWriter())) {
+            for(Object row : data.objects) {
+                sink.write(row);
+            }
+        }
+    }
+
+    @Benchmark
+    public void formatParallel(Dataset data) throws IOException {
+        data.formatter.formatParallel(objects(data).iterator(), rowClass(data), Writer.nullWriter());
+    }
+
+    @Benchmark
+    public File formatFile(Dataset data) throws IOException {
+        return data.formatter.format(data.objects, data.output);
+    }
+
+    @Benchmark
+    public Path formatPath(Dataset data) throws IOException {
+        return data.formatter.format(data.objects, data.output.toPath(), StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public Path formatParallelPath(Dataset data) throws IOException {
+        return data.formatter.formatParallel(data.objects, data.output.toPath(), StandardCharsets.UTF_8);
+    }
+}
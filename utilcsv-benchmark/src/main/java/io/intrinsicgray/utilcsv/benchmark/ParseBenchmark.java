@@ -0,0 +1,103 @@
+package io.intrinsicgray.utilcsv.benchmark;
+
+import io.intrinsicgray.utilcsv.CSVRecord;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Throughput of the public parse overloads of {@link io.intrinsicgray.utilcsv.CSVParser}.
+ * Each invocation parses the whole {@link Dataset} (or a range of 100 rows in the middle of it, for parseRange).
+ * Run with "-prof gc" to get the allocation rate too.
+ *
+ * @author Intrinsic gray (mdegiovanni97@gmail.com)
+ * @version 0.2.0
+ * @since 0.2.0
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ParseBenchmark {
+
+    private static final int RANGE_ROWS = 100;
+
+
+    // Private methods
+    private static void consume(Stream<?> rows, Blackhole blackhole) {
+        try(rows) {
+            rows.forEach(blackhole::consume);
+        }
+    }
+
+
+    @Benchmark
+    public List<?> parseString(Dataset data) throws IOException {
+        return data.parser.parse(data.content, data.rowClass);
+    }
+
+    @Benchmark
+    public List<?> parseReader(Dataset data) throws IOException {
+        return data.parser.parse(new BufferedReader(new StringReader(data.content)), data.rowClass);
+    }
+
+    @Benchmark
+    public List<?> parseFile(Dataset data) throws IOException {
+        return data.parser.parse(data.file, data.rowClass, StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public List<?> parsePath(Dataset data) throws IOException {
+        return data.parser.parse(data.file.toPath(), data.rowClass, StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public List<?> parseParallel(Dataset data) throws IOException {
+        return data.parser.parseParallel(data.file, data.rowClass, StandardCharsets.UTF_8, true);
+    }
+
+    @Benchmark
+    public List<?> parseRange(Dataset data) throws IOException {
+        final long from = data.rows / 2;
+        return data.parser.parseRange(data.file, data.index, from, from + RANGE_ROWS, data.rowClass);
+    }
+
+    @Benchmark
+    public void streamReader(Dataset data, Blackhole blackhole) throws IOException {
+        consume(data.parser.stream(new BufferedReader(new StringReader(data.content)), data.rowClass), blackhole);
+    }
+
+    @Benchmark
+    public void streamFile(Dataset data, Blackhole blackhole) throws IOException {
+        consume(data.parser.stream(data.file, data.rowClass, StandardCharsets.UTF_8), blackhole);
+    }
+
+    @Benchmark
+    public void streamPath(Dataset data, Blackhole blackhole) throws IOException {
+        consume(data.parser.stream(data.file.toPath(), data.rowClass, StandardCharsets.UTF_8), blackhole);
+    }
+
+    /**
+     * Raw records, reading the first cell of each row without creating a string
+     */
+    @Benchmark
+    public void recordsPath(Dataset data, Blackhole blackhole) throws IOException {
+        try(Stream<CSVRecord> records = data.parser.records(data.file.toPath(), StandardCharsets.UTF_8)) {
+            records.forEach(record -> blackhole.consume(record.get(0).length()));
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package io.intrinsicgray.utilcsv.benchmark;
+
+import io.intrinsicgray.utilcsv.CSVColumn;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.UUID;
+
+public class Transaction {
+
+    @CSVColumn(name = "Id", order = 1)
+    private UUID id;
+
+    @CSVColumn(name = "Date", order = 2, format = "dd/MM/yyyy")
+    private LocalDate date;
+
+    @CSVColumn(name = "Amount", order = 3)
+    private BigDecimal amount;
+
+    @CSVColumn(name = "Account", order = 4)
+    private long account;
+
+    @CSVColumn(name = "Rate", order = 5)
+    private float rate;
+
+    @CSVColumn(name = "Created", order = 6)
+    private Instant created;
+
+    @CSVColumn(name = "Currency", order = 7, dictionary = true)
+    private String currency;
+
+    @CSVColumn(name = "Description", order = 8)
+    private String description;
+
+
+    public Transaction() { }
+
+    public Transaction(UUID id, LocalDate date, BigDecimal amount, long account, float rate, Instant created, String currency, String description) {
+        this.id          = id;
+        this.date        = date;
+        this.amount      = amount;
+        this.account     = account;
+        this.rate        = rate;
+        this.created     = created;
+        this.currency    = currency;
+        this.description = description;
+    }
+
+
+    public UUID getId() { return id; }
+    public void setId(UUID id) { this.id = id; }
+
+    public LocalDate getDate() { return date; }
+    public void setDate(LocalDate date) { this.date = date; }
+
+    public BigDecimal getAmount() { return amount; }
+    public void setAmount(BigDecimal amount) { this.amount = amount; }
+
+    public long getAccount() { return account; }
+    public void setAccount(long account) { this.account = account; }
+
+    public float getRate() { return rate; }
+    public void setRate(float rate) { this.rate = rate; }
+
+    public Instant getCreated() { return created; }
+    public void setCreated(Instant created) { this.created = created; }
+
+    public String getCurrency() { return currency; }
+    public void setCurrency(String currency) { this.currency = currency; }
+
+    public String getDescription() { return description; }
+    public void setDescription(String description) { this.description = description; }
+}
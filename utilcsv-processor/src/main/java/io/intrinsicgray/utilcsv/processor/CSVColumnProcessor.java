@@ -0,0 +1,382 @@
+package io.intrinsicgray.utilcsv.processor;
+
+import javax.annotation.processing.*;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.*;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+
+import java.io.BufferedReader;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.NoSuchFileException;
+import java.util.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Annotation processor generating a reflection-free {@code RowReader}/{@code RowWriter} for every
+ * class with fields annotated with {@code @CSVColumn}.
+ *
+ * <p>For a class {@code com.example.Person} the processor generates {@code com.example.Person_CSVMapper},
+ * which {@code CSVParser} and {@code CSVFormatter} load by its name. The mapper is also registered in {@code META-INF/services},
+ * so it can be found through the {@link java.util.ServiceLoader}. A GraalVM native-image {@code reflect-config.json}
+ * exposes the annotated fields (their annotations are still read once per class at runtime) and the constructor of the mappers.</p>
+ *
+ * <p>On incremental builds only the recompiled classes are processed, so the entries already written
+ * in {@code META-INF/services} and in {@code reflect-config.json} are read back and merged with the new ones.
+ * An entry is dropped once its mapper (or class) cannot be found anymore; a mapper whose class is no longer annotated
+ * but still compiles keeps its entry until a clean build.</p>
+ *
+ * <p>Classes that cannot be accessed from a generated class in the same package (private classes,
+ * generic classes, classes without a non-private no-args constructor) are skipped with a warning:
+ * the library falls back to reflection for them.</p>
+ *
+ * <p>Usage example (Maven):</p>
+ * <pre>
+ * &lt;annotationProcessorPaths&gt;
+ *     &lt;path&gt;
+ *         &lt;groupId&gt;io.github.intrinsicgray&lt;/groupId&gt;
+ *         &lt;artifactId&gt;utilcsv-processor&lt;/artifactId&gt;
+ *         &lt;version&gt;0.1.2&lt;/version&gt;
+ *     &lt;/path&gt;
+ * &lt;/annotationProcessorPaths&gt;
+ * </pre>
+ *
+ * @author Intrinsic gray (mdegiovanni97@gmail.com)
+ * @version 0.2.0
+ * @since 0.2.0
+ */
+@SupportedAnnotationTypes(CSVColumnProcessor.CSV_COLUMN)
+public class CSVColumnProcessor extends AbstractProcessor {
+
+    static final String CSV_COLUMN = "io.intrinsicgray.utilcsv.CSVColumn";
+
+    private static final String ROW_READER = "io.intrinsicgray.utilcsv.RowReader";
+    private static final String ROW_WRITER = "io.intrinsicgray.utilcsv.RowWriter";
+    private static final String GENERATED  = "javax.annotation.processing.Generated";
+
+    private static final String SUFFIX         = "_CSVMapper";
+    private static final String REFLECT_CONFIG = "META-INF/native-image/utilcsv-generated/reflect-config.json";
+
+    private static final Pattern REFLECT_CONFIG_NAME = Pattern.compile("\"name\"\\s*:\\s*\"([^\"]+)\"");
+
+    private final Set<String> generatedMappers = new TreeSet<>();
+    private final Set<String> mappedClasses    = new TreeSet<>();
+
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        final Map<TypeElement, List<VariableElement>> classes = new LinkedHashMap<>();
+
+        for(TypeElement annotation : annotations) {
+            for(VariableElement field : ElementFilter.fieldsIn(roundEnv.getElementsAnnotatedWith(annotation))) {
+                classes.computeIfAbsent((TypeElement) field.getEnclosingElement(), type -> new ArrayList<>()).add(field);
+            }
+        }
+
+        for(Map.Entry<TypeElement, List<VariableElement>> entry : classes.entrySet()) {
+            if(canBeMapped(entry.getKey())) {
+                generateMapper(entry.getKey(), entry.getValue());
+            }
+        }
+
+        if(roundEnv.processingOver() && !generatedMappers.isEmpty()) {
+            writeServices();
+            writeReflectConfig();
+        }
+
+        return false;
+    }
+
+
+    // Private methods
+    private void warning(Element element, String message) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING, message + ", reflection will be used at runtime", element);
+    }
+
+    private boolean canBeMapped(TypeElement type) {
+        for(Element element = type; element instanceof TypeElement; element = element.getEnclosingElement()) {
+            if(element.getModifiers().contains(Modifier.PRIVATE)) {
+                warning(type, "UtilCSV mapper not generated for private class "+type.getQualifiedName());
+                return false;
+            }
+        }
+        if(type.getNestingKind().isNested() && !type.getModifiers().contains(Modifier.STATIC)) {
+            warning(type, "UtilCSV mapper not generated for inner class "+type.getQualifiedName());
+            return false;
+        }
+        if(!type.getTypeParameters().isEmpty()) {
+            warning(type, "UtilCSV mapper not generated for generic class "+type.getQualifiedName());
+            return false;
+        }
+        if(type.getModifiers().contains(Modifier.ABSTRACT)) {
+            warning(type, "UtilCSV mapper not generated for abstract class "+type.getQualifiedName());
+            return false;
+        }
+
+        final boolean hasConstructor = ElementFilter.constructorsIn(type.getEnclosedElements())
+                .stream()
+                .anyMatch(constructor -> constructor.getParameters().isEmpty() && !constructor.getModifiers().contains(Modifier.PRIVATE));
+
+        if(!hasConstructor) {
+            warning(type, "UtilCSV mapper not generated for "+type.getQualifiedName()+" (no accessible no-args constructor)");
+        }
+        return hasConstructor;
+    }
+
+    /**
+     * The {@code @Generated} annotation is in the java.compiler module: it is only used if the class of the mapper can read it
+     */
+    private boolean canAnnotateGenerated(TypeElement type) {
+        final TypeElement generated = processingEnv.getElementUtils().getTypeElement(GENERATED);
+        if(generated == null) return false;
+
+        final ModuleElement module = processingEnv.getElementUtils().getModuleOf(type);
+        if(module == null || module.isUnnamed()) return true;
+
+        final ModuleElement generatedModule = processingEnv.getElementUtils().getModuleOf(generated);
+        return ElementFilter.requiresIn(module.getDirectives())
+                .stream()
+                .anyMatch(requires -> requires.getDependency().equals(generatedModule));
+    }
+
+    private static String capitalize(String str) {
+        return str.substring(0,1).toUpperCase() + str.substring(1);
+    }
+
+    private ExecutableElement findMethod(TypeElement type, String name, int parameters) {
+        return ElementFilter.methodsIn(processingEnv.getElementUtils().getAllMembers(type))
+                .stream()
+                .filter(method -> method.getSimpleName().contentEquals(name))
+                .filter(method -> method.getParameters().size() == parameters)
+                .filter(method -> !method.getModifiers().contains(Modifier.PRIVATE) && !method.getModifiers().contains(Modifier.STATIC))
+                .findFirst()
+                .orElse(null);
+    }
+
+    private boolean isAccessible(VariableElement field) {
+        return !field.getModifiers().contains(Modifier.PRIVATE) && !field.getModifiers().contains(Modifier.STATIC);
+    }
+
+    private String castType(TypeMirror type) {
+        if(type.getKind().isPrimitive()) {
+            return processingEnv.getTypeUtils().boxedClass(processingEnv.getTypeUtils().getPrimitiveType(type.getKind())).getQualifiedName().toString();
+        }
+        return processingEnv.getTypeUtils().erasure(type).toString();
+    }
+
+    /**
+     * @param primitive If true, the value is written without being cast (and unboxed)
+     */
+    private String setterCode(TypeElement type, VariableElement field, boolean fieldAccess, boolean primitive) {
+        final String name = field.getSimpleName().toString();
+        final String cast = primitive ? "v" : "(" + castType(field.asType()) + ") v";
+
+        if(fieldAccess) {
+            return isAccessible(field) && !field.getModifiers().contains(Modifier.FINAL) ? "(t, v) -> t." + name + " = " + cast : "null";
+        }
+
+        final ExecutableElement setter = findMethod(type, "set" + capitalize(name), 1);
+        return setter != null && processingEnv.getTypeUtils().isSameType(setter.getParameters().get(0).asType(), field.asType())
+                ? "(t, v) -> t.set" + capitalize(name) + "(" + cast + ")"
+                : "null";
+    }
+
+    private String getterCode(TypeElement type, VariableElement field, boolean fieldAccess) {
+        final String name = field.getSimpleName().toString();
+
+        if(fieldAccess) {
+            return isAccessible(field) ? "t -> t." + name : "null";
+        }
+
+        final String getterName = (field.asType().getKind() == TypeKind.BOOLEAN ? "is" : "get") + capitalize(name);
+        return findMethod(type, getterName, 0) != null ? "t -> t." + getterName + "()" : "null";
+    }
+
+    /**
+     * Append the unboxed setter and getter of the fields of a primitive type, if any
+     */
+    private void appendPrimitiveAccessors(StringBuilder code, TypeElement type, List<VariableElement> fields, TypeKind kind,
+                                          String setterName, String setterType, String getterName, String getterType) {
+        final String typeName = type.getQualifiedName().toString();
+        final List<VariableElement> primitiveFields = fields.stream()
+                .filter(field -> field.asType().getKind() == kind)
+                .collect(Collectors.toList());
+
+        if(primitiveFields.isEmpty()) return;
+
+        code.append("\n")
+            .append("    @Override\n")
+            .append("    public ").append(setterType).append('<').append(typeName).append("> ").append(setterName).append("(String field, boolean fieldAccess) {\n")
+            .append("        switch (field) {\n");
+        for(VariableElement field : primitiveFields) {
+            code.append("            case \"").append(field.getSimpleName()).append("\": return fieldAccess ? ")
+                .append(setterCode(type, field, true, true)).append(" : ").append(setterCode(type, field, false, true)).append(";\n");
+        }
+        code.append("            default: return null;\n")
+            .append("        }\n")
+            .append("    }\n\n")
+
+            .append("    @Override\n")
+            .append("    public ").append(getterType).append('<').append(typeName).append("> ").append(getterName).append("(String field, boolean fieldAccess) {\n")
+            .append("        switch (field) {\n");
+        for(VariableElement field : primitiveFields) {
+            code.append("            case \"").append(field.getSimpleName()).append("\": return fieldAccess ? ")
+                .append(getterCode(type, field, true)).append(" : ").append(getterCode(type, field, false)).append(";\n");
+        }
+        code.append("            default: return null;\n")
+            .append("        }\n")
+            .append("    }\n");
+    }
+
+    private void generateMapper(TypeElement type, List<VariableElement> fields) {
+        final String packageName = processingEnv.getElementUtils().getPackageOf(type).getQualifiedName().toString();
+        final String typeName    = type.getQualifiedName().toString();
+        final String binaryName  = processingEnv.getElementUtils().getBinaryName(type).toString();
+        final String mapperName  = binaryName.substring(packageName.isEmpty() ? 0 : packageName.length() + 1).replace('$', '_') + SUFFIX;
+
+        final StringBuilder code = new StringBuilder();
+        if(!packageName.isEmpty()) {
+            code.append("package ").append(packageName).append(";\n\n");
+        }
+
+        if(canAnnotateGenerated(type)) {
+            code.append('@').append(GENERATED).append("(\"").append(getClass().getName()).append("\")\n");
+        }
+
+        code.append("public final class ").append(mapperName)
+            .append(" implements ").append(ROW_READER).append('<').append(typeName).append(">, ")
+            .append(ROW_WRITER).append('<').append(typeName).append("> {\n\n")
+
+            .append("    @Override\n")
+            .append("    public Class<").append(typeName).append("> type() { return ").append(typeName).append(".class; }\n\n")
+
+            .append("    @Override\n")
+            .append("    public ").append(typeName).append(" newInstance() { return new ").append(typeName).append("(); }\n\n")
+
+            .append("    @Override\n")
+            .append("    public java.util.function.BiConsumer<").append(typeName).append(", Object> setter(String field, boolean fieldAccess) {\n")
+            .append("        switch (field) {\n");
+        for(VariableElement field : fields) {
+            code.append("            case \"").append(field.getSimpleName()).append("\": return fieldAccess ? ")
+                .append(setterCode(type, field, true, false)).append(" : ").append(setterCode(type, field, false, false)).append(";\n");
+        }
+        code.append("            default: return null;\n")
+            .append("        }\n")
+            .append("    }\n\n")
+
+            .append("    @Override\n")
+            .append("    public java.util.function.Function<").append(typeName).append(", Object> getter(String field, boolean fieldAccess) {\n")
+            .append("        switch (field) {\n");
+        for(VariableElement field : fields) {
+            code.append("            case \"").append(field.getSimpleName()).append("\": return fieldAccess ? ")
+                .append(getterCode(type, field, true)).append(" : ").append(getterCode(type, field, false)).append(";\n");
+        }
+        code.append("            default: return null;\n")
+            .append("        }\n")
+            .append("    }\n");
+
+        // The primitive fields are also accessed without boxing
+        appendPrimitiveAccessors(code, type, fields, TypeKind.INT, "intSetter", "java.util.function.ObjIntConsumer", "intGetter", "java.util.function.ToIntFunction");
+        appendPrimitiveAccessors(code, type, fields, TypeKind.LONG, "longSetter", "java.util.function.ObjLongConsumer", "longGetter", "java.util.function.ToLongFunction");
+        appendPrimitiveAccessors(code, type, fields, TypeKind.DOUBLE, "doubleSetter", "java.util.function.ObjDoubleConsumer", "doubleGetter", "java.util.function.ToDoubleFunction");
+        appendPrimitiveAccessors(code, type, fields, TypeKind.BOOLEAN, "booleanSetter", ROW_READER + ".BooleanSetter", "booleanGetter", "java.util.function.Predicate");
+        code.append("}\n");
+
+        final String qualifiedMapperName = packageName.isEmpty() ? mapperName : packageName + "." + mapperName;
+        try(Writer writer = processingEnv.getFiler().createSourceFile(qualifiedMapperName, type).openWriter()) {
+            writer.write(code.toString());
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Cannot generate "+qualifiedMapperName+": "+e.getMessage(), type);
+            return;
+        }
+
+        generatedMappers.add(qualifiedMapperName);
+        mappedClasses.add(binaryName);
+    }
+
+    private void writeResource(String path, String content) {
+        try {
+            final FileObject resource = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", path);
+            try(Writer writer = resource.openWriter()) {
+                writer.write(content);
+            }
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Cannot write "+path+": "+e.getMessage());
+        }
+    }
+
+    /**
+     * @return The lines of a resource written by a previous build, empty if the resource does not exist
+     */
+    private List<String> readResource(String path) {
+        try {
+            final FileObject resource = processingEnv.getFiler().getResource(StandardLocation.CLASS_OUTPUT, "", path);
+            try(BufferedReader reader = new BufferedReader(resource.openReader(true))) {
+                return reader.lines().collect(Collectors.toList());
+            }
+        } catch (FileNotFoundException | NoSuchFileException e) {
+            return Collections.emptyList();
+        } catch (IOException | IllegalArgumentException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING, "Cannot read "+path+", it will be overwritten: "+e.getMessage());
+            return Collections.emptyList();
+        }
+    }
+
+    /**
+     * @param binaryName The binary name of a class written by a previous build
+     * @return True if the class can still be found by the compilation
+     */
+    private boolean exists(String binaryName) {
+        return processingEnv.getElementUtils().getTypeElement(binaryName.replace('$', '.')) != null;
+    }
+
+    /**
+     * Merge the mappers of this build with the ones registered by a previous (incremental) build
+     */
+    private Set<String> services(String path) {
+        final Set<String> services = new TreeSet<>(generatedMappers);
+        for(String line : readResource(path)) {
+            final int comment = line.indexOf('#');
+            final String mapper = (comment >= 0 ? line.substring(0, comment) : line).trim();
+
+            if(!mapper.isEmpty() && exists(mapper)) services.add(mapper);
+        }
+        return services;
+    }
+
+    private void writeServices() {
+        for(String service : Arrays.asList(ROW_READER, ROW_WRITER)) {
+            final String path = "META-INF/services/" + service;
+            writeResource(path, String.join("\n", services(path)) + "\n");
+        }
+    }
+
+    private void writeReflectConfig() {
+        final Set<String> classes = new TreeSet<>(mappedClasses);
+        classes.addAll(generatedMappers);
+        for(String line : readResource(REFLECT_CONFIG)) {
+            final Matcher name = REFLECT_CONFIG_NAME.matcher(line);
+            if(name.find() && exists(name.group(1))) classes.add(name.group(1));
+        }
+
+        writeResource(REFLECT_CONFIG, classes
+                .stream()
+                .map(name -> name.endsWith(SUFFIX)
+                        ? "  { \"name\": \"" + name + "\", \"methods\": [ { \"name\": \"<init>\", \"parameterTypes\": [] } ] }"
+                        : "  { \"name\": \"" + name + "\", \"allDeclaredFields\": true }")
+                .collect(Collectors.joining(",\n", "[\n", "\n]\n")));
+    }
+}
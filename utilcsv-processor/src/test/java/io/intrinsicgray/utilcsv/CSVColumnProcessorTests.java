@@ -0,0 +1,150 @@
+package io.intrinsicgray.utilcsv;
+
+import io.intrinsicgray.utilcsv.processor.CSVColumnProcessor;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.tools.*;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The test is in the package of the library, to check which accessors {@link ClassMapping} uses
+ */
+public class CSVColumnProcessorTests {
+
+    private static final String CSV_CONTENT =
+            "Full name,Height\n" +
+            "Joseph Francis Tribbiani Jr.,175\n" +
+            "Sheldon Lee Cooper,186\n";
+
+    private static final String ACCESSORS =
+            "package example;\n" +
+            "\n" +
+            "import io.intrinsicgray.utilcsv.CSVColumn;\n" +
+            "\n" +
+            "public class PersonAccessors {\n" +
+            "    @CSVColumn(name = \"Full name\", order = 1)\n" +
+            "    private String name;\n" +
+            "    @CSVColumn(name = \"Height\", order = 2)\n" +
+            "    private int height;\n" +
+            "\n" +
+            "    public String getName() { return name; }\n" +
+            "    public void setName(String name) { this.name = name; }\n" +
+            "    public int getHeight() { return height; }\n" +
+            "    public void setHeight(int height) { this.height = height; }\n" +
+            "}\n";
+
+    private static final String FIELDS =
+            "package example;\n" +
+            "\n" +
+            "import io.intrinsicgray.utilcsv.CSVColumn;\n" +
+            "\n" +
+            "public class PersonFields {\n" +
+            "    @CSVColumn(name = \"Full name\", order = 1)\n" +
+            "    public String name;\n" +
+            "    @CSVColumn(name = \"Height\", order = 2)\n" +
+            "    public int height;\n" +
+            "}\n";
+
+
+    /**
+     * Compile the sources with the processor, the classes already compiled in output being on the classpath
+     */
+    private List<Diagnostic<? extends JavaFileObject>> compile(Path sources, Path output, String... classes) throws IOException {
+        final JavaCompiler                        compiler    = ToolProvider.getSystemJavaCompiler();
+        final DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+
+        try(StandardJavaFileManager fileManager = compiler.getStandardFileManager(diagnostics, Locale.ROOT, StandardCharsets.UTF_8)) {
+            final List<Path> files = Arrays.stream(classes).map(name -> sources.resolve(name + ".java")).collect(Collectors.toList());
+            final List<String> options = Arrays.asList(
+                    "-classpath", System.getProperty("java.class.path") + java.io.File.pathSeparator + output,
+                    "-d", output.toString()
+            );
+
+            final JavaCompiler.CompilationTask task = compiler.getTask(null, fileManager, diagnostics, options, null, fileManager.getJavaFileObjectsFromPaths(files));
+            task.setProcessors(Collections.singletonList(new CSVColumnProcessor()));
+
+            assertTrue(task.call(), () -> "Compilation failed: "+diagnostics.getDiagnostics());
+        }
+        return diagnostics.getDiagnostics();
+    }
+
+    private static List<String> services(ClassLoader classLoader, Class<?> service) {
+        final List<String> providers = new ArrayList<>();
+        for(Object provider : ServiceLoader.load(service, classLoader)) {
+            providers.add(provider.getClass().getName());
+        }
+        return providers;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> void testRoundTrip(Class<T> type, boolean fieldAccess) throws Exception {
+        final CSVParser    parser    = new CSVParser().lineSeparator(LineSeparator.LF).useHeader(true).fieldAccess(fieldAccess);
+        final CSVFormatter formatter = new CSVFormatter().lineSeparator(LineSeparator.LF).useHeader(true).fieldAccess(fieldAccess);
+
+        final List<T> people = parser.parse(CSV_CONTENT, type);
+        assertEquals(2, people.size());
+        assertEquals(CSV_CONTENT, formatter.format(people));
+
+        //The mapping uses the generated mapper
+        final ClassMapping mapping = ClassMapping.of(type);
+        final Class<?>     mapper  = type.getClassLoader().loadClass(type.getName() + "_CSVMapper");
+        assertInstanceOf(mapper, mapping.getReader());
+        assertInstanceOf(mapper, mapping.getWriter());
+        assertSame(type, ((RowReader<T>) mapping.getReader()).type());
+
+        //The int column is bound and formatted without boxing
+        final Column height = mapping.getColumns().get(1);
+        assertNotNull(mapping.getReader().intSetter("height", fieldAccess));
+        assertNotNull(mapping.getWriter().intGetter("height", fieldAccess));
+        assertNotNull(height.getPrimitiveSetter(fieldAccess));
+        assertNotNull(height.getPrimitiveGetter(fieldAccess));
+    }
+
+
+    @Test
+    void processorMappers(@TempDir Path directory) {
+        try {
+            final Path sources = Files.createDirectories(directory.resolve("src/example"));
+            final Path output  = Files.createDirectories(directory.resolve("classes"));
+            Files.writeString(sources.resolve("PersonAccessors.java"), ACCESSORS);
+            Files.writeString(sources.resolve("PersonFields.java"), FIELDS);
+
+            //The generated mappers compile, and no class falls back to reflection
+            final List<Diagnostic<? extends JavaFileObject>> diagnostics = compile(sources, output, "PersonAccessors", "PersonFields");
+            assertTrue(diagnostics.stream().noneMatch(diagnostic -> diagnostic.getKind() == Diagnostic.Kind.WARNING), diagnostics::toString);
+            assertTrue(Files.exists(output.resolve("example/PersonAccessors_CSVMapper.class")));
+            assertTrue(Files.exists(output.resolve("example/PersonFields_CSVMapper.class")));
+            assertTrue(Files.readString(output.resolve("example/PersonFields_CSVMapper.java")).contains("@javax.annotation.processing.Generated"));
+
+            //An incremental build keeps the mappers of the classes not recompiled
+            compile(sources, output, "PersonFields");
+            final List<String> mappers = Arrays.asList("example.PersonAccessors_CSVMapper", "example.PersonFields_CSVMapper");
+            assertEquals(mappers, Files.readAllLines(output.resolve("META-INF/services/io.intrinsicgray.utilcsv.RowReader")));
+            assertEquals(mappers, Files.readAllLines(output.resolve("META-INF/services/io.intrinsicgray.utilcsv.RowWriter")));
+            final String reflectConfig = Files.readString(output.resolve("META-INF/native-image/utilcsv-generated/reflect-config.json"));
+            assertTrue(reflectConfig.contains("\"example.PersonAccessors\""));
+            assertTrue(reflectConfig.contains("\"example.PersonAccessors_CSVMapper\""));
+
+            try(URLClassLoader classLoader = new URLClassLoader(new URL[] { output.toUri().toURL() }, getClass().getClassLoader())) {
+                assertEquals(mappers, services(classLoader, RowReader.class));
+                assertEquals(mappers, services(classLoader, RowWriter.class));
+
+                testRoundTrip(classLoader.loadClass("example.PersonAccessors"), false);
+                testRoundTrip(classLoader.loadClass("example.PersonFields"), true);
+            }
+        } catch (Exception e) {
+            fail(e);
+        }
+    }
+}